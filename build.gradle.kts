@@ -7,6 +7,7 @@ plugins {
     id("com.github.johnrengelman.shadow") version "5.2.0"
     id("moe.nikky.persistentCounter") version "0.0.8-SNAPSHOT"
     id("checkstyle")
+    id("me.champeau.gradle.jmh") version "0.5.0"
 }
 
 val major: String by project
@@ -38,6 +39,8 @@ dependencies {
     shadow(group = "blue.endless", name = "jankson", version = "1.2.0")
     compileOnly(group = "com.google.code.findbugs", name = "jsr305", version = "3.0.2")
     testImplementation(group = "org.junit.jupiter", name = "junit-jupiter", version = "5.4.1")
+    // generates accessors for the @Settings POJOs of the tests
+    testAnnotationProcessor(project(":processor"))
 }
 
 checkstyle {
@@ -49,6 +52,14 @@ tasks.withType<Test> {
     useJUnitPlatform()
 }
 
+jmh {
+    jmhVersion = "1.23"
+    // report allocation rates alongside timings
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    duplicateClassesStrategy = DuplicatesStrategy.WARN
+}
+
 val shadowJar by tasks.getting(ShadowJar::class) {
     archiveClassifier.set("")
     configurations = listOf(
@@ -0,0 +1,17 @@
+plugins {
+    `java-library`
+    id("checkstyle")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+}
+
+repositories {
+    mavenCentral()
+}
+
+checkstyle {
+    configFile = rootProject.file("checkstyle.xml")
+    toolVersion = "8.31"
+}
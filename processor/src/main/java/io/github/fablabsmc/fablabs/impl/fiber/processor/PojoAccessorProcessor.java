@@ -0,0 +1,289 @@
+package io.github.fablabsmc.fablabs.impl.fiber.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates a {@code PojoAccessor} for every class annotated with {@code @Settings}.
+ *
+ * <p>The generated accessor reads and writes the fields of the class, and invokes its {@code @Listener} methods,
+ * with plain Java code instead of reflection. Private members cannot be reached from the generated class,
+ * and are left to the reflective path. Config types and constraints are still resolved when the class
+ * is first processed by {@code AnnotatedSettings}, which keeps the generated trees identical to the reflective ones.
+ *
+ * <p>Annotation types are referred to by name, so that this processor does not need fiber on its class path.
+ */
+@SupportedAnnotationTypes(PojoAccessorProcessor.SETTINGS)
+public class PojoAccessorProcessor extends AbstractProcessor {
+	static final String SETTINGS = "io.github.fablabsmc.fablabs.api.fiber.v1.annotation.Settings";
+	static final String LISTENER = "io.github.fablabsmc.fablabs.api.fiber.v1.annotation.Listener";
+	static final String POJO_ACCESSOR = "io.github.fablabsmc.fablabs.api.fiber.v1.annotation.collect.PojoAccessor";
+	/**
+	 * Must match {@code PojoAccessor.SUFFIX}.
+	 */
+	static final String SUFFIX = "_FiberAccessor";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+				if (type.getKind() != ElementKind.CLASS) continue;
+
+				if (!this.isReachable(type)) {
+					this.processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Not generating an accessor for " + type + ", as it is private or local", type);
+					continue;
+				}
+
+				try {
+					this.generate(type);
+				} catch (IOException e) {
+					this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to generate accessor for " + type + ": " + e, type);
+				}
+			}
+		}
+
+		// other processors may be interested in @Settings too
+		return false;
+	}
+
+	private boolean isReachable(TypeElement type) {
+		for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+			TypeElement t = (TypeElement) e;
+
+			if (t.getModifiers().contains(Modifier.PRIVATE) || t.getNestingKind() == NestingKind.LOCAL || t.getNestingKind() == NestingKind.ANONYMOUS) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns {@code true} if the erasure of a type can be named from the generated accessor.
+	 */
+	private boolean isReachable(TypeMirror type) {
+		TypeMirror erased = this.processingEnv.getTypeUtils().erasure(type);
+
+		if (erased.getKind() == TypeKind.ARRAY) {
+			return this.isReachable(((ArrayType) erased).getComponentType());
+		} else if (erased.getKind() == TypeKind.DECLARED) {
+			return this.isReachable((TypeElement) ((DeclaredType) erased).asElement());
+		}
+
+		return true;
+	}
+
+	private void generate(TypeElement type) throws IOException {
+		PackageElement pkg = this.processingEnv.getElementUtils().getPackageOf(type);
+		String binaryName = this.processingEnv.getElementUtils().getBinaryName(type).toString();
+		String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+		String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+		String pojoType = type.getQualifiedName().toString();
+
+		List<VariableElement> fields = new ArrayList<>();
+
+		for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+			Set<Modifier> modifiers = field.getModifiers();
+
+			if (!modifiers.contains(Modifier.PRIVATE) && !modifiers.contains(Modifier.TRANSIENT) && this.isReachable(field.asType())) {
+				fields.add(field);
+			}
+		}
+
+		List<ExecutableElement> methods = this.findListenerMethods(type);
+
+		try (PrintWriter out = new PrintWriter(this.processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? simpleName : packageName + "." + simpleName, type).openWriter())) {
+			if (!packageName.isEmpty()) {
+				out.println("package " + packageName + ";");
+				out.println();
+			}
+
+			out.println("/**");
+			out.println(" * Accessor for {@link " + pojoType + "}, generated by " + PojoAccessorProcessor.class.getName() + ".");
+			out.println(" */");
+			out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+			out.println("public final class " + simpleName + " implements " + POJO_ACCESSOR + "<Object> {");
+
+			out.println("\t@Override");
+			out.println("\tpublic int fieldIndex(String name) {");
+			out.println("\t\tswitch (name) {");
+
+			for (int i = 0; i < fields.size(); i++) {
+				out.println("\t\tcase \"" + fields.get(i).getSimpleName() + "\": return " + i + ";");
+			}
+
+			out.println("\t\tdefault: return -1;");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println();
+
+			out.println("\t@Override");
+			out.println("\tpublic int methodIndex(String name, int paramCount) {");
+			out.println("\t\tswitch (name + \"/\" + paramCount) {");
+
+			for (int i = 0; i < methods.size(); i++) {
+				ExecutableElement method = methods.get(i);
+				out.println("\t\tcase \"" + method.getSimpleName() + "/" + method.getParameters().size() + "\": return " + i + ";");
+			}
+
+			out.println("\t\tdefault: return -1;");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println();
+
+			out.println("\t@Override");
+			out.println("\tpublic Object get(Object pojo, int field) {");
+			out.println("\t\tswitch (field) {");
+
+			for (int i = 0; i < fields.size(); i++) {
+				out.println("\t\tcase " + i + ": return " + this.receiver(fields.get(i), pojoType) + "." + fields.get(i).getSimpleName() + ";");
+			}
+
+			out.println("\t\tdefault: throw new IndexOutOfBoundsException(\"Field \" + field);");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println();
+
+			out.println("\t@Override");
+			out.println("\tpublic void set(Object pojo, int field, Object value) {");
+			out.println("\t\tswitch (field) {");
+
+			for (int i = 0; i < fields.size(); i++) {
+				VariableElement field = fields.get(i);
+
+				// final fields are only readable, they are written through reflection
+				if (!field.getModifiers().contains(Modifier.FINAL)) {
+					out.println("\t\tcase " + i + ": " + this.receiver(field, pojoType) + "." + field.getSimpleName() + " = (" + this.castType(field.asType()) + ") value; return;");
+				}
+			}
+
+			out.println("\t\tdefault: throw new IndexOutOfBoundsException(\"Field \" + field);");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println();
+
+			out.println("\t@Override");
+			out.println("\tpublic void invoke(Object pojo, int method, Object oldValue, Object newValue) throws Throwable {");
+			out.println("\t\tswitch (method) {");
+
+			for (int i = 0; i < methods.size(); i++) {
+				ExecutableElement method = methods.get(i);
+				List<? extends VariableElement> parameters = method.getParameters();
+				String arguments = parameters.size() == 1
+						? "(" + this.castType(parameters.get(0).asType()) + ") newValue"
+						: "(" + this.castType(parameters.get(0).asType()) + ") oldValue, (" + this.castType(parameters.get(1).asType()) + ") newValue";
+				out.println("\t\tcase " + i + ": " + this.receiver(method, pojoType) + "." + method.getSimpleName() + "(" + arguments + "); return;");
+			}
+
+			out.println("\t\tdefault: throw new IndexOutOfBoundsException(\"Method \" + method);");
+			out.println("\t\t}");
+			out.println("\t}");
+			out.println("}");
+		}
+	}
+
+	/**
+	 * Finds the reachable listener methods taking one or two parameters.
+	 *
+	 * <p>Methods are looked up by name and parameter count, so overloads that cannot be told apart this way are left out.
+	 */
+	private List<ExecutableElement> findListenerMethods(TypeElement type) {
+		Map<String, Integer> signatures = new HashMap<>();
+		List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+
+		for (ExecutableElement method : methods) {
+			signatures.merge(method.getSimpleName() + "/" + method.getParameters().size(), 1, Integer::sum);
+		}
+
+		List<ExecutableElement> ret = new ArrayList<>();
+
+		for (ExecutableElement method : methods) {
+			int paramCount = method.getParameters().size();
+
+			if (method.getModifiers().contains(Modifier.PRIVATE) || (paramCount != 1 && paramCount != 2) || !this.isListener(method)) continue;
+
+			if (!method.getParameters().stream().allMatch(p -> this.isReachable(p.asType()))) continue;
+
+			if (signatures.get(method.getSimpleName() + "/" + paramCount) == 1) {
+				ret.add(method);
+			}
+		}
+
+		return ret;
+	}
+
+	private boolean isListener(Element element) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(LISTENER)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private String receiver(Element member, String pojoType) {
+		return member.getModifiers().contains(Modifier.STATIC) ? pojoType : "((" + pojoType + ") pojo)";
+	}
+
+	/**
+	 * Returns the name of the erased reference type to which a value of the given type is cast,
+	 * boxing primitive types.
+	 */
+	private String castType(TypeMirror type) {
+		if (type instanceof PrimitiveType) {
+			return this.processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+		}
+
+		return this.erasedName(type);
+	}
+
+	private String erasedName(TypeMirror type) {
+		TypeMirror erased = this.processingEnv.getTypeUtils().erasure(type);
+
+		switch (erased.getKind()) {
+		case ARRAY:
+			return this.erasedName(((ArrayType) erased).getComponentType()) + "[]";
+		case DECLARED:
+			return ((TypeElement) ((DeclaredType) erased).asElement()).getQualifiedName().toString();
+		default:
+			if (erased.getKind().isPrimitive()) {
+				return erased.getKind().name().toLowerCase(Locale.ROOT);
+			}
+
+			return "Object";
+		}
+	}
+}
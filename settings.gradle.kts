@@ -8,3 +8,5 @@ pluginManagement {
 }
 rootProject.name = "fiber"
 
+
+include("processor")
@@ -0,0 +1,106 @@
+package io.github.fablabsmc.fablabs.impl.fiber.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.AnnotatedSettings;
+import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.Listener;
+import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.Setting;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures generating trees from annotated POJOs through {@link AnnotatedSettings#makeTree(Object)},
+ * and updating the POJOs through the generated trees.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AnnotatedSettingsBenchmark {
+	@Benchmark
+	public ConfigBranch makeTree() throws FiberException {
+		return AnnotatedSettings.DEFAULT_SETTINGS.makeTree(new BenchmarkPojo());
+	}
+
+	/**
+	 * Sets a leaf, which writes the POJO field and invokes its listener method.
+	 */
+	@Benchmark
+	public int updateField(UpdateState state) {
+		state.leaf.setValue(BigDecimal.valueOf(state.updates++ % 100));
+		return state.pojo.integer;
+	}
+
+	@State(Scope.Benchmark)
+	public static class UpdateState {
+		BenchmarkPojo pojo;
+		ConfigLeaf<BigDecimal> leaf;
+		long updates;
+
+		@Setup
+		@SuppressWarnings("unchecked")
+		public void setUp() throws FiberException {
+			this.pojo = new BenchmarkPojo();
+			this.leaf = (ConfigLeaf<BigDecimal>) AnnotatedSettings.DEFAULT_SETTINGS.makeTree(this.pojo).lookup("integer");
+		}
+	}
+
+	@SuppressWarnings({"unused", "FieldMayBeFinal"})
+	public static class BenchmarkPojo {
+		@Setting(comment = "An integer")
+		@Setting.Constrain.Range(min = 0, max = 100)
+		private int integer = 10;
+		private long longValue = 1234567890123L;
+		@Setting.Constrain.Range(min = 0, max = 1, step = 0.1)
+		private double decimal = 0.5;
+		private boolean flag = true;
+		@Setting.Constrain.MaxLength(32)
+		private String text = "hello";
+		private TreeGenerator.Flavour flavour = TreeGenerator.Flavour.GREEN;
+		private List<Integer> list = Arrays.asList(1, 2, 3);
+		private Set<String> set = new LinkedHashSet<>(Arrays.asList("x", "y"));
+		private int[] array = {4, 5, 6};
+
+		@Setting.Group
+		private Group first = new Group();
+		@Setting.Group
+		private Group second = new Group();
+
+		@Listener("integer")
+		private void onIntegerChange(Integer newValue) {
+		}
+	}
+
+	@SuppressWarnings({"unused", "FieldMayBeFinal"})
+	public static class Group {
+		private int integer = 3;
+		private String text = "world";
+		private List<String> strings = Arrays.asList("a", "b");
+
+		@Setting.Group
+		private Inner inner = new Inner();
+	}
+
+	@SuppressWarnings({"unused", "FieldMayBeFinal"})
+	public static class Inner {
+		private float ratio = 0.25f;
+		private char character = 'c';
+	}
+}
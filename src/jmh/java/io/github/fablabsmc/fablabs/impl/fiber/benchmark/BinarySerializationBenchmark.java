@@ -0,0 +1,98 @@
+package io.github.fablabsmc.fablabs.impl.fiber.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.ValueDeserializationException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.BinaryValueSerializer;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.FiberSerialization;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.NumberConfigLeaf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link FiberSerialization} round trips through {@link BinaryValueSerializer},
+ * for comparison with {@link SerializationBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinarySerializationBenchmark {
+	@Param({"false", "true"})
+	public boolean schemaAware;
+
+	private BinaryValueSerializer serializer;
+	private ByteArrayOutputStream out;
+	private byte[] serialized;
+	// a leaf of the deepest branch, modified before each incremental serialization
+	private ConfigLeaf<?> edited;
+	private long edits;
+
+	@Setup(Level.Trial)
+	public void setUp(TreeState state) throws IOException {
+		this.serializer = this.schemaAware ? new BinaryValueSerializer(state.tree) : new BinaryValueSerializer();
+		this.out = new ByteArrayOutputStream();
+		FiberSerialization.serialize(state.tree, this.out, this.serializer);
+		this.serialized = this.out.toByteArray();
+
+		ConfigBranch branch = state.tree;
+
+		while (branch.lookupBranch("branch0") != null) {
+			branch = branch.lookupBranch("branch0");
+		}
+
+		this.edited = (ConfigLeaf<?>) branch.lookup("leaf0");
+	}
+
+	@Benchmark
+	public int serialize(TreeState state) throws IOException {
+		this.out.reset();
+		FiberSerialization.serialize(state.tree, this.out, this.serializer);
+		return this.out.size();
+	}
+
+	/**
+	 * Serializes the tree after a single leaf has changed, so that only the branches leading to it are serialized again.
+	 */
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public int serializeAfterEdit(TreeState state) throws IOException {
+		if (this.edited instanceof NumberConfigLeaf) {
+			((NumberConfigLeaf) this.edited).setLong(this.edits++);
+		} else {
+			((ConfigLeaf<String>) this.edited).setValue("edit " + this.edits++);
+		}
+
+		return this.serialize(state);
+	}
+
+	@Benchmark
+	public void deserialize(TreeState state) throws IOException, ValueDeserializationException {
+		FiberSerialization.deserialize(state.tree, new ByteArrayInputStream(this.serialized), this.serializer);
+	}
+
+	/**
+	 * Deserializes the tree without accessing it afterwards, so that only the values of the root are converted.
+	 */
+	@Benchmark
+	public void deserializeLazily(TreeState state) throws IOException, ValueDeserializationException {
+		FiberSerialization.deserializeLazily(state.tree, new ByteArrayInputStream(this.serialized), this.serializer);
+	}
+}
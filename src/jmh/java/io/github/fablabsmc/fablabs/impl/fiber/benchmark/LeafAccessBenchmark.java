@@ -0,0 +1,86 @@
+package io.github.fablabsmc.fablabs.impl.fiber.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.NumberConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.PropertyMirror;
+import io.github.fablabsmc.fablabs.impl.fiber.tree.ConfigLeafImpl;
+import io.github.fablabsmc.fablabs.impl.fiber.tree.PropertyMirrorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures single value reads and writes through {@link ConfigLeafImpl}, {@link NumberConfigLeaf} and {@link PropertyMirrorImpl}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class LeafAccessBenchmark {
+	private static final BigDecimal[] VALUES = {BigDecimal.ONE, BigDecimal.TEN};
+
+	@Param({"false", "true"})
+	public boolean concurrent;
+
+	private ConfigLeaf<BigDecimal> leaf;
+	private PropertyMirror<Integer> mirror;
+	private int counter;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.mirror = PropertyMirror.create(ConfigTypes.INTEGER);
+		ConfigTree.builder()
+				.withConcurrentAccess(this.concurrent)
+				.beginValue("value", ConfigTypes.INTEGER, 0)
+				.finishValue(l -> this.leaf = l)
+				.build();
+		this.mirror.mirror(this.leaf);
+	}
+
+	@Benchmark
+	public boolean leafSetValue() {
+		return this.leaf.setValue(VALUES[this.counter++ & 1]);
+	}
+
+	@Benchmark
+	public BigDecimal leafGetValue() {
+		return this.leaf.getValue();
+	}
+
+	@Benchmark
+	public boolean leafSetInt() {
+		return ((NumberConfigLeaf) this.leaf).setInt(this.counter++ & 1);
+	}
+
+	@Benchmark
+	public int leafGetInt() {
+		return ((NumberConfigLeaf) this.leaf).getInt();
+	}
+
+	@Benchmark
+	public Integer mirrorGetValue() {
+		return this.mirror.getValue();
+	}
+
+	@Benchmark
+	public Integer mirrorGetValueAfterWrite() {
+		this.leaf.setValue(VALUES[this.counter++ & 1]);
+		return this.mirror.getValue();
+	}
+}
@@ -0,0 +1,66 @@
+package io.github.fablabsmc.fablabs.impl.fiber.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberQueryException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigQuery;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures repeated {@link ConfigQuery} runs and {@link ConfigTree#lookupPath(String) path lookups}
+ * against the same tree, for present and missing nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class QueryBenchmark {
+	private ConfigTree tree;
+	private ConfigQuery<ConfigLeaf<BigDecimal>> present;
+	private ConfigQuery<ConfigLeaf<BigDecimal>> missing;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.tree = new TreeGenerator(3, 10, TreeGenerator.LeafMix.NUMERIC).generate();
+		this.present = ConfigQuery.leaf(ConfigTypes.INTEGER.getSerializedType(), "branch9", "branch9", "leaf8");
+		this.missing = ConfigQuery.leaf(ConfigTypes.INTEGER.getSerializedType(), "branch9", "branch9", "missing");
+	}
+
+	@Benchmark
+	public ConfigLeaf<BigDecimal> runPresent() throws FiberQueryException {
+		return this.present.run(this.tree);
+	}
+
+	@Benchmark
+	public Optional<ConfigLeaf<BigDecimal>> searchMissing() {
+		return this.missing.search(this.tree);
+	}
+
+	@Benchmark
+	public ConfigNode lookupPathPresent() {
+		return this.tree.lookupPath("branch9.branch9.leaf8");
+	}
+
+	@Benchmark
+	public ConfigNode lookupPathMissing() {
+		return this.tree.lookupPath("branch9.branch9.missing");
+	}
+}
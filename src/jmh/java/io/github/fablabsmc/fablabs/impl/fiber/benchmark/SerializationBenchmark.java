@@ -0,0 +1,72 @@
+package io.github.fablabsmc.fablabs.impl.fiber.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.ValueDeserializationException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.FiberSerialization;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.JanksonValueSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link FiberSerialization} round trips through {@link JanksonValueSerializer}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+	@Param({"false", "true"})
+	public boolean minify;
+
+	private JanksonValueSerializer serializer;
+	private ByteArrayOutputStream out;
+	private byte[] serialized;
+
+	@Setup(Level.Trial)
+	public void setUp(TreeState state) throws IOException {
+		this.serializer = new JanksonValueSerializer(this.minify);
+		this.out = new ByteArrayOutputStream();
+		FiberSerialization.serialize(state.tree, this.out, this.serializer);
+		this.serialized = this.out.toByteArray();
+	}
+
+	@Benchmark
+	public int serialize(TreeState state) throws IOException {
+		this.out.reset();
+		FiberSerialization.serialize(state.tree, this.out, this.serializer);
+		return this.out.size();
+	}
+
+	@Benchmark
+	public int serializeStreaming(TreeState state) throws IOException {
+		this.out.reset();
+		FiberSerialization.serializeStreaming(state.tree, this.out, this.serializer);
+		return this.out.size();
+	}
+
+	@Benchmark
+	public void deserialize(TreeState state) throws IOException, ValueDeserializationException {
+		FiberSerialization.deserialize(state.tree, new ByteArrayInputStream(this.serialized), this.serializer);
+	}
+
+	@Benchmark
+	public void deserializeStreaming(TreeState state) throws IOException, ValueDeserializationException {
+		FiberSerialization.deserializeStreaming(state.tree, new ByteArrayInputStream(this.serialized), this.serializer);
+	}
+}
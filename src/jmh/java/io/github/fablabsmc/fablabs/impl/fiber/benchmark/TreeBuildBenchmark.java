@@ -0,0 +1,28 @@
+package io.github.fablabsmc.fablabs.impl.fiber.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigTreeBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building whole trees through {@link ConfigTreeBuilder#build()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TreeBuildBenchmark {
+	@Benchmark
+	public ConfigBranch build(TreeState state) {
+		return state.generator.generate();
+	}
+}
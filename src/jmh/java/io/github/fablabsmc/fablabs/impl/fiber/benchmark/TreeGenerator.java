@@ -0,0 +1,142 @@
+package io.github.fablabsmc.fablabs.impl.fiber.benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigTreeBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+
+/**
+ * Generates config trees of a configurable shape for benchmarking.
+ *
+ * <p>A generated tree has {@code fanOut} children per branch. Branches at depth
+ * {@code depth - 1} only hold leaves, all other branches only hold sub-branches,
+ * so a tree holds {@code fanOut^depth} leaves in total.
+ */
+public final class TreeGenerator {
+	/**
+	 * The kinds of leaves found in a generated tree.
+	 */
+	public enum LeafMix {
+		/**
+		 * Only integral and decimal leaves.
+		 */
+		NUMERIC,
+		/**
+		 * Only string leaves.
+		 */
+		TEXT,
+		/**
+		 * Every kind of leaf offered by {@link ConfigTypes}, including lists and maps.
+		 */
+		MIXED
+	}
+
+	public enum Flavour {
+		RED, GREEN, BLUE
+	}
+
+	private final int depth;
+	private final int fanOut;
+	private final LeafMix mix;
+
+	public TreeGenerator(int depth, int fanOut, LeafMix mix) {
+		if (depth < 1) throw new IllegalArgumentException("Depth must be at least 1");
+		if (fanOut < 1) throw new IllegalArgumentException("Fan-out must be at least 1");
+		this.depth = depth;
+		this.fanOut = fanOut;
+		this.mix = mix;
+	}
+
+	/**
+	 * Returns the amount of leaves in a tree generated by this generator.
+	 */
+	public int leafCount() {
+		int count = 1;
+
+		for (int i = 0; i < this.depth; i++) {
+			count *= this.fanOut;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Builds a new tree.
+	 *
+	 * @return the root of the generated tree
+	 */
+	public ConfigBranch generate() {
+		ConfigTreeBuilder root = ConfigTree.builder();
+		this.populate(root, this.depth);
+		return root.build();
+	}
+
+	private void populate(ConfigTreeBuilder builder, int remaining) {
+		for (int i = 0; i < this.fanOut; i++) {
+			if (remaining > 1) {
+				ConfigTreeBuilder child = builder.fork("branch" + i);
+				this.populate(child, remaining - 1);
+				child.build();
+			} else {
+				this.addLeaf(builder, i);
+			}
+		}
+	}
+
+	private void addLeaf(ConfigTreeBuilder builder, int index) {
+		String name = "leaf" + index;
+
+		switch (this.mix) {
+		case NUMERIC:
+			if (index % 2 == 0) {
+				builder.withValue(name, ConfigTypes.INTEGER, index);
+			} else {
+				builder.withValue(name, ConfigTypes.DOUBLE, index / 3d);
+			}
+
+			break;
+		case TEXT:
+			builder.withValue(name, ConfigTypes.STRING, "value of " + name);
+			break;
+		case MIXED:
+			addMixedLeaf(builder, name, index);
+			break;
+		default:
+			throw new IllegalStateException("Unknown leaf mix " + this.mix);
+		}
+	}
+
+	private static void addMixedLeaf(ConfigTreeBuilder builder, String name, int index) {
+		switch (index % 7) {
+		case 0:
+			builder.withValue(name, ConfigTypes.INTEGER, index);
+			break;
+		case 1:
+			builder.withValue(name, ConfigTypes.DOUBLE, index / 3d);
+			break;
+		case 2:
+			builder.withValue(name, ConfigTypes.BOOLEAN, index % 2 == 0);
+			break;
+		case 3:
+			builder.withValue(name, ConfigTypes.STRING, "value of " + name);
+			break;
+		case 4:
+			builder.withValue(name, ConfigTypes.makeEnum(Flavour.class), Flavour.values()[index % 3]);
+			break;
+		case 5:
+			builder.withValue(name, ConfigTypes.makeList(ConfigTypes.INTEGER), Arrays.asList(index, index + 1, index + 2));
+			break;
+		default:
+			Map<String, Integer> map = new LinkedHashMap<>();
+			map.put("first", index);
+			map.put("second", index * 2);
+			builder.withValue(name, ConfigTypes.makeMap(ConfigTypes.STRING, ConfigTypes.INTEGER), Collections.unmodifiableMap(map));
+			break;
+		}
+	}
+}
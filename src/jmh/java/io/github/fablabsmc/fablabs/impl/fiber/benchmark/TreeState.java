@@ -0,0 +1,34 @@
+package io.github.fablabsmc.fablabs.impl.fiber.benchmark;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark state holding a generated config tree.
+ *
+ * @see TreeGenerator
+ */
+@State(Scope.Benchmark)
+public class TreeState {
+	@Param({"2", "3"})
+	public int depth;
+
+	@Param({"10", "32"})
+	public int fanOut;
+
+	@Param({"NUMERIC", "TEXT", "MIXED"})
+	public TreeGenerator.LeafMix mix;
+
+	public TreeGenerator generator;
+	public ConfigBranch tree;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.generator = new TreeGenerator(this.depth, this.fanOut, this.mix);
+		this.tree = this.generator.generate();
+	}
+}
@@ -1,13 +1,18 @@
 package io.github.fablabsmc.fablabs.api.fiber.v1;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import io.github.fablabsmc.fablabs.api.fiber.v1.exception.DuplicateChildException;
 import io.github.fablabsmc.fablabs.api.fiber.v1.exception.RuntimeFiberException;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.Property;
+import io.github.fablabsmc.fablabs.impl.fiber.tree.ConfigLeafImpl;
 
 /**
  * Static utility class for operations on {@link ConfigNode} objects.
@@ -60,4 +65,48 @@ public class NodeOperations {
 	public static <T> void copyValue(Property<T> from, Property<T> to) {
 		to.setValue(from.getValue());
 	}
+
+	/**
+	 * Returns a future completed once the asynchronous listeners of a leaf
+	 * have processed every change made so far.
+	 *
+	 * <p>The returned future is already complete if the leaf has no listener running on an executor.
+	 *
+	 * @param leaf The leaf whose listeners are awaited.
+	 * @return a future completed when the listeners are idle
+	 * @see io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigLeafBuilder#withListenerExecutor(java.util.concurrent.Executor)
+	 */
+	public static CompletableFuture<Void> awaitListeners(ConfigLeaf<?> leaf) {
+		if (leaf instanceof ConfigLeafImpl) {
+			return ((ConfigLeafImpl<?>) leaf).awaitListeners();
+		}
+
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Returns a future completed once the asynchronous listeners of every leaf in a tree
+	 * have processed every change made so far.
+	 *
+	 * @param tree The tree whose listeners are awaited.
+	 * @return a future completed when the listeners are idle
+	 * @see #awaitListeners(ConfigLeaf)
+	 */
+	public static CompletableFuture<Void> awaitListeners(ConfigTree tree) {
+		List<CompletableFuture<Void>> pending = new ArrayList<>();
+		collectPendingListeners(tree, pending);
+		return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]));
+	}
+
+	private static void collectPendingListeners(ConfigTree tree, List<CompletableFuture<Void>> pending) {
+		for (ConfigNode node : tree.getItems()) {
+			if (node instanceof ConfigLeaf) {
+				CompletableFuture<Void> idle = awaitListeners((ConfigLeaf<?>) node);
+
+				if (!idle.isDone()) pending.add(idle);
+			} else if (node instanceof ConfigTree) {
+				collectPendingListeners((ConfigTree) node, pending);
+			}
+		}
+	}
 }
@@ -18,6 +18,10 @@ public interface MemberCollector {
 	 *
 	 * <p>This method targets {@linkplain ElementType#FIELD}.
 	 *
+	 * <p>{@link io.github.fablabsmc.fablabs.api.fiber.v1.annotation.AnnotatedSettings} only calls this method
+	 * for the first POJO of each class, and reuses the collected members for later POJOs of the same class.
+	 * The members passed to the processor should therefore only depend on {@code clazz}.
+	 *
 	 * @param pojo      the instance of the POJO to scan
 	 * @param clazz     the class to scan
 	 * @param processor the member processor
@@ -0,0 +1,72 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.annotation.collect;
+
+/**
+ * Accesses the members of a POJO class without reflection.
+ *
+ * <p>Implementations are generated at compile time by the fiber annotation processor for classes annotated with
+ * {@link io.github.fablabsmc.fablabs.api.fiber.v1.annotation.Settings}. A generated accessor is named after the
+ * binary name of its POJO class followed by {@link #SUFFIX}, and is picked up automatically by
+ * {@link io.github.fablabsmc.fablabs.api.fiber.v1.annotation.AnnotatedSettings}. Members which the accessor
+ * cannot reach, such as private fields, are still accessed through reflection.
+ *
+ * <p>Members are identified by an index, resolved once per POJO class. This interface is not meant to be
+ * implemented manually.
+ *
+ * @param <P> the type of the POJO
+ */
+public interface PojoAccessor<P> {
+	/**
+	 * The suffix appended to the binary name of a POJO class to name its accessor.
+	 */
+	String SUFFIX = "_FiberAccessor";
+
+	/**
+	 * Returns the index of a field declared by the POJO class.
+	 *
+	 * @param name the name of the field
+	 * @return the index of the field, or {@code -1} if it is not accessible through this accessor
+	 */
+	int fieldIndex(String name);
+
+	/**
+	 * Returns the index of a method declared by the POJO class.
+	 *
+	 * @param name       the name of the method
+	 * @param paramCount the number of parameters of the method
+	 * @return the index of the method, or {@code -1} if it is not accessible through this accessor
+	 */
+	int methodIndex(String name, int paramCount);
+
+	/**
+	 * Reads a field.
+	 *
+	 * @param pojo  the POJO, ignored for static fields
+	 * @param field the index of the field
+	 * @return the value of the field
+	 */
+	Object get(P pojo, int field);
+
+	/**
+	 * Writes a field.
+	 *
+	 * <p>Final fields cannot be written through an accessor.
+	 *
+	 * @param pojo  the POJO, ignored for static fields
+	 * @param field the index of a non-final field
+	 * @param value the new value of the field
+	 */
+	void set(P pojo, int field, Object value);
+
+	/**
+	 * Invokes a method taking one or two parameters.
+	 *
+	 * <p>Methods taking a single parameter are invoked with {@code newValue} only.
+	 *
+	 * @param pojo     the POJO, ignored for static methods
+	 * @param method   the index of the method
+	 * @param oldValue the first argument of a method taking two parameters
+	 * @param newValue the last argument
+	 * @throws Throwable any exception thrown by the method
+	 */
+	void invoke(P pojo, int method, Object oldValue, Object newValue) throws Throwable;
+}
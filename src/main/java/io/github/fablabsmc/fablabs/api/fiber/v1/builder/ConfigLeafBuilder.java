@@ -1,12 +1,16 @@
 package io.github.fablabsmc.fablabs.api.fiber.v1.builder;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import io.github.fablabsmc.fablabs.api.fiber.v1.FiberId;
 import io.github.fablabsmc.fablabs.api.fiber.v1.exception.RuntimeFiberException;
@@ -16,6 +20,7 @@ import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigAttribute;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
 import io.github.fablabsmc.fablabs.impl.fiber.builder.ConfigNodeBuilder;
+import io.github.fablabsmc.fablabs.impl.fiber.tree.AsyncListener;
 import io.github.fablabsmc.fablabs.impl.fiber.tree.ConfigLeafImpl;
 
 /**
@@ -61,8 +66,10 @@ public class ConfigLeafBuilder<T, R> extends ConfigNodeBuilder {
 	@Nonnull
 	private T defaultValue;
 
-	private BiConsumer<T, T> consumer = (t, t2) -> {
-	};
+	// called in the order they are added
+	private final List<BiConsumer<T, T>> listeners = new ArrayList<>();
+	@Nullable
+	private Executor listenerExecutor;
 
 	/**
 	 * Creates a new scalar {@code ConfigLeafBuilder}.
@@ -141,14 +148,32 @@ public class ConfigLeafBuilder<T, R> extends ConfigNodeBuilder {
 	 *
 	 * <p>Listeners are called when the value of a {@code ConfigLeaf} is changed. They are of type {@link BiConsumer}: the first argument being the old value, and the second argument being the new value.
 	 *
-	 * <p>Listeners set with this method are chained: if there was already one specified, a new listener is created that calls the old one first, and then the new one.
+	 * <p>Listeners set with this method are cumulative: if there was already one specified, the old one is called first, and then the new one.
 	 *
 	 * @param consumer the listener
 	 * @return {@code this} builder
 	 */
 	public ConfigLeafBuilder<T, R> withListener(BiConsumer<R, R> consumer) {
-		// The newest consumer is called last -> listeners are called in the order they are added
-		this.consumer = this.consumer.andThen((t, t2) -> consumer.accept(t == null ? null : this.deserializer.apply(t), t2 == null ? null : this.deserializer.apply(t2)));
+		this.listeners.add((t, t2) -> consumer.accept(t == null ? null : this.deserializer.apply(t), t2 == null ? null : this.deserializer.apply(t2)));
+		return this;
+	}
+
+	/**
+	 * Sets the executor running the listeners of the {@code ConfigLeaf}.
+	 *
+	 * <p>Listeners specified with {@link #withListener(BiConsumer)} are then called on the executor rather than
+	 * on the thread changing the value. They are still called one at a time, in the order changes are made.
+	 * Any executor can be used, for instance a virtual thread executor on a recent Java version.
+	 * Listeners added to the built leaf with {@link ConfigLeaf#addChangeListener(BiConsumer)} are not affected.
+	 *
+	 * <p>If this method is not called, the executor of the parent {@link ConfigTreeBuilder} is used, if any.
+	 *
+	 * @param executor the executor to run listeners on, or {@code null} to run them on the thread changing the value
+	 * @return {@code this} builder
+	 * @see io.github.fablabsmc.fablabs.api.fiber.v1.NodeOperations#awaitListeners(ConfigTree)
+	 */
+	public ConfigLeafBuilder<T, R> withListenerExecutor(@Nullable Executor executor) {
+		this.listenerExecutor = executor;
 		return this;
 	}
 
@@ -168,6 +193,38 @@ public class ConfigLeafBuilder<T, R> extends ConfigNodeBuilder {
 		return this;
 	}
 
+	/**
+	 * Combines the listeners of this builder, to be run on the listener executor if there is one.
+	 */
+	private BiConsumer<T, T> buildListener() {
+		Executor executor = this.listenerExecutor;
+
+		if (executor == null && this.parent instanceof ConfigTreeBuilder) {
+			executor = ((ConfigTreeBuilder) this.parent).getListenerExecutor();
+		}
+
+		BiConsumer<T, T> listener = this.combineListeners();
+		return executor == null || this.listeners.isEmpty() ? listener : new AsyncListener<>(listener, executor);
+	}
+
+	private BiConsumer<T, T> combineListeners() {
+		switch (this.listeners.size()) {
+		case 0:
+			return (t, t2) -> {
+			};
+		case 1:
+			return this.listeners.get(0);
+		default:
+			// copied, so that leaves are not affected by listeners added to this builder later on
+			List<BiConsumer<T, T>> listeners = new ArrayList<>(this.listeners);
+			return (t, t2) -> {
+				for (BiConsumer<T, T> listener : listeners) {
+					listener.accept(t, t2);
+				}
+			};
+		}
+	}
+
 	/**
 	 * Builds the {@code ConfigLeaf}.
 	 *
@@ -185,7 +242,9 @@ public class ConfigLeafBuilder<T, R> extends ConfigNodeBuilder {
 			throw new RuntimeFiberException("Default value '" + this.defaultValue + "' does not satisfy constraints on type " + this.type);
 		}
 
-		ConfigLeaf<T> built = new ConfigLeafImpl<>(Objects.requireNonNull(name, "Cannot build a value without a name"), type, comment, defaultValue, consumer);
+		boolean concurrent = parent instanceof ConfigTreeBuilder && ((ConfigTreeBuilder) parent).isConcurrent();
+		ConfigLeafImpl<T> built = ConfigLeafImpl.create(Objects.requireNonNull(name, "Cannot build a value without a name"), type, comment, defaultValue, this.buildListener(), concurrent);
+		built.setChangeDetection(!(parent instanceof ConfigTreeBuilder) || ((ConfigTreeBuilder) parent).hasChangeDetection());
 		built.getAttributes().putAll(this.attributes);
 
 		if (parent != null) {
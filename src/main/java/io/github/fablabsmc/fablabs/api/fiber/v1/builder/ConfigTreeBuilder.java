@@ -1,6 +1,7 @@
 package io.github.fablabsmc.fablabs.api.fiber.v1.builder;
 
 import java.util.Collection;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
@@ -55,6 +56,10 @@ public class ConfigTreeBuilder extends ConfigNodeBuilder implements ConfigTree {
 	@Nullable
 	private String comment;
 	private boolean serializeSeparately;
+	private boolean concurrent;
+	@Nullable
+	private Executor listenerExecutor;
+	private boolean changeDetection = true;
 
 	/**
 	 * Creates a new builder with initial settings.
@@ -68,6 +73,9 @@ public class ConfigTreeBuilder extends ConfigNodeBuilder implements ConfigTree {
 		super(parent, name);
 		this.parent = parent;
 		this.name = name;
+		this.concurrent = parent instanceof ConfigTreeBuilder && ((ConfigTreeBuilder) parent).concurrent;
+		this.listenerExecutor = parent instanceof ConfigTreeBuilder ? ((ConfigTreeBuilder) parent).listenerExecutor : null;
+		this.changeDetection = !(parent instanceof ConfigTreeBuilder) || ((ConfigTreeBuilder) parent).changeDetection;
 	}
 
 	/**
@@ -252,6 +260,106 @@ public class ConfigTreeBuilder extends ConfigNodeBuilder implements ConfigTree {
 		return this;
 	}
 
+	/**
+	 * Makes the built subtree safe to read from several threads while it is being modified.
+	 *
+	 * @return {@code this}, for chaining
+	 * @see #withConcurrentAccess(boolean)
+	 */
+	public ConfigTreeBuilder withConcurrentAccess() {
+		return this.withConcurrentAccess(true);
+	}
+
+	/**
+	 * Sets whether the built subtree can be read from several threads while it is being modified.
+	 *
+	 * <p>In a concurrent subtree, every branch and leaf created by this builder and by its
+	 * {@linkplain #fork(String) forks} can be read from any thread without locking.
+	 * Leaf values are safely published as soon as they are set, and children can be looked up
+	 * or iterated while another thread adds or removes nodes. Modifications are serialized,
+	 * and each one costs more than in a regular subtree.
+	 *
+	 * <p>Nodes created elsewhere and added to this builder with {@link #withChild(ConfigNode)}
+	 * keep their own threading behaviour. Forks created after calling this method
+	 * inherit its setting.
+	 *
+	 * @param concurrent {@code true} if the built subtree should support concurrent reads
+	 * @return {@code this}, for chaining
+	 */
+	public ConfigTreeBuilder withConcurrentAccess(boolean concurrent) {
+		this.concurrent = concurrent;
+		return this;
+	}
+
+	/**
+	 * Returns whether the subtree built by this builder supports concurrent reads.
+	 *
+	 * @see #withConcurrentAccess(boolean)
+	 */
+	boolean isConcurrent() {
+		return this.concurrent;
+	}
+
+	/**
+	 * Sets the executor running the listeners of leaves built by this builder.
+	 *
+	 * <p>This applies to listeners specified with {@link ConfigLeafBuilder#withListener(java.util.function.BiConsumer)},
+	 * including those generated from annotated POJOs, of every leaf built by this builder and by its
+	 * {@linkplain #fork(String) forks}, unless the leaf specifies its own executor.
+	 * Forks created after calling this method inherit its setting.
+	 *
+	 * @param executor the executor to run listeners on, or {@code null} to run them on the thread changing the value
+	 * @return {@code this}, for chaining
+	 * @see ConfigLeafBuilder#withListenerExecutor(Executor)
+	 */
+	public ConfigTreeBuilder withListenerExecutor(@Nullable Executor executor) {
+		this.listenerExecutor = executor;
+		return this;
+	}
+
+	/**
+	 * Returns the executor running the listeners of leaves built by this builder.
+	 *
+	 * @see #withListenerExecutor(Executor)
+	 */
+	@Nullable
+	Executor getListenerExecutor() {
+		return this.listenerExecutor;
+	}
+
+	/**
+	 * Sets whether leaves built by this builder ignore values equivalent to their current value.
+	 *
+	 * <p>With change detection, setting a leaf to a value that is
+	 * {@linkplain SerializableType#isEquivalent(Object, Object) equivalent} to its current one
+	 * does nothing, and in particular does not notify listeners. This makes reloading an
+	 * unchanged configuration cheap. Change detection is enabled by default.
+	 * Forks created after calling this method inherit its setting.
+	 *
+	 * @param changeDetection {@code false} to notify listeners of every value set, even equivalent ones
+	 * @return {@code this}, for chaining
+	 */
+	public ConfigTreeBuilder withChangeDetection(boolean changeDetection) {
+		this.changeDetection = changeDetection;
+		return this;
+	}
+
+	/**
+	 * Returns whether leaves built by this builder ignore values equivalent to their current value.
+	 *
+	 * @see #withChangeDetection(boolean)
+	 */
+	boolean hasChangeDetection() {
+		return this.changeDetection;
+	}
+
+	private <T> ConfigLeafImpl<T> createLeaf(String name, SerializableType<T> type, T defaultValue) {
+		ConfigLeafImpl<T> leaf = ConfigLeafImpl.create(name, type, null, defaultValue, (a, b) -> {
+		}, this.concurrent);
+		leaf.setChangeDetection(this.changeDetection);
+		return leaf;
+	}
+
 	/**
 	 * Configure this builder using a POJO (Plain Old Java Object).
 	 *
@@ -339,8 +447,7 @@ public class ConfigTreeBuilder extends ConfigNodeBuilder implements ConfigTree {
 	 * @see ConfigTypes
 	 */
 	public <T> ConfigTreeBuilder withValue(@Nonnull String name, @Nonnull SerializableType<T> type, @Nonnull T defaultValue) {
-		this.items.add(new ConfigLeafImpl<>(name, type, null, defaultValue, (a, b) -> {
-		}));
+		this.items.add(this.createLeaf(name, type, defaultValue));
 		return this;
 	}
 
@@ -366,8 +473,7 @@ public class ConfigTreeBuilder extends ConfigNodeBuilder implements ConfigTree {
 	 * @see ConfigTypes
 	 */
 	public <R, S> ConfigTreeBuilder withValue(@Nonnull String name, @Nonnull ConfigType<R, S, ?> type, @Nullable R defaultValue) {
-		this.items.add(new ConfigLeafImpl<>(name, type.getSerializedType(), null, type.toSerializedType(defaultValue), (a, b) -> {
-		}));
+		this.items.add(this.createLeaf(name, type.getSerializedType(), type.toSerializedType(defaultValue)));
 		return this;
 	}
 
@@ -447,7 +553,7 @@ public class ConfigTreeBuilder extends ConfigNodeBuilder implements ConfigTree {
 	@Override
 	public ConfigBranch build() throws RuntimeFiberException {
 		try {
-			ConfigBranch built = new ConfigBranchImpl(this.name, this.comment, this.items, this.serializeSeparately);
+			ConfigBranch built = new ConfigBranchImpl(this.name, this.comment, this.items, this.serializeSeparately, this.concurrent);
 			built.getAttributes().putAll(this.attributes);
 
 			if (this.parent != null) {
@@ -31,12 +31,12 @@ public final class BooleanSerializableType extends PlainSerializableType<Boolean
 	}
 
 	@Override
-	public boolean equals(Object o) {
-		return o instanceof BooleanSerializableType;
+	boolean structurallyEquals(SerializableType<?> other) {
+		return true;
 	}
 
 	@Override
-	public int hashCode() {
+	int computeHashCode() {
 		return 1337;
 	}
 
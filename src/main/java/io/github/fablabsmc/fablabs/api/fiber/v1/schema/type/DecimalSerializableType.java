@@ -34,7 +34,7 @@ public final class DecimalSerializableType extends PlainSerializableType<BigDeci
 	private final BigDecimal increment;
 
 	public DecimalSerializableType(@Nullable BigDecimal min, @Nullable BigDecimal max, @Nullable BigDecimal increment) {
-		super(BigDecimal.class, DecimalConstraintChecker.instance());
+		super(BigDecimal.class, DecimalConstraintChecker.forBounds(min, max, increment));
 
 		if (min != null && max != null) {
 			if (min.compareTo(max) > 0) {
@@ -79,6 +79,16 @@ public final class DecimalSerializableType extends PlainSerializableType<BigDeci
 		serializer.serialize(this, target);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Decimals are equivalent if they are numerically equal, regardless of their scale.
+	 */
+	@Override
+	public boolean isEquivalent(BigDecimal a, BigDecimal b) {
+		return a == b || a != null && b != null && a.compareTo(b) == 0;
+	}
+
 	@Override
 	public <S> S serializeValue(BigDecimal value, ValueSerializer<S, ?> serializer) {
 		return serializer.serializeNumber(value, this);
@@ -90,17 +100,15 @@ public final class DecimalSerializableType extends PlainSerializableType<BigDeci
 	}
 
 	@Override
-	public boolean equals(Object o) {
-		if (this == o) return true;
-		if (o == null || this.getClass() != o.getClass()) return false;
-		DecimalSerializableType that = (DecimalSerializableType) o;
+	boolean structurallyEquals(SerializableType<?> other) {
+		DecimalSerializableType that = (DecimalSerializableType) other;
 		return Objects.equals(this.minimum, that.minimum)
 				&& Objects.equals(this.maximum, that.maximum)
 				&& Objects.equals(this.increment, that.increment);
 	}
 
 	@Override
-	public int hashCode() {
+	int computeHashCode() {
 		return Objects.hash(this.minimum, this.maximum, this.increment);
 	}
 
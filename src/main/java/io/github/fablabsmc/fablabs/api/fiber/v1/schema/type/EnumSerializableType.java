@@ -48,16 +48,15 @@ public final class EnumSerializableType extends PlainSerializableType<String> {
 	}
 
 	@Override
-	public boolean equals(Object o) {
-		if (this == o) return true;
-		if (o == null || this.getClass() != o.getClass()) return false;
-		EnumSerializableType that = (EnumSerializableType) o;
-		return Objects.equals(this.validValues, that.validValues);
+	boolean structurallyEquals(SerializableType<?> other) {
+		EnumSerializableType that = (EnumSerializableType) other;
+		// compare in declaration order, which serializers may rely on
+		return Arrays.equals(this.validValues.toArray(), that.validValues.toArray());
 	}
 
 	@Override
-	public int hashCode() {
-		return Objects.hash(this.validValues);
+	int computeHashCode() {
+		return Arrays.hashCode(this.validValues.toArray());
 	}
 
 	@Override
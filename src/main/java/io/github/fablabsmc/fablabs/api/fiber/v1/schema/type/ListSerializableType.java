@@ -1,6 +1,7 @@
 package io.github.fablabsmc.fablabs.api.fiber.v1.schema.type;
 
 import java.lang.reflect.ParameterizedType;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.StringJoiner;
@@ -29,7 +30,7 @@ public final class ListSerializableType<E> extends ParameterizedSerializableType
 
 	public ListSerializableType(SerializableType<E> elementType, int minSize, int maxSize, boolean unique) {
 		super(List.class, ListConstraintChecker.instance());
-		this.elementType = elementType;
+		this.elementType = SerializableType.intern(elementType);
 		this.minSize = minSize;
 		this.maxSize = maxSize;
 		this.unique = unique;
@@ -79,6 +80,23 @@ public final class ListSerializableType<E> extends ParameterizedSerializableType
 		serializer.serialize(this, target);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Lists are equivalent if their elements are pairwise equivalent.
+	 */
+	@Override
+	public boolean isEquivalent(List<E> a, List<E> b) {
+		if (a == b) return true;
+		if (a == null || b == null || a.size() != b.size()) return false;
+
+		for (Iterator<E> itA = a.iterator(), itB = b.iterator(); itA.hasNext(); ) {
+			if (!this.elementType.isEquivalent(itA.next(), itB.next())) return false;
+		}
+
+		return true;
+	}
+
 	@Override
 	public <S> S serializeValue(List<E> value, ValueSerializer<S, ?> serializer) {
 		return serializer.serializeList(value, this);
@@ -90,18 +108,16 @@ public final class ListSerializableType<E> extends ParameterizedSerializableType
 	}
 
 	@Override
-	public boolean equals(Object o) {
-		if (this == o) return true;
-		if (o == null || this.getClass() != o.getClass()) return false;
-		ListSerializableType<?> that = (ListSerializableType<?>) o;
+	boolean structurallyEquals(SerializableType<?> other) {
+		ListSerializableType<?> that = (ListSerializableType<?>) other;
 		return this.unique == that.unique
 				&& this.minSize == that.minSize
 				&& this.maxSize == that.maxSize
-				&& Objects.equals(this.elementType, that.elementType);
+				&& this.elementType.equals(that.elementType);
 	}
 
 	@Override
-	public int hashCode() {
+	int computeHashCode() {
 		return Objects.hash(this.elementType, this.unique, this.minSize, this.maxSize);
 	}
 
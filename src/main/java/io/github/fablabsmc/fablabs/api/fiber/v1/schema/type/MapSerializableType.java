@@ -33,8 +33,8 @@ public final class MapSerializableType<V> extends ParameterizedSerializableType<
 
 	public MapSerializableType(StringSerializableType keyType, SerializableType<V> valueType, int minSize, int maxSize) {
 		super(Map.class, MapConstraintChecker.instance());
-		this.keyType = keyType;
-		this.valueType = valueType;
+		this.keyType = SerializableType.intern(keyType);
+		this.valueType = SerializableType.intern(valueType);
 		this.minSize = minSize;
 		this.maxSize = maxSize;
 	}
@@ -87,6 +87,27 @@ public final class MapSerializableType<V> extends ParameterizedSerializableType<
 		serializer.serialize(this, target);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Maps are equivalent if they have the same keys, mapped to equivalent values.
+	 */
+	@Override
+	public boolean isEquivalent(Map<String, V> a, Map<String, V> b) {
+		if (a == b) return true;
+		if (a == null || b == null || a.size() != b.size()) return false;
+
+		for (Map.Entry<String, V> entry : a.entrySet()) {
+			V other = b.get(entry.getKey());
+
+			if (other == null && !b.containsKey(entry.getKey()) || !this.valueType.isEquivalent(entry.getValue(), other)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
 	@Override
 	public <S> S serializeValue(Map<String, V> value, ValueSerializer<S, ?> serializer) {
 		return serializer.serializeMap(value, this);
@@ -98,18 +119,17 @@ public final class MapSerializableType<V> extends ParameterizedSerializableType<
 	}
 
 	@Override
-	public boolean equals(Object o) {
-		if (this == o) return true;
-		if (o == null || this.getClass() != o.getClass()) return false;
-		MapSerializableType<?> that = (MapSerializableType<?>) o;
+	boolean structurallyEquals(SerializableType<?> other) {
+		MapSerializableType<?> that = (MapSerializableType<?>) other;
 		return this.minSize == that.minSize
 				&& this.maxSize == that.maxSize
+				&& Objects.equals(this.keyType, that.keyType)
 				&& Objects.equals(this.valueType, that.valueType);
 	}
 
 	@Override
-	public int hashCode() {
-		return Objects.hash(this.valueType, this.minSize, this.maxSize);
+	int computeHashCode() {
+		return Objects.hash(this.keyType, this.valueType, this.minSize, this.maxSize);
 	}
 
 	@Override
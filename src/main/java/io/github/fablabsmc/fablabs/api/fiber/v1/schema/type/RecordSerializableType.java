@@ -1,6 +1,9 @@
 package io.github.fablabsmc.fablabs.api.fiber.v1.schema.type;
 
 import java.lang.reflect.ParameterizedType;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.StringJoiner;
@@ -21,8 +24,14 @@ public final class RecordSerializableType extends ParameterizedSerializableType<
 
 	public RecordSerializableType(Map<String, SerializableType<?>> fields) {
 		super(Map.class, RecordConstraintChecker.instance());
-		fields.keySet().forEach(Objects::requireNonNull);
-		this.fields = fields;
+		Map<String, SerializableType<?>> interned = new LinkedHashMap<>();
+
+		for (Map.Entry<String, SerializableType<?>> field : fields.entrySet()) {
+			interned.put(Objects.requireNonNull(field.getKey()), SerializableType.intern(field.getValue()));
+		}
+
+		// types cache their hash code, so the fields must not change afterwards
+		this.fields = Collections.unmodifiableMap(interned);
 	}
 
 	public Map<String, SerializableType<?>> getFields() {
@@ -62,6 +71,25 @@ public final class RecordSerializableType extends ParameterizedSerializableType<
 		serializer.serialize(this, target);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Records are equivalent if each of their fields are equivalent.
+	 */
+	@Override
+	public boolean isEquivalent(Map<String, Object> a, Map<String, Object> b) {
+		if (a == b) return true;
+		if (a == null || b == null) return false;
+
+		for (Map.Entry<String, SerializableType<?>> field : this.fields.entrySet()) {
+			@SuppressWarnings("unchecked") SerializableType<Object> type = (SerializableType<Object>) field.getValue();
+
+			if (!type.isEquivalent(a.get(field.getKey()), b.get(field.getKey()))) return false;
+		}
+
+		return true;
+	}
+
 	@Override
 	public <S> S serializeValue(Map<String, Object> value, ValueSerializer<S, ?> serializer) {
 		return serializer.serializeRecord(value, this);
@@ -82,15 +110,29 @@ public final class RecordSerializableType extends ParameterizedSerializableType<
 	}
 
 	@Override
-	public boolean equals(Object o) {
-		if (this == o) return true;
-		if (o == null || this.getClass() != o.getClass()) return false;
-		RecordSerializableType that = (RecordSerializableType) o;
-		return Objects.equals(this.fields, that.fields);
+	boolean structurallyEquals(SerializableType<?> other) {
+		RecordSerializableType that = (RecordSerializableType) other;
+
+		if (this.fields.size() != that.fields.size()) return false;
+
+		// field order determines the serialized layout, so it is part of the type
+		Iterator<Map.Entry<String, SerializableType<?>>> it = that.fields.entrySet().iterator();
+
+		for (Map.Entry<String, SerializableType<?>> field : this.fields.entrySet()) {
+			if (!field.equals(it.next())) return false;
+		}
+
+		return true;
 	}
 
 	@Override
-	public int hashCode() {
-		return Objects.hash(this.fields);
+	int computeHashCode() {
+		int h = 1;
+
+		for (Map.Entry<String, SerializableType<?>> field : this.fields.entrySet()) {
+			h = 31 * h + field.hashCode();
+		}
+
+		return h;
 	}
 }
@@ -1,8 +1,11 @@
 package io.github.fablabsmc.fablabs.api.fiber.v1.schema.type;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
+import java.util.Map;
 import java.util.Objects;
+import java.util.WeakHashMap;
 
 import javax.annotation.Nonnull;
 
@@ -32,10 +35,21 @@ import io.github.fablabsmc.fablabs.impl.fiber.constraint.ConstraintChecker;
  * @see DecimalSerializableType
  * @see RecordSerializableType
  * @see StringSerializableType
+ * @see #intern(SerializableType)
  */
 public abstract class SerializableType<T> {
+	/**
+	 * Canonical instances, keyed weakly so that types which are no longer used can be collected.
+	 * Values are weak too, as a {@link WeakHashMap} would otherwise keep its keys reachable through them.
+	 */
+	private static final Map<SerializableType<?>, WeakReference<SerializableType<?>>> CANONICAL = new WeakHashMap<>();
+
 	private final Class<? super T> platformType;
 	private final ConstraintChecker<T, SerializableType<T>> checker;
+	/**
+	 * Cached hash code, {@code 0} until computed. Types are immutable, so racy initialization is harmless.
+	 */
+	private int hash;
 
 	@SuppressWarnings("unchecked")
 	SerializableType(Class<? super T> platformType, ConstraintChecker<T, ? extends SerializableType<T>> checker) {
@@ -81,6 +95,10 @@ public abstract class SerializableType<T> {
 	 * @return {@code true} if properties of {@code this} type are assignable from values of {@code type}.
 	 */
 	public final boolean isAssignableFrom(SerializableType<?> type) {
+		if (this == type) {
+			return true;
+		}
+
 		if (this.getClass() != type.getClass()) {
 			return false;
 		}
@@ -108,6 +126,22 @@ public abstract class SerializableType<T> {
 		return this.checker.test(this, this.cast(Objects.requireNonNull(serializedValue)));
 	}
 
+	/**
+	 * Returns whether two values of this type are equivalent.
+	 *
+	 * <p>Equivalent values are interchangeable: setting a property holding one of them to the other
+	 * does not change its meaning, and is not reported to listeners.
+	 * Unlike {@link Object#equals(Object)}, this accounts for representation details that are
+	 * irrelevant to this type, such as the scale of a {@link BigDecimal}.
+	 *
+	 * @param a the first value
+	 * @param b the second value
+	 * @return {@code true} if the values are equivalent
+	 */
+	public boolean isEquivalent(T a, T b) {
+		return Objects.equals(a, b);
+	}
+
 	/**
 	 * Serializes this type to a persistent format using the given {@link TypeSerializer}.
 	 *
@@ -147,10 +181,61 @@ public abstract class SerializableType<T> {
 	/**
 	 * Two serialized types are equal if and only if they are of the same kind
 	 * and both have the same constraints.
+	 *
+	 * <p>Interned types are compared by identity, and other types first by their cached hash code.
+	 *
+	 * @see #intern(SerializableType)
 	 */
 	@Override
-	public abstract boolean equals(Object o);
+	public final boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || this.getClass() != o.getClass()) return false;
+		SerializableType<?> that = (SerializableType<?>) o;
+		return this.hashCode() == that.hashCode() && this.structurallyEquals(that);
+	}
+
+	/**
+	 * Compares the constraints of this type with those of another type of the same class.
+	 */
+	abstract boolean structurallyEquals(SerializableType<?> other);
 
 	@Override
-	public abstract int hashCode();
+	public final int hashCode() {
+		int h = this.hash;
+
+		if (h == 0) {
+			h = this.computeHashCode();
+			this.hash = h;
+		}
+
+		return h;
+	}
+
+	abstract int computeHashCode();
+
+	/**
+	 * Returns the canonical instance of a type.
+	 *
+	 * <p>Structurally equal types are interned to the same object, so that comparing interned types
+	 * only takes an identity check. Config types, leaves, attributes and the element types of
+	 * parameterized serializable types are interned when they are created.
+	 *
+	 * @param type the type to intern
+	 * @param <S>  the class of the type
+	 * @return an instance equal to {@code type}, shared with every other equal interned type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <S extends SerializableType<?>> S intern(S type) {
+		synchronized (CANONICAL) {
+			WeakReference<SerializableType<?>> ref = CANONICAL.get(type);
+			SerializableType<?> canonical = ref != null ? ref.get() : null;
+
+			if (canonical == null) {
+				CANONICAL.put(type, new WeakReference<>(type));
+				return type;
+			}
+
+			return (S) canonical;
+		}
+	}
 }
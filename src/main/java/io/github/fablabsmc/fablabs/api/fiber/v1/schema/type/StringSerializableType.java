@@ -83,17 +83,15 @@ public final class StringSerializableType extends PlainSerializableType<String>
 	}
 
 	@Override
-	public boolean equals(Object o) {
-		if (this == o) return true;
-		if (o == null || this.getClass() != o.getClass()) return false;
-		StringSerializableType that = (StringSerializableType) o;
+	boolean structurallyEquals(SerializableType<?> other) {
+		StringSerializableType that = (StringSerializableType) other;
 		return this.minLength == that.minLength
 				&& this.maxLength == that.maxLength
 				&& Objects.equals(this.pattern, that.pattern);
 	}
 
 	@Override
-	public int hashCode() {
+	int computeHashCode() {
 		return Objects.hash(this.minLength, this.maxLength, this.pattern);
 	}
 
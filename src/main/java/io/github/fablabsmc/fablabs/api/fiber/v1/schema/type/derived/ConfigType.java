@@ -35,7 +35,7 @@ public abstract class ConfigType<R, S, T extends SerializableType<S>> {
 
 	ConfigType(T serializedType, Class<R> runtimeType, Function<S, R> deserializer, Function<R, S> serializer) {
 		this.runtimeType = runtimeType;
-		this.serializedType = serializedType;
+		this.serializedType = SerializableType.intern(serializedType);
 		this.deserializer = deserializer;
 		this.serializer = serializer;
 	}
@@ -0,0 +1,739 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.ValueDeserializationException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.BooleanSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.DecimalSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.EnumSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.ListSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.MapSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.RecordSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.SerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.StringSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+
+/**
+ * {@link ValueSerializer} producing a compact binary encoding.
+ *
+ * <p>All lengths and counts are written as unsigned LEB128 varints, and integral quantities
+ * as zigzag varints. In the default, self-describing mode, every value is preceded by a one byte
+ * tag identifying its kind, and entries of aggregates are preceded by their name.
+ *
+ * <p>In schema-aware mode, created with {@link #BinaryValueSerializer(ConfigTree)}, tags and names
+ * are omitted entirely: values are written in the order in which the schema tree lists its nodes,
+ * and their kinds are known from the types of the corresponding leaves. Both the writing
+ * and the reading side must therefore use a tree of the same shape. A fingerprint of the serialized
+ * tree is written to the header, so that mismatched trees are detected rather than silently misread.
+ * It covers the names and order of the nodes, and the structure of the leaf types: the element, key
+ * and value types of collections, the fields of records in order, and the values of enums.
+ *
+ * <p>Comments are not preserved by this serializer.
+ */
+public class BinaryValueSerializer implements ValueSerializer<BinaryValueSerializer.Element, Map<String, BinaryValueSerializer.Element>> {
+	private static final byte FORMAT_TAGGED = 1;
+	private static final byte FORMAT_SCHEMA = 2;
+
+	private static final byte TAG_BOOLEAN = 1;
+	private static final byte TAG_NUMBER = 2;
+	private static final byte TAG_STRING = 3;
+	private static final byte TAG_ENUM = 4;
+	private static final byte TAG_LIST = 5;
+	private static final byte TAG_MAP = 6;
+	private static final byte TAG_RECORD = 7;
+	private static final byte TAG_AGGREGATE = 8;
+
+	@Nullable
+	private final ConfigTree schema;
+
+	/**
+	 * Creates a self-describing binary serializer.
+	 */
+	public BinaryValueSerializer() {
+		this.schema = null;
+	}
+
+	/**
+	 * Creates a schema-aware binary serializer, which omits names and type tags.
+	 *
+	 * @param schema A tree with the same shape as all trees serialized or deserialized with this serializer.
+	 */
+	public BinaryValueSerializer(ConfigTree schema) {
+		this.schema = schema;
+	}
+
+	/**
+	 * Returns whether this serializer omits names and type tags.
+	 */
+	public boolean isSchemaAware() {
+		return this.schema != null;
+	}
+
+	@Override
+	public Element serializeBoolean(boolean value, BooleanSerializableType type) {
+		Output out = this.begin(TAG_BOOLEAN);
+		out.write(value ? 1 : 0);
+		return new Element(out, this.shapeOf(type));
+	}
+
+	@Override
+	public boolean deserializeBoolean(Element elem, BooleanSerializableType type) throws ValueDeserializationException {
+		ByteBuffer buf = this.expect(elem, TAG_BOOLEAN, boolean.class);
+		int b = readByte(buf, boolean.class);
+
+		if (b != 0 && b != 1) {
+			throw new ValueDeserializationException(b, boolean.class, "Invalid boolean byte");
+		}
+
+		return b == 1;
+	}
+
+	@Override
+	public Element serializeNumber(BigDecimal value, DecimalSerializableType type) {
+		Output out = this.begin(TAG_NUMBER);
+		writeNumber(out, value);
+		return new Element(out, this.shapeOf(type));
+	}
+
+	@Override
+	public BigDecimal deserializeNumber(Element elem, DecimalSerializableType type) throws ValueDeserializationException {
+		return readNumber(this.expect(elem, TAG_NUMBER, BigDecimal.class));
+	}
+
+	@Override
+	public Element serializeString(String value, StringSerializableType type) {
+		Output out = this.begin(TAG_STRING);
+		writeString(out, value);
+		return new Element(out, this.shapeOf(type));
+	}
+
+	@Override
+	public String deserializeString(Element elem, StringSerializableType type) throws ValueDeserializationException {
+		return readString(this.expect(elem, TAG_STRING, String.class));
+	}
+
+	@Override
+	public Element serializeEnum(String value, EnumSerializableType type) {
+		Output out = this.begin(TAG_ENUM);
+		writeString(out, value);
+		return new Element(out, this.shapeOf(type));
+	}
+
+	@Override
+	public String deserializeEnum(Element elem, EnumSerializableType type) throws ValueDeserializationException {
+		return readString(this.expect(elem, TAG_ENUM, String.class));
+	}
+
+	@Override
+	public <E> Element serializeList(List<E> value, ListSerializableType<E> type) {
+		Output out = this.begin(TAG_LIST);
+		writeVarLong(out, value.size());
+
+		for (E e : value) {
+			type.getElementType().serializeValue(e, this).writeTo(out);
+		}
+
+		return new Element(out, this.shapeOf(type));
+	}
+
+	@Override
+	public <E> List<E> deserializeList(Element elem, ListSerializableType<E> type) throws ValueDeserializationException {
+		ByteBuffer buf = this.expect(elem, TAG_LIST, List.class);
+		int size = readLength(buf, List.class);
+		List<E> ls = new ArrayList<>(size);
+		// element types read from the same buffer, advancing it past each element
+		Element cursor = new Element(buf, null, true);
+
+		for (int i = 0; i < size; i++) {
+			ls.add(type.getElementType().deserializeValue(cursor, this));
+		}
+
+		return ls;
+	}
+
+	@Override
+	public <V> Element serializeMap(Map<String, V> value, MapSerializableType<V> type) {
+		Output out = this.begin(TAG_MAP);
+		writeVarLong(out, value.size());
+
+		for (Map.Entry<String, V> entry : value.entrySet()) {
+			writeString(out, entry.getKey());
+			type.getValueType().serializeValue(entry.getValue(), this).writeTo(out);
+		}
+
+		return new Element(out, this.shapeOf(type));
+	}
+
+	@Override
+	public <V> Map<String, V> deserializeMap(Element elem, MapSerializableType<V> type) throws ValueDeserializationException {
+		ByteBuffer buf = this.expect(elem, TAG_MAP, Map.class);
+		int size = readLength(buf, Map.class);
+		Map<String, V> map = new LinkedHashMap<>(size);
+		Element cursor = new Element(buf, null, true);
+
+		for (int i = 0; i < size; i++) {
+			String key = readString(buf);
+			map.put(key, type.getValueType().deserializeValue(cursor, this));
+		}
+
+		return map;
+	}
+
+	@Override
+	public Element serializeRecord(Map<String, Object> value, RecordSerializableType type) {
+		Output out = this.begin(TAG_RECORD);
+		Map<String, SerializableType<?>> fields = type.getFields();
+
+		if (this.schema == null) {
+			writeVarLong(out, fields.size());
+		}
+
+		for (Map.Entry<String, SerializableType<?>> entry : fields.entrySet()) {
+			if (this.schema == null) {
+				writeString(out, entry.getKey());
+			}
+
+			this.serializeRecordField(value.get(entry.getKey()), entry.getValue()).writeTo(out);
+		}
+
+		return new Element(out, this.shapeOf(type));
+	}
+
+	private <T> Element serializeRecordField(Object value, SerializableType<T> type) {
+		return type.serializeValue(type.cast(value), this);
+	}
+
+	@Override
+	public Map<String, Object> deserializeRecord(Element elem, RecordSerializableType type) throws ValueDeserializationException {
+		ByteBuffer buf = this.expect(elem, TAG_RECORD, Map.class);
+		Map<String, SerializableType<?>> fields = type.getFields();
+		Map<String, Object> map = new LinkedHashMap<>(fields.size());
+		Element cursor = new Element(buf, null, true);
+
+		if (this.schema != null) {
+			for (Map.Entry<String, SerializableType<?>> entry : fields.entrySet()) {
+				map.put(entry.getKey(), entry.getValue().deserializeValue(cursor, this));
+			}
+
+			return map;
+		}
+
+		Map<String, Object> read = new LinkedHashMap<>();
+		int size = readLength(buf, Map.class);
+
+		for (int i = 0; i < size; i++) {
+			String name = readString(buf);
+			SerializableType<?> fieldType = fields.get(name);
+
+			if (fieldType == null) {
+				skipTagged(buf);
+			} else {
+				read.put(name, fieldType.deserializeValue(cursor, this));
+			}
+		}
+
+		for (Map.Entry<String, SerializableType<?>> entry : fields.entrySet()) {
+			if (!read.containsKey(entry.getKey())) {
+				throw new ValueDeserializationException(null, entry.getValue().getErasedPlatformType(), "Record field is absent: " + entry.getKey());
+			}
+
+			map.put(entry.getKey(), read.get(entry.getKey()));
+		}
+
+		return map;
+	}
+
+	@Override
+	public void addElement(String name, Element elem, Map<String, Element> target, @Nullable String comment) {
+		target.put(name, elem);
+	}
+
+	@Override
+	public void addSubElement(String name, Map<String, Element> elem, Map<String, Element> target, @Nullable String comment) {
+		Output out = this.begin(TAG_AGGREGATE);
+		this.writeEntries(elem, out);
+		target.put(name, new Element(out, this.schema == null ? 0 : fingerprint(elem)));
+	}
+
+	@Override
+	public Iterator<Map.Entry<String, Element>> elements(Map<String, Element> target) {
+		return target.entrySet().iterator();
+	}
+
+	@Override
+	public Iterator<Map.Entry<String, Element>> subElements(Element elem) throws ValueDeserializationException {
+		if (this.schema != null && elem.branch == null) {
+			throw new ValueDeserializationException(elem, Map.class, "Element does not correspond to a branch");
+		}
+
+		return this.readEntries(this.expect(elem, TAG_AGGREGATE, Map.class), elem.branch).entrySet().iterator();
+	}
+
+	@Override
+	public void writeTarget(Map<String, Element> target, OutputStream out) throws IOException {
+		Output bytes = new Output();
+
+		if (this.schema == null) {
+			bytes.write(FORMAT_TAGGED);
+			bytes.write(TAG_AGGREGATE);
+		} else {
+			bytes.write(FORMAT_SCHEMA);
+			// fingerprint of the tree the target was built from, which may not be the schema
+			writeVarLong(bytes, fingerprint(target) & 0xFFFFFFFFL);
+		}
+
+		this.writeEntries(target, bytes);
+		out.write(bytes.buf, 0, bytes.count);
+	}
+
+	@Override
+	public Map<String, Element> readTarget(InputStream in) throws ValueDeserializationException, IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] chunk = new byte[8192];
+
+		for (int n = in.read(chunk); n >= 0; n = in.read(chunk)) {
+			bytes.write(chunk, 0, n);
+		}
+
+		return this.readTarget(ByteBuffer.wrap(bytes.toByteArray()));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>The elements read share the content of the buffer, which must not be modified while they are in use.
+	 */
+	@Override
+	public Map<String, Element> readTarget(ByteBuffer buffer) throws ValueDeserializationException {
+		ByteBuffer buf = buffer.slice();
+		int format = readByte(buf, Map.class);
+
+		if (this.schema == null) {
+			if (format != FORMAT_TAGGED || readByte(buf, Map.class) != TAG_AGGREGATE) {
+				throw new ValueDeserializationException(format, Map.class, "Not a self-describing binary config");
+			}
+		} else {
+			if (format != FORMAT_SCHEMA) {
+				throw new ValueDeserializationException(format, Map.class, "Not a schema-aware binary config");
+			}
+
+			if (readVarLong(buf, Map.class) != (fingerprint(this.schema) & 0xFFFFFFFFL)) {
+				throw new ValueDeserializationException(null, Map.class, "Binary config was written for a tree of a different shape");
+			}
+		}
+
+		return this.readEntries(buf, this.schema);
+	}
+
+	@Override
+	public Map<String, Element> newTarget() {
+		return new LinkedHashMap<>();
+	}
+
+	@Override
+	public boolean isElementReusable() {
+		return true;
+	}
+
+	private void writeEntries(Map<String, Element> entries, Output out) {
+		if (this.schema == null) {
+			writeVarLong(out, entries.size());
+		}
+
+		for (Map.Entry<String, Element> entry : entries.entrySet()) {
+			if (this.schema == null) {
+				writeString(out, entry.getKey());
+			}
+
+			writeVarLong(out, entry.getValue().data.remaining());
+			entry.getValue().writeTo(out);
+		}
+	}
+
+	private Map<String, Element> readEntries(ByteBuffer buf, @Nullable ConfigTree branch) throws ValueDeserializationException {
+		Map<String, Element> entries = new LinkedHashMap<>();
+
+		if (branch == null) {
+			int size = readLength(buf, Map.class);
+
+			for (int i = 0; i < size; i++) {
+				String name = readString(buf);
+				entries.put(name, new Element(readSlice(buf), null));
+			}
+		} else {
+			for (ConfigNode node : branch.getItems()) {
+				if (isSerialized(node)) {
+					entries.put(node.getName(), new Element(readSlice(buf), node instanceof ConfigBranch ? (ConfigBranch) node : null));
+				}
+			}
+		}
+
+		return entries;
+	}
+
+	private Output begin(byte tag) {
+		Output out = new Output();
+
+		if (this.schema == null) {
+			out.write(tag);
+		}
+
+		return out;
+	}
+
+	/**
+	 * Returns a view of the data of an element, positioned after its type tag.
+	 *
+	 * <p>Reading the view leaves the element untouched, so that elements can be read more than once.
+	 * Cursors over the content of an aggregate are read in place instead.
+	 */
+	private ByteBuffer expect(Element elem, byte tag, Class<?> targetType) throws ValueDeserializationException {
+		ByteBuffer data = elem.cursor ? elem.data : elem.data.duplicate();
+
+		if (this.schema == null) {
+			int actual = readByte(data, targetType);
+
+			if (actual != tag) {
+				throw new ValueDeserializationException(actual, targetType, "Element has wrong type tag");
+			}
+		}
+
+		return data;
+	}
+
+	private static boolean isSerialized(ConfigNode node) {
+		return node instanceof ConfigLeaf<?> || (node instanceof ConfigBranch && !((ConfigBranch) node).isSerializedSeparately());
+	}
+
+	/**
+	 * Returns the fingerprint of the type of a serialized element, which is only needed in schema-aware mode.
+	 */
+	private int shapeOf(SerializableType<?> type) {
+		return this.schema == null ? 0 : fingerprint(type);
+	}
+
+	/**
+	 * Hashes the names and types of all serialized nodes, in order.
+	 *
+	 * <p>This is equal to the {@linkplain #fingerprint(Map) fingerprint of the entries} serialized from the tree.
+	 */
+	private static int fingerprint(ConfigTree tree) {
+		int hash = 1;
+
+		for (ConfigNode node : tree.getItems()) {
+			if (!isSerialized(node)) continue;
+
+			hash = 31 * hash + node.getName().hashCode();
+
+			if (node instanceof ConfigBranch) {
+				hash = 31 * hash + fingerprint((ConfigBranch) node);
+			} else {
+				hash = 31 * hash + fingerprint(((ConfigLeaf<?>) node).getConfigType());
+			}
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Hashes the names and types of serialized entries, in order.
+	 */
+	private static int fingerprint(Map<String, Element> entries) {
+		int hash = 1;
+
+		for (Map.Entry<String, Element> entry : entries.entrySet()) {
+			hash = 31 * hash + entry.getKey().hashCode();
+			hash = 31 * hash + entry.getValue().shape;
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Hashes everything about a type that determines its schema-aware encoding.
+	 *
+	 * <p>Constraints are left out, as they do not change the layout of values.
+	 */
+	private static int fingerprint(SerializableType<?> type) {
+		int hash = type.getClass().getName().hashCode();
+
+		if (type instanceof ListSerializableType) {
+			hash = 31 * hash + fingerprint(((ListSerializableType<?>) type).getElementType());
+		} else if (type instanceof MapSerializableType) {
+			hash = 31 * hash + fingerprint(((MapSerializableType<?>) type).getKeyType());
+			hash = 31 * hash + fingerprint(((MapSerializableType<?>) type).getValueType());
+		} else if (type instanceof RecordSerializableType) {
+			for (Map.Entry<String, SerializableType<?>> field : ((RecordSerializableType) type).getFields().entrySet()) {
+				hash = 31 * hash + field.getKey().hashCode();
+				hash = 31 * hash + fingerprint(field.getValue());
+			}
+		} else if (type instanceof EnumSerializableType) {
+			for (String value : ((EnumSerializableType) type).getValidValues()) {
+				hash = 31 * hash + value.hashCode();
+			}
+		}
+
+		return hash;
+	}
+
+	private static void skipTagged(ByteBuffer buf) throws ValueDeserializationException {
+		int tag = readByte(buf, Object.class);
+
+		switch (tag) {
+		case TAG_BOOLEAN:
+			readByte(buf, boolean.class);
+			break;
+		case TAG_NUMBER:
+			readNumber(buf);
+			break;
+		case TAG_STRING:
+		case TAG_ENUM:
+			readSlice(buf);
+			break;
+		case TAG_LIST:
+			for (int i = readLength(buf, List.class); i > 0; i--) {
+				skipTagged(buf);
+			}
+
+			break;
+		case TAG_MAP:
+		case TAG_RECORD:
+			for (int i = readLength(buf, Map.class); i > 0; i--) {
+				readSlice(buf);
+				skipTagged(buf);
+			}
+
+			break;
+		case TAG_AGGREGATE:
+			for (int i = readLength(buf, Map.class); i > 0; i--) {
+				readSlice(buf);
+				readSlice(buf);
+			}
+
+			break;
+		default:
+			throw new ValueDeserializationException(tag, Object.class, "Unknown type tag");
+		}
+	}
+
+	private static void writeNumber(Output out, BigDecimal value) {
+		BigInteger unscaled = value.unscaledValue();
+		long scale = zigzag(value.scale());
+
+		// the lowest header bit tells whether the unscaled value needed more than 63 bits
+		if (unscaled.bitLength() < 64) {
+			writeVarLong(out, scale << 1);
+			writeVarLong(out, zigzag(unscaled.longValue()));
+		} else {
+			byte[] bytes = unscaled.toByteArray();
+			writeVarLong(out, scale << 1 | 1);
+			writeVarLong(out, bytes.length);
+			out.write(bytes, 0, bytes.length);
+		}
+	}
+
+	private static BigDecimal readNumber(ByteBuffer buf) throws ValueDeserializationException {
+		long header = readVarLong(buf, BigDecimal.class);
+		int scale = (int) unzigzag(header >>> 1);
+
+		if ((header & 1) == 0) {
+			return BigDecimal.valueOf(unzigzag(readVarLong(buf, BigDecimal.class)), scale);
+		}
+
+		ByteBuffer bytes = readSlice(buf);
+		byte[] unscaled = new byte[bytes.remaining()];
+		bytes.get(unscaled);
+
+		try {
+			return new BigDecimal(new BigInteger(unscaled), scale);
+		} catch (NumberFormatException e) {
+			throw new ValueDeserializationException(unscaled, BigDecimal.class, "Invalid unscaled value", e);
+		}
+	}
+
+	private static void writeString(Output out, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(out, bytes.length);
+		out.write(bytes, 0, bytes.length);
+	}
+
+	private static String readString(ByteBuffer buf) throws ValueDeserializationException {
+		ByteBuffer bytes = readSlice(buf);
+
+		if (!bytes.hasArray()) return StandardCharsets.UTF_8.decode(bytes).toString();
+
+		return new String(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads a length-prefixed run of bytes, returning it as a view sharing the buffer's content.
+	 */
+	private static ByteBuffer readSlice(ByteBuffer buf) throws ValueDeserializationException {
+		int length = readLength(buf, byte[].class);
+
+		if (buf.remaining() < length) {
+			throw new ValueDeserializationException(null, byte[].class, "Unexpected end of data");
+		}
+
+		ByteBuffer slice = buf.slice();
+		slice.limit(length);
+		buf.position(buf.position() + length);
+		return slice;
+	}
+
+	private static int readLength(ByteBuffer buf, Class<?> targetType) throws ValueDeserializationException {
+		long length = readVarLong(buf, targetType);
+
+		if (length < 0 || length > buf.remaining()) {
+			throw new ValueDeserializationException(length, targetType, "Invalid length");
+		}
+
+		return (int) length;
+	}
+
+	private static int readByte(ByteBuffer buf, Class<?> targetType) throws ValueDeserializationException {
+		if (!buf.hasRemaining()) {
+			throw new ValueDeserializationException(null, targetType, "Unexpected end of data");
+		}
+
+		return buf.get() & 0xFF;
+	}
+
+	private static void writeVarLong(Output out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+
+		out.write((int) value);
+	}
+
+	private static long readVarLong(ByteBuffer buf, Class<?> targetType) throws ValueDeserializationException {
+		long value = 0;
+
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = readByte(buf, targetType);
+			value |= (long) (b & 0x7F) << shift;
+
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+
+		throw new ValueDeserializationException(null, targetType, "Malformed varint");
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * A serialized value, or a serialized aggregate that has been read back.
+	 *
+	 * <p>Deserializing an element leaves its content untouched, so that it can be read any number of times.
+	 */
+	public static final class Element {
+		private final ByteBuffer data;
+		// the schema of the branch this element encodes, when read in schema-aware mode
+		@Nullable
+		private final ConfigTree branch;
+		// whether reading this element advances its buffer, as when reading the items of a list, map or record in sequence
+		private final boolean cursor;
+		// fingerprint of the type or entries this element was written from in schema-aware mode, 0 otherwise
+		private final int shape;
+
+		Element(Output out, int shape) {
+			this(ByteBuffer.wrap(out.buf, 0, out.count), null, false, shape);
+		}
+
+		Element(ByteBuffer data, @Nullable ConfigTree branch) {
+			this(data, branch, false);
+		}
+
+		Element(ByteBuffer data, @Nullable ConfigTree branch, boolean cursor) {
+			this(data, branch, cursor, 0);
+		}
+
+		private Element(ByteBuffer data, @Nullable ConfigTree branch, boolean cursor, int shape) {
+			this.data = data;
+			this.branch = branch;
+			this.cursor = cursor;
+			this.shape = shape;
+		}
+
+		/**
+		 * The number of bytes of this element.
+		 */
+		public int size() {
+			return this.data.remaining();
+		}
+
+		void writeTo(Output out) {
+			if (this.data.hasArray()) {
+				out.write(this.data.array(), this.data.arrayOffset() + this.data.position(), this.data.remaining());
+			} else {
+				// read from a direct or mapped buffer
+				out.write(this.data.duplicate());
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "Element[" + this.data.remaining() + " bytes]";
+		}
+	}
+
+	/**
+	 * Unsynchronized growable byte buffer, whose content is wrapped rather than copied by {@link Element}.
+	 */
+	private static final class Output {
+		byte[] buf = new byte[16];
+		int count;
+
+		void write(int b) {
+			this.ensureCapacity(this.count + 1);
+			this.buf[this.count++] = (byte) b;
+		}
+
+		void write(byte[] bytes, int offset, int length) {
+			this.ensureCapacity(this.count + length);
+			System.arraycopy(bytes, offset, this.buf, this.count, length);
+			this.count += length;
+		}
+
+		void write(ByteBuffer bytes) {
+			int length = bytes.remaining();
+			this.ensureCapacity(this.count + length);
+			bytes.get(this.buf, this.count, length);
+			this.count += length;
+		}
+
+		private void ensureCapacity(int capacity) {
+			if (capacity > this.buf.length) {
+				this.buf = Arrays.copyOf(this.buf, Math.max(capacity, this.buf.length << 1));
+			}
+		}
+	}
+}
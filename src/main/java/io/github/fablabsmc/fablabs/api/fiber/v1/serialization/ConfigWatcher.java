@@ -0,0 +1,90 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTransaction;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import io.github.fablabsmc.fablabs.impl.fiber.serialization.ConfigWatcherImpl;
+
+/**
+ * A service reloading a config tree when its files are modified.
+ *
+ * <p>The watched files are those written by {@link SplitFileSerialization}: the main file, and the file
+ * of every separately serialized branch. A single background thread waits for file system events.
+ * Once no event has been received for the debounce delay, the files modified since the last reload
+ * are read, and the leaves whose value differs from the read one are updated in a single
+ * {@linkplain ConfigTransaction transaction}. Leaf listeners are notified on the background thread.
+ *
+ * <p>If a file cannot be read or holds an invalid value, no leaf is updated, and the error is passed
+ * to the error handler. The files are read again on their next modification.
+ * Files of branches that have not been {@linkplain SplitFileSerialization#deserialize(ConfigTree, Path, ValueSerializer)
+ * loaded} yet are not read, as they will be when the branch is first accessed.
+ */
+public interface ConfigWatcher extends AutoCloseable {
+	/**
+	 * Starts watching the files of a config tree.
+	 *
+	 * @param tree         the tree to update
+	 * @param file         the main file of the tree
+	 * @param ctx          the serializer used to read and convert elements
+	 * @param debounce     the time without file events to wait for before reloading
+	 * @param unit         the unit of {@code debounce}
+	 * @param errorHandler the handler of errors occurring while reloading
+	 * @return a running watcher
+	 * @throws IOException if the files cannot be watched
+	 */
+	static ConfigWatcher watch(ConfigTree tree, Path file, ValueSerializer<?, ?> ctx, long debounce, TimeUnit unit, Consumer<? super Exception> errorHandler) throws IOException {
+		return ConfigWatcherImpl.start(tree, file, ctx, unit.toNanos(debounce), errorHandler);
+	}
+
+	/**
+	 * Returns the number of reloads that completed successfully, including those that did not modify any leaf.
+	 */
+	long getReloadCount();
+
+	/**
+	 * Returns the number of reloads that failed.
+	 */
+	long getFailureCount();
+
+	/**
+	 * Returns the number of leaves updated by the last successful reload.
+	 */
+	int getLastUpdatedLeaves();
+
+	/**
+	 * Returns the latency of the last successful reload, from the first file event it handled to
+	 * the moment the values were applied, including the debounce delay.
+	 *
+	 * @param unit the unit of the returned duration
+	 * @return the latency, or {@code 0} if no reload has completed yet
+	 */
+	long getLastLatency(TimeUnit unit);
+
+	/**
+	 * Returns the highest latency of all successful reloads.
+	 *
+	 * @param unit the unit of the returned duration
+	 * @return the latency, or {@code 0} if no reload has completed yet
+	 * @see #getLastLatency(TimeUnit)
+	 */
+	long getMaxLatency(TimeUnit unit);
+
+	/**
+	 * Returns the average latency of all successful reloads.
+	 *
+	 * @param unit the unit of the returned duration
+	 * @return the latency, or {@code 0} if no reload has completed yet
+	 * @see #getLastLatency(TimeUnit)
+	 */
+	long getAverageLatency(TimeUnit unit);
+
+	/**
+	 * Stops watching files. A reload in progress is completed.
+	 */
+	@Override
+	void close();
+}
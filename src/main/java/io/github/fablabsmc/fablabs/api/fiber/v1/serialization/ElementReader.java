@@ -0,0 +1,73 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import java.io.IOException;
+
+import javax.annotation.Nullable;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.ValueDeserializationException;
+
+/**
+ * A pull-based cursor over a serialized document. Instead of materializing a complete target
+ * through {@link ValueSerializer#readTarget(java.io.InputStream)}, an element reader yields the
+ * keys of an aggregate one at a time, and lets the caller decide for each of them whether to
+ * descend into it, read it as a single element, or skip it entirely.
+ *
+ * <p>A typical read loop looks like this:
+ * <pre>{@code
+ * reader.beginAggregate();
+ *
+ * for (String name = reader.nextName(); name != null; name = reader.nextName()) {
+ *     if (wanted(name)) {
+ *         consume(reader.readElement());
+ *     } else {
+ *         reader.skipElement();
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>Exactly one of {@link #beginAggregate()}, {@link #readElement()} or {@link #skipElement()}
+ * must be called after every non-null return of {@link #nextName()}.
+ *
+ * @param <A> The type of the serialized element representation, e.g. JsonElement.
+ * @see StreamingValueSerializer
+ */
+public interface ElementReader<A> {
+	/**
+	 * Enters the next value, which must be an aggregate. Subsequent calls to {@link #nextName()}
+	 * iterate over the keys of that aggregate.
+	 *
+	 * @throws ValueDeserializationException If the next value is not an aggregate.
+	 * @throws IOException                   If an IO error occurs while reading from the stream.
+	 */
+	void beginAggregate() throws ValueDeserializationException, IOException;
+
+	/**
+	 * Advances to the next key of the current aggregate.
+	 *
+	 * <p>If the current aggregate has no more keys, its end is consumed, the reader returns to
+	 * the enclosing aggregate and this method returns {@code null}.
+	 *
+	 * @return The next key, or {@code null} if the current aggregate has been exhausted.
+	 * @throws ValueDeserializationException If the input is malformed.
+	 * @throws IOException                   If an IO error occurs while reading from the stream.
+	 */
+	@Nullable
+	String nextName() throws ValueDeserializationException, IOException;
+
+	/**
+	 * Reads the next value in its entirety.
+	 *
+	 * @return The serialized form of the next value.
+	 * @throws ValueDeserializationException If the input is malformed.
+	 * @throws IOException                   If an IO error occurs while reading from the stream.
+	 */
+	A readElement() throws ValueDeserializationException, IOException;
+
+	/**
+	 * Discards the next value without converting it to a serialized element.
+	 *
+	 * @throws ValueDeserializationException If the input is malformed.
+	 * @throws IOException                   If an IO error occurs while reading from the stream.
+	 */
+	void skipElement() throws ValueDeserializationException, IOException;
+}
@@ -0,0 +1,59 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import java.io.IOException;
+
+import javax.annotation.Nullable;
+
+/**
+ * A push-based writer for serialized documents, the counterpart of {@link ElementReader}.
+ * Instead of assembling a complete target and handing it to
+ * {@link ValueSerializer#writeTarget(Object, java.io.OutputStream)}, elements are written
+ * out as soon as they are produced.
+ *
+ * <p>Every call to {@link #name(String, String)} must be followed by exactly one
+ * call to either {@link #writeElement(Object)} or {@link #beginAggregate()}.
+ * Writers may buffer their output; {@link #flush()} must be called once the
+ * top-level aggregate has been ended.
+ *
+ * @param <A> The type of the serialized element representation, e.g. JsonElement.
+ * @see StreamingValueSerializer
+ */
+public interface ElementWriter<A> {
+	/**
+	 * Starts a new aggregate, either as the top-level value or as the value of the last written name.
+	 *
+	 * @throws IOException If an IO error occurs while writing to the stream.
+	 */
+	void beginAggregate() throws IOException;
+
+	/**
+	 * Writes the key of the next entry in the current aggregate.
+	 *
+	 * @param name    The key of the entry.
+	 * @param comment an optional comment associated with the entry.
+	 * @throws IOException If an IO error occurs while writing to the stream.
+	 */
+	void name(String name, @Nullable String comment) throws IOException;
+
+	/**
+	 * Writes a serialized element as the value of the last written name.
+	 *
+	 * @param elem The serialized element.
+	 * @throws IOException If an IO error occurs while writing to the stream.
+	 */
+	void writeElement(A elem) throws IOException;
+
+	/**
+	 * Ends the current aggregate.
+	 *
+	 * @throws IOException If an IO error occurs while writing to the stream.
+	 */
+	void endAggregate() throws IOException;
+
+	/**
+	 * Writes any buffered output to the underlying stream. The stream itself is not closed.
+	 *
+	 * @throws IOException If an IO error occurs while writing to the stream.
+	 */
+	void flush() throws IOException;
+}
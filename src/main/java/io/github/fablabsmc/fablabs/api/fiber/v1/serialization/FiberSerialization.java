@@ -1,18 +1,43 @@
 package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
 
+import javax.annotation.Nullable;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.RuntimeFiberException;
 import io.github.fablabsmc.fablabs.api.fiber.v1.exception.ValueDeserializationException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ChangeBatch;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.Commentable;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTransaction;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import io.github.fablabsmc.fablabs.impl.fiber.serialization.FileBuffers;
+import io.github.fablabsmc.fablabs.impl.fiber.serialization.ParallelDeserialization;
+import io.github.fablabsmc.fablabs.impl.fiber.tree.ConfigBranchImpl;
+import io.github.fablabsmc.fablabs.impl.fiber.tree.ConfigLeafImpl;
 
 /**
  * Static class that houses Fiber's serialization and deserialization algorithms.
@@ -21,48 +46,356 @@ public final class FiberSerialization {
 	private FiberSerialization() {
 	}
 
+	/**
+	 * Serializes a config tree.
+	 *
+	 * <p>If the serializer {@linkplain ValueSerializer#isElementReusable() allows it}, the serialized form of every
+	 * leaf and branch is kept, so that serializing the tree again only converts the subtrees modified in between.
+	 *
+	 * @param tree The tree to serialize.
+	 * @param out  The output stream.
+	 * @param ctx  The serializer used to convert and write elements.
+	 * @throws IOException If an IO error occurs while writing to the stream.
+	 */
 	public static <A, T> void serialize(ConfigTree tree, OutputStream out, ValueSerializer<A, T> ctx) throws IOException {
-		T target = ctx.newTarget();
+		ctx.writeTarget(serializeMembers(tree, ctx), out);
+	}
 
-		for (ConfigNode node : tree.getItems()) {
-			serializeNode(node, target, ctx);
+	/**
+	 * Serializes a config tree by writing each node to the output as soon as it is visited, rather than
+	 * first assembling the whole document into a target.
+	 *
+	 * <p>The produced output is the same as that of {@link #serialize(ConfigTree, OutputStream, ValueSerializer)}.
+	 *
+	 * @param tree The tree to serialize.
+	 * @param out  The output stream.
+	 * @param ctx  The serializer used to convert and write elements.
+	 * @throws IOException If an IO error occurs while writing to the stream.
+	 */
+	public static <A, T> void serializeStreaming(ConfigTree tree, OutputStream out, StreamingValueSerializer<A, T> ctx) throws IOException {
+		ElementWriter<A> writer = ctx.newWriter(out);
+		writer.beginAggregate();
+		serializeChildren(tree, writer, ctx);
+		writer.endAggregate();
+		writer.flush();
+	}
+
+	/**
+	 * Serializes a config tree to a file, atomically replacing its previous content.
+	 *
+	 * <p>The tree is first written to a temporary file in the same directory, which is flushed to the storage
+	 * device and then moved over the target file, so that a crash while saving never leaves a truncated config.
+	 * If the file system does not support atomic moves, the file is replaced non-atomically.
+	 * Missing parent directories are created. The permissions of a replaced file are kept, and new files
+	 * get the default permissions of the file system.
+	 *
+	 * @param tree The tree to serialize.
+	 * @param file The file to write.
+	 * @param ctx  The serializer used to convert and write elements.
+	 * @throws IOException If an IO error occurs while writing the file.
+	 */
+	public static <A, T> void serialize(ConfigTree tree, Path file, ValueSerializer<A, T> ctx) throws IOException {
+		Path target = file.toAbsolutePath();
+		Path directory = Objects.requireNonNull(target.getParent());
+		Files.createDirectories(directory);
+		Path temp;
+		FileChannel tempChannel;
+
+		// unlike Files.createTempFile, which restricts the file to its owner, this uses the default permissions
+		while (true) {
+			temp = directory.resolve(target.getFileName() + "." + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+
+			try {
+				tempChannel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+				break;
+			} catch (FileAlreadyExistsException e) {
+				// try another name
+			}
+		}
+
+		try {
+			try (FileChannel channel = tempChannel; OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel))) {
+				serialize(tree, out, ctx);
+				out.flush();
+				channel.force(false);
+			}
+
+			copyPermissions(target, temp);
+
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+	}
+
+	private static void copyPermissions(Path from, Path to) throws IOException {
+		PosixFileAttributeView view = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+
+		if (view == null) return;
+
+		Set<PosixFilePermission> permissions;
+
+		try {
+			permissions = view.readAttributes().permissions();
+		} catch (NoSuchFileException e) {
+			// nothing is replaced
+			return;
 		}
 
-		ctx.writeTarget(target, out);
+		Files.setPosixFilePermissions(to, permissions);
+	}
+
+	private static <A> void serializeChildren(ConfigTree tree, ElementWriter<A> writer, ValueSerializer<A, ?> ctx) throws IOException {
+		for (ConfigNode node : tree.getItems()) {
+			String name = Objects.requireNonNull(node.getName());
+
+			if (node instanceof ConfigBranch) {
+				ConfigBranch branch = (ConfigBranch) node;
+
+				if (!branch.isSerializedSeparately()) {
+					writer.name(name, getComment(node));
+					writer.beginAggregate();
+					serializeChildren(branch, writer, ctx);
+					writer.endAggregate();
+				}
+			} else if (node instanceof ConfigLeaf<?>) {
+				writer.name(name, getComment(node));
+				writer.writeElement(serializeValue((ConfigLeaf<?>) node, ctx));
+			}
+		}
 	}
 
+	/**
+	 * Deserializes a config tree.
+	 *
+	 * <p>Change listeners are notified as each value is set. To notify them once all values have been read,
+	 * call this method inside a {@link ChangeBatch}.
+	 *
+	 * @param tree The tree to deserialize into.
+	 * @param in   The input stream.
+	 * @param ctx  The serializer used to read and convert elements.
+	 * @throws IOException                   If an IO error occurs while reading from the stream.
+	 * @throws ValueDeserializationException If a value cannot be converted.
+	 */
 	public static <A, T> void deserialize(ConfigTree tree, InputStream in, ValueSerializer<A, T> ctx) throws IOException, ValueDeserializationException {
-		T target = ctx.readTarget(in);
+		deserialize(tree, null, in, ctx);
+	}
+
+	/**
+	 * Deserializes a config tree from a file, which is read into a buffer rather than through a stream.
+	 *
+	 * <p>Serializers overriding {@link ValueSerializer#readTarget(ByteBuffer)} decode the buffer in place.
+	 *
+	 * @param tree The tree to deserialize into.
+	 * @param file The file to read.
+	 * @param ctx  The serializer used to read and convert elements.
+	 * @throws IOException                   If an IO error occurs while reading the file.
+	 * @throws ValueDeserializationException If a value cannot be converted.
+	 * @see #deserialize(ConfigTree, FileChannel, ValueSerializer)
+	 */
+	public static <A, T> void deserialize(ConfigTree tree, Path file, ValueSerializer<A, T> ctx) throws IOException, ValueDeserializationException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			deserialize(tree, channel, ctx);
+		}
+	}
+
+	/**
+	 * Deserializes a config tree from the content of a file channel, from its current position to its end.
+	 *
+	 * <p>The channel must be readable; it is not closed by this method.
+	 *
+	 * @param tree    The tree to deserialize into.
+	 * @param channel The channel to read.
+	 * @param ctx     The serializer used to read and convert elements.
+	 * @throws IOException                   If an IO error occurs while reading the channel.
+	 * @throws ValueDeserializationException If a value cannot be converted.
+	 */
+	public static <A, T> void deserialize(ConfigTree tree, FileChannel channel, ValueSerializer<A, T> ctx) throws IOException, ValueDeserializationException {
+		deserializeTarget(tree, null, ctx.readTarget(FileBuffers.read(channel)), ctx);
+	}
+
+	/**
+	 * Deserializes a config tree, converting values concurrently on the given pool.
+	 *
+	 * <p>This is worthwhile for wide trees, or trees holding large lists, maps or records, whose conversion
+	 * dominates the cost of deserialization. The input is read and values are applied on the calling thread,
+	 * in document order, so the resulting tree and the order in which leaves are set are the same
+	 * as with {@link #deserialize(ConfigTree, InputStream, ValueSerializer)}. If a value cannot be
+	 * converted, the leaves preceding it in the input are updated, and the following ones are not.
+	 *
+	 * <p>The {@code deserialize*} methods of the serializer must be safe to call from several threads at once.
+	 *
+	 * @param tree The tree to deserialize into.
+	 * @param in   The input stream.
+	 * @param ctx  The serializer used to read and convert elements.
+	 * @param pool The pool on which values are converted.
+	 * @throws IOException                   If an IO error occurs while reading from the stream.
+	 * @throws ValueDeserializationException If a value cannot be converted.
+	 */
+	public static <A, T> void deserialize(ConfigTree tree, InputStream in, ValueSerializer<A, T> ctx, ForkJoinPool pool) throws IOException, ValueDeserializationException {
+		ParallelDeserialization.deserialize(tree, in, ctx, pool);
+	}
+
+	/**
+	 * Deserializes a config tree, deferring the conversion of the values of each branch until the branch is
+	 * first accessed.
+	 *
+	 * <p>The values of the leaves that are direct children of the tree are converted right away.
+	 * For every branch, the serialized element is kept, and converted the first time the branch is
+	 * {@linkplain ConfigBranch#lookup(String) looked up into} or its {@linkplain ConfigBranch#getItems() children}
+	 * are accessed. Branches nested in a deferred branch are in turn deferred when it is loaded.
+	 * This avoids converting the values of branches that are never read, at the cost of retaining their
+	 * serialized form.
+	 *
+	 * <p>A value read through a leaf obtained before its parent was accessed is the value prior to deserialization.
+	 * Similarly, a value set through such a leaf is overwritten when the parent is accessed.
+	 *
+	 * <p>If a deferred value cannot be converted, a {@link RuntimeFiberException} wrapping the
+	 * {@link ValueDeserializationException} is thrown by the method accessing the branch.
+	 * Only branches implemented by Fiber can be deferred, others are deserialized right away.
+	 *
+	 * @param tree The tree to deserialize into.
+	 * @param in   The input stream.
+	 * @param ctx  The serializer used to read and convert elements.
+	 * @throws IOException                   If an IO error occurs while reading from the stream.
+	 * @throws ValueDeserializationException If a value that is not deferred cannot be converted.
+	 */
+	public static <A, T> void deserializeLazily(ConfigTree tree, InputStream in, ValueSerializer<A, T> ctx) throws IOException, ValueDeserializationException {
+		deserializeLazily(tree, ctx.elements(ctx.readTarget(in)), ctx);
+	}
 
+	private static <A> void deserializeLazily(ConfigTree tree, Iterator<Map.Entry<String, A>> entries, ValueSerializer<A, ?> ctx) throws ValueDeserializationException {
+		while (entries.hasNext()) {
+			Map.Entry<String, A> entry = entries.next();
+			ConfigNode node = tree.lookup(entry.getKey());
+			A elem = entry.getValue();
+
+			if (node instanceof ConfigBranchImpl) {
+				ConfigBranchImpl branch = (ConfigBranchImpl) node;
+				branch.deferLoad(() -> {
+					try {
+						deserializeLazily(branch, ctx.subElements(elem), ctx);
+					} catch (ValueDeserializationException e) {
+						throw new RuntimeFiberException("Failed to deserialize branch " + branch.getName(), e);
+					}
+				});
+			} else if (node != null) {
+				deserializeNode(node, elem, ctx, null);
+			}
+		}
+	}
+
+	/**
+	 * Deserializes values into a transaction, rather than directly into its tree.
+	 *
+	 * <p>The tree is not modified until the transaction is {@linkplain ConfigTransaction#commit() committed},
+	 * at which point every value read is validated and applied at once. If the input is malformed,
+	 * the transaction can simply be discarded.
+	 *
+	 * @param transaction The transaction in which to stage the values read.
+	 * @param in          The input stream.
+	 * @param ctx         The serializer used to read and convert elements.
+	 * @throws IOException                   If an IO error occurs while reading from the stream.
+	 * @throws ValueDeserializationException If a value cannot be converted.
+	 */
+	public static <A, T> void deserialize(ConfigTransaction transaction, InputStream in, ValueSerializer<A, T> ctx) throws IOException, ValueDeserializationException {
+		deserialize(transaction.getTree(), transaction, in, ctx);
+	}
+
+	private static <A, T> void deserialize(ConfigTree tree, @Nullable ConfigTransaction transaction, InputStream in, ValueSerializer<A, T> ctx) throws IOException, ValueDeserializationException {
+		deserializeTarget(tree, transaction, ctx.readTarget(in), ctx);
+	}
+
+	private static <A, T> void deserializeTarget(ConfigTree tree, @Nullable ConfigTransaction transaction, T target, ValueSerializer<A, T> ctx) throws ValueDeserializationException {
 		for (Iterator<Map.Entry<String, A>> itr = ctx.elements(target); itr.hasNext(); ) {
 			Map.Entry<String, A> entry = itr.next();
 			ConfigNode node = tree.lookup(entry.getKey());
 			A elem = entry.getValue();
 
 			if (node != null) {
-				deserializeNode(node, elem, ctx);
+				deserializeNode(node, elem, ctx, transaction);
 			}
 		}
 	}
 
-	public static <A, T> void serializeNode(ConfigNode node, T target, ValueSerializer<A, T> ctx) {
-		String name = Objects.requireNonNull(node.getName());
-		String comment;
+	/**
+	 * Deserializes a config tree by pulling elements from the input one at a time, rather than first
+	 * reading the whole document into a target.
+	 *
+	 * <p>Only the elements backing existing leaves are materialized; unknown entries are skipped.
+	 * Unlike {@link #deserialize(ConfigTree, InputStream, ValueSerializer)}, values are applied
+	 * as soon as they are read, so if the input turns out to be malformed part way through,
+	 * the leaves preceding the error will already have been updated.
+	 *
+	 * <p>Change listeners are notified as each value is set. To notify them once all values have been read,
+	 * call this method inside a {@link ChangeBatch}.
+	 *
+	 * @param tree The tree to deserialize into.
+	 * @param in   The input stream.
+	 * @param ctx  The serializer used to read and convert elements.
+	 * @throws IOException                   If an IO error occurs while reading from the stream.
+	 * @throws ValueDeserializationException If the input is malformed or a value cannot be converted.
+	 */
+	public static <A, T> void deserializeStreaming(ConfigTree tree, InputStream in, StreamingValueSerializer<A, T> ctx) throws IOException, ValueDeserializationException {
+		ElementReader<A> reader = ctx.newReader(in);
+		reader.beginAggregate();
+		deserializeChildren(tree, reader, ctx, null);
+	}
 
-		if (node instanceof Commentable) {
-			comment = ((Commentable) node).getComment();
-		} else {
-			comment = null;
+	/**
+	 * Deserializes values into a transaction by pulling elements from the input one at a time.
+	 *
+	 * <p>Since values are only applied when the transaction is {@linkplain ConfigTransaction#commit() committed},
+	 * a malformed input leaves the tree untouched.
+	 *
+	 * @param transaction The transaction in which to stage the values read.
+	 * @param in          The input stream.
+	 * @param ctx         The serializer used to read and convert elements.
+	 * @throws IOException                   If an IO error occurs while reading from the stream.
+	 * @throws ValueDeserializationException If the input is malformed or a value cannot be converted.
+	 * @see #deserializeStreaming(ConfigTree, InputStream, StreamingValueSerializer)
+	 */
+	public static <A, T> void deserializeStreaming(ConfigTransaction transaction, InputStream in, StreamingValueSerializer<A, T> ctx) throws IOException, ValueDeserializationException {
+		ElementReader<A> reader = ctx.newReader(in);
+		reader.beginAggregate();
+		deserializeChildren(transaction.getTree(), reader, ctx, transaction);
+	}
+
+	private static <A> void deserializeChildren(ConfigTree tree, ElementReader<A> reader, ValueSerializer<A, ?> ctx, @Nullable ConfigTransaction transaction) throws IOException, ValueDeserializationException {
+		for (String name = reader.nextName(); name != null; name = reader.nextName()) {
+			ConfigNode node = tree.lookup(name);
+
+			if (node instanceof ConfigBranch) {
+				reader.beginAggregate();
+				deserializeChildren((ConfigBranch) node, reader, ctx, transaction);
+			} else if (node instanceof ConfigLeaf<?>) {
+				deserializeValue((ConfigLeaf<?>) node, reader.readElement(), ctx, transaction);
+			} else {
+				reader.skipElement();
+			}
 		}
+	}
+
+	public static <A, T> void serializeNode(ConfigNode node, T target, ValueSerializer<A, T> ctx) {
+		String name = Objects.requireNonNull(node.getName());
+		String comment = getComment(node);
 
 		if (node instanceof ConfigBranch) {
 			ConfigBranch branch = (ConfigBranch) node;
 
 			if (!branch.isSerializedSeparately()) {
-				T subTarget = ctx.newTarget();
+				T subTarget;
 
-				for (ConfigNode subNode : branch.getItems()) {
-					serializeNode(subNode, subTarget, ctx);
+				if (branch instanceof ConfigBranchImpl && ctx.isElementReusable()) {
+					// unchanged subtrees are not serialized again
+					subTarget = ((ConfigBranchImpl) branch).serializeCached(ctx, b -> serializeMembers(b, ctx));
+				} else {
+					subTarget = serializeMembers(branch, ctx);
 				}
 
 				ctx.addSubElement(name, subTarget, target, comment);
@@ -73,11 +406,34 @@ public final class FiberSerialization {
 		}
 	}
 
+	private static <A, T> T serializeMembers(ConfigTree tree, ValueSerializer<A, T> ctx) {
+		T target = ctx.newTarget();
+
+		for (ConfigNode node : tree.getItems()) {
+			serializeNode(node, target, ctx);
+		}
+
+		return target;
+	}
+
+	@Nullable
+	private static String getComment(ConfigNode node) {
+		return node instanceof Commentable ? ((Commentable) node).getComment() : null;
+	}
+
 	private static <T, A> A serializeValue(ConfigLeaf<T> leaf, ValueSerializer<A, ?> ctx) {
+		if (leaf instanceof ConfigLeafImpl && ctx.isElementReusable()) {
+			return ((ConfigLeafImpl<T>) leaf).serializeValue(ctx);
+		}
+
 		return leaf.getConfigType().serializeValue(leaf.getValue(), ctx);
 	}
 
 	public static <A, T> void deserializeNode(ConfigNode node, A elem, ValueSerializer<A, T> ctx) throws ValueDeserializationException {
+		deserializeNode(node, elem, ctx, null);
+	}
+
+	private static <A, T> void deserializeNode(ConfigNode node, A elem, ValueSerializer<A, T> ctx, @Nullable ConfigTransaction transaction) throws ValueDeserializationException {
 		if (node instanceof ConfigBranch) {
 			ConfigBranch branch = (ConfigBranch) node;
 
@@ -87,16 +443,22 @@ public final class FiberSerialization {
 				A subElem = entry.getValue();
 
 				if (subNode != null) {
-					deserializeNode(subNode, subElem, ctx);
+					deserializeNode(subNode, subElem, ctx, transaction);
 				}
 			}
 		} else if (node instanceof ConfigLeaf<?>) {
 			ConfigLeaf<?> leaf = (ConfigLeaf<?>) node;
-			deserializeValue(leaf, elem, ctx);
+			deserializeValue(leaf, elem, ctx, transaction);
 		}
 	}
 
-	private static <T, A> void deserializeValue(ConfigLeaf<T> leaf, A elem, ValueSerializer<A, ?> ctx) throws ValueDeserializationException {
-		leaf.setValue(leaf.getConfigType().deserializeValue(elem, ctx));
+	private static <T, A> void deserializeValue(ConfigLeaf<T> leaf, A elem, ValueSerializer<A, ?> ctx, @Nullable ConfigTransaction transaction) throws ValueDeserializationException {
+		T value = leaf.getConfigType().deserializeValue(elem, ctx);
+
+		if (transaction != null) {
+			transaction.stage(leaf, value);
+		} else {
+			leaf.setValue(value);
+		}
 	}
 }
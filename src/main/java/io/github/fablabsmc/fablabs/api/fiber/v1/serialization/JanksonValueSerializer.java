@@ -28,11 +28,17 @@ import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.MapSerializableType;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.RecordSerializableType;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.SerializableType;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.StringSerializableType;
+import io.github.fablabsmc.fablabs.impl.fiber.serialization.JanksonElementReader;
+import io.github.fablabsmc.fablabs.impl.fiber.serialization.JanksonElementWriter;
 
 /**
  * {@link ValueSerializer} for Jankson.
+ *
+ * <p>Documents may also be read and written incrementally through {@link #newReader(InputStream)}
+ * and {@link #newWriter(OutputStream)}, which parse JSON5 directly into the elements backing
+ * individual leaves and emit them straight to the output respectively.
  */
-public class JanksonValueSerializer implements ValueSerializer<JsonElement, JsonObject> {
+public class JanksonValueSerializer implements StreamingValueSerializer<JsonElement, JsonObject> {
 	private final boolean minify;
 	private final Jankson jankson;
 
@@ -253,6 +259,16 @@ public class JanksonValueSerializer implements ValueSerializer<JsonElement, Json
 		}
 	}
 
+	@Override
+	public ElementReader<JsonElement> newReader(InputStream in) {
+		return new JanksonElementReader(in);
+	}
+
+	@Override
+	public ElementWriter<JsonElement> newWriter(OutputStream out) {
+		return new JanksonElementWriter(out, this.minify);
+	}
+
 	@Override
 	public JsonObject newTarget() {
 		return new JsonObject();
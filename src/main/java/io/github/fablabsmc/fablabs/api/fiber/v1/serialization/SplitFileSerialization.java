@@ -0,0 +1,146 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.RuntimeFiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.ValueDeserializationException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import io.github.fablabsmc.fablabs.impl.fiber.serialization.SplitFiles;
+import io.github.fablabsmc.fablabs.impl.fiber.tree.ConfigBranchImpl;
+
+/**
+ * Static class that persists config trees across several files, one for the tree itself
+ * and one for each branch {@linkplain ConfigBranch#isSerializedSeparately() serialized separately}.
+ *
+ * <p>The file of a separately serialized branch is located in a directory named after the main file
+ * without its extension, at the path of the branch relative to the root, and has the same extension as
+ * the main file. For instance, with a main file {@code config/mod.json5}, the branch {@code client.rendering}
+ * is stored in {@code config/mod/client/rendering.json5}. If the main file has no extension, the directory is
+ * named after it with a {@code .d} suffix, and branch files have a {@code .branch} extension: with a main file
+ * {@code config/mod}, the same branch is stored in {@code config/mod.d/client/rendering.branch}.
+ */
+public final class SplitFileSerialization {
+	private SplitFileSerialization() {
+	}
+
+	/**
+	 * Serializes a config tree and its separately serialized branches, writing files concurrently
+	 * on the common {@link ForkJoinPool}.
+	 *
+	 * @param tree The tree to serialize.
+	 * @param file The file in which to write the tree.
+	 * @param ctx  The serializer used to convert and write elements.
+	 * @throws IOException If an IO error occurs while writing a file.
+	 * @see #serialize(ConfigTree, Path, ValueSerializer, Executor)
+	 */
+	public static <A, T> void serialize(ConfigTree tree, Path file, ValueSerializer<A, T> ctx) throws IOException {
+		serialize(tree, file, ctx, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Serializes a config tree and its separately serialized branches, writing each file as a separate task
+	 * on the given executor.
+	 *
+	 * <p>Branches that were {@linkplain #deserialize(ConfigTree, Path, ValueSerializer) loaded lazily}
+	 * and have not been accessed since are left untouched, as their files are already up to date.
+	 *
+	 * <p>The {@code serialize*} methods of the serializer must be safe to call from several threads at once.
+	 *
+	 * @param tree     The tree to serialize.
+	 * @param file     The file in which to write the tree.
+	 * @param ctx      The serializer used to convert and write elements.
+	 * @param executor The executor on which files are written.
+	 * @throws IOException If an IO error occurs while writing a file.
+	 */
+	public static <A, T> void serialize(ConfigTree tree, Path file, ValueSerializer<A, T> ctx, Executor executor) throws IOException {
+		List<CompletableFuture<Void>> writes = new ArrayList<>();
+		writes.add(CompletableFuture.runAsync(() -> write(tree, file, ctx), executor));
+
+		for (ConfigBranch branch : SplitFiles.getLoadedBranches(tree)) {
+			writes.add(CompletableFuture.runAsync(() -> write(branch, SplitFiles.getBranchFile(file, tree, branch), ctx), executor));
+		}
+
+		try {
+			CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof UncheckedIOException) throw ((UncheckedIOException) e.getCause()).getCause();
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Deserializes a config tree from its main file, deferring the deserialization of every separately
+	 * serialized branch until its children are first accessed.
+	 *
+	 * <p>Branches without a file keep their current values. If the file of a branch cannot be read when the branch
+	 * is accessed, a {@link RuntimeFiberException} is thrown by the accessing method, and the branch keeps the values
+	 * read until the error.
+	 *
+	 * <p>Branches that do not support lazy loading are deserialized right away.
+	 *
+	 * @param tree The tree to deserialize into.
+	 * @param file The file from which to read the tree.
+	 * @param ctx  The serializer used to read and convert elements.
+	 * @throws IOException                   If an IO error occurs while reading the main file.
+	 * @throws ValueDeserializationException If a value of the main file cannot be converted.
+	 */
+	public static <A, T> void deserialize(ConfigTree tree, Path file, ValueSerializer<A, T> ctx) throws IOException, ValueDeserializationException {
+		read(tree, file, ctx);
+		deferBranches(tree, tree, file, ctx);
+	}
+
+	private static <A, T> void deferBranches(ConfigTree root, ConfigTree tree, Path file, ValueSerializer<A, T> ctx) throws IOException, ValueDeserializationException {
+		for (ConfigNode node : tree.getItems()) {
+			if (!(node instanceof ConfigBranch)) continue;
+
+			ConfigBranch branch = (ConfigBranch) node;
+
+			if (!branch.isSerializedSeparately()) {
+				deferBranches(root, branch, file, ctx);
+				continue;
+			}
+
+			Path branchFile = SplitFiles.getBranchFile(file, root, branch);
+
+			if (!Files.exists(branchFile)) {
+				deferBranches(root, branch, file, ctx);
+			} else if (branch instanceof ConfigBranchImpl) {
+				((ConfigBranchImpl) branch).deferLoad(() -> {
+					try {
+						read(branch, branchFile, ctx);
+						deferBranches(root, branch, file, ctx);
+					} catch (IOException | ValueDeserializationException e) {
+						throw new RuntimeFiberException("Failed to load " + branchFile, e);
+					}
+				});
+			} else {
+				read(branch, branchFile, ctx);
+				deferBranches(root, branch, file, ctx);
+			}
+		}
+	}
+
+	private static void write(ConfigTree tree, Path file, ValueSerializer<?, ?> ctx) {
+		try {
+			FiberSerialization.serialize(tree, file, ctx);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void read(ConfigTree tree, Path file, ValueSerializer<?, ?> ctx) throws IOException, ValueDeserializationException {
+		FiberSerialization.deserialize(tree, file, ctx);
+	}
+}
@@ -0,0 +1,44 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A {@link ValueSerializer} that can additionally read and write documents incrementally.
+ *
+ * <p>Streaming deserialization avoids building the whole serialized document in memory before
+ * the first value gets applied. Only the elements backing individual leaves are materialized,
+ * and elements that do not correspond to any node in the tree are skipped without being converted.
+ * Likewise, streaming serialization writes each node out as it is visited, so the memory needed
+ * to save a tree does not grow with the size of the produced document.
+ *
+ * @param <A> The type of the serialized element representation, e.g. JsonElement.
+ * @param <T> The type of the serialized aggregate representation, e.g. JsonObject.
+ * @see FiberSerialization#serializeStreaming(io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree, OutputStream, StreamingValueSerializer)
+ * @see FiberSerialization#deserializeStreaming(io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree, InputStream, StreamingValueSerializer)
+ */
+public interface StreamingValueSerializer<A, T> extends ValueSerializer<A, T> {
+	/**
+	 * Creates an {@link ElementReader} pulling from the given input stream.
+	 *
+	 * <p>The returned reader is positioned before the top-level aggregate.
+	 * The input stream is not closed by the reader.
+	 *
+	 * @param in The input stream.
+	 * @return A reader over the serialized document.
+	 * @throws IOException If an IO error occurs while opening the stream.
+	 */
+	ElementReader<A> newReader(InputStream in) throws IOException;
+
+	/**
+	 * Creates an {@link ElementWriter} pushing to the given output stream.
+	 *
+	 * <p>The output stream is not closed by the writer.
+	 *
+	 * @param out The output stream.
+	 * @return A writer producing a serialized document.
+	 * @throws IOException If an IO error occurs while opening the stream.
+	 */
+	ElementWriter<A> newWriter(OutputStream out) throws IOException;
+}
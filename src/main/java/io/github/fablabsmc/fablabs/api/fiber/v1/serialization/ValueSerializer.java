@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +20,7 @@ import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.MapSerializableType;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.RecordSerializableType;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.SerializableType;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.StringSerializableType;
+import io.github.fablabsmc.fablabs.impl.fiber.serialization.ByteBufferInputStream;
 
 /**
  * Adapter between a tree serialization library and Fiber. To use a library like
@@ -229,8 +231,41 @@ public interface ValueSerializer<A, T> {
 	 */
 	T readTarget(InputStream in) throws ValueDeserializationException, IOException;
 
+	/**
+	 * Reads an aggregate target from the remaining content of the given buffer.
+	 *
+	 * <p>This is used by
+	 * {@link FiberSerialization#deserialize(io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree, java.nio.file.Path, ValueSerializer)},
+	 * and the buffer may also be a direct or memory mapped buffer. The default implementation reads the buffer through an input stream. Serializers able to decode a buffer
+	 * in place should override this method.
+	 *
+	 * @param buffer The buffer.
+	 * @return The target read from the buffer.
+	 * @throws ValueDeserializationException If a target cannot be read from the buffer.
+	 * @throws IOException                   If an IO error occurs while reading from the buffer.
+	 */
+	default T readTarget(ByteBuffer buffer) throws ValueDeserializationException, IOException {
+		return this.readTarget(new ByteBufferInputStream(buffer));
+	}
+
 	/**
 	 * Creates a new, empty aggregate target.
 	 */
 	T newTarget();
+
+	/**
+	 * Returns whether serialized elements and targets produced by this serializer can be reused.
+	 *
+	 * <p>If this method returns {@code true}, {@link FiberSerialization} keeps the serialized form of each
+	 * leaf and branch, and reuses it in later serializations until the corresponding subtree is modified.
+	 * This requires that neither {@link #addElement}, {@link #addSubElement} nor {@link #writeTarget}
+	 * consume or mutate the elements and sub-targets passed to them, and that a sub-target can be
+	 * added to several targets. Serializers producing mutable elements, such as JSON trees handed to
+	 * their callers, should not opt in, as a modification of one of them would corrupt later serializations.
+	 *
+	 * @return {@code true} if serialized forms can be cached, {@code false} by default
+	 */
+	default boolean isElementReusable() {
+		return false;
+	}
 }
@@ -0,0 +1,43 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.tree;
+
+import io.github.fablabsmc.fablabs.impl.fiber.tree.ChangeBatchImpl;
+
+/**
+ * A scope in which change listeners are deferred.
+ *
+ * <p>While a batch is open, changes made on the current thread to the value of a leaf do not notify its
+ * {@linkplain ConfigLeaf#addChangeListener(java.util.function.BiConsumer) listeners} right away.
+ * Instead, changes are coalesced per leaf, and each modified leaf notifies its listeners once when the batch
+ * is closed, with the value it had before the first change and the value it has after the last one.
+ *
+ * <p>Batches can be nested, in which case changes are delivered when the outermost batch is closed.
+ *
+ * <pre>{@code
+ * try (ChangeBatch batch = ChangeBatch.begin()) {
+ *     // every listener is called at most once, after all values have been read
+ *     FiberSerialization.deserialize(tree, in, serializer);
+ * }
+ * }</pre>
+ */
+public interface ChangeBatch extends AutoCloseable {
+	/**
+	 * Opens a batch on the current thread.
+	 *
+	 * @return the batch, which must be closed on the same thread
+	 */
+	static ChangeBatch begin() {
+		return ChangeBatchImpl.begin();
+	}
+
+	/**
+	 * Closes this batch, notifying listeners of every change made while it was open
+	 * if it is the outermost batch.
+	 *
+	 * <p>If a listener throws an exception, the listeners of the remaining leaves are still notified,
+	 * and the first exception is rethrown afterwards.
+	 *
+	 * @throws IllegalStateException if this batch was already closed, or is closed on another thread
+	 */
+	@Override
+	void close();
+}
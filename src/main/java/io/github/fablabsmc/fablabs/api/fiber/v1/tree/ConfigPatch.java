@@ -0,0 +1,113 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.tree;
+
+import java.util.Map;
+import java.util.Set;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.ValueDeserializationException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.SerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.FiberSerialization;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.ValueSerializer;
+import io.github.fablabsmc.fablabs.impl.fiber.tree.ConfigPatchImpl;
+
+/**
+ * The differences between two config trees: the nodes added and removed, and the leaves whose value changed.
+ *
+ * <p>Leaf values are compared with {@link SerializableType#isEquivalent(Object, Object)}. A node whose kind
+ * or type differs between the two trees is reported as removed, then added again.
+ *
+ * <p>Paths are made of the names of the nodes from the root, separated by dots. A patch holds copies
+ * of the added nodes, so that it is not affected by later modifications of the tree it was computed from.
+ * Applying a patch only visits the nodes it mentions, so its cost is proportional to its size rather than
+ * to the size of the tree.
+ */
+public interface ConfigPatch {
+	/**
+	 * Computes the changes turning a tree into another.
+	 *
+	 * @param from the original tree
+	 * @param to   the modified tree
+	 * @return a patch which, applied to {@code from}, makes it match {@code to}
+	 */
+	static ConfigPatch diff(ConfigTree from, ConfigTree to) {
+		return ConfigPatchImpl.diff(from, to);
+	}
+
+	/**
+	 * Computes the changes between the values of a tree and those of a serialized target.
+	 *
+	 * <p>Since a target does not describe the types of its elements, the returned patch only holds
+	 * value changes. Elements without a corresponding leaf are ignored, and leaves without a corresponding
+	 * element are left unchanged.
+	 *
+	 * @param tree   the original tree
+	 * @param target the target holding the new values
+	 * @param ctx    the serializer used to convert elements
+	 * @param <A>    the type of serialized elements
+	 * @param <T>    the type of serialized targets
+	 * @return a patch which, applied to {@code tree}, gives its leaves the values of the target
+	 * @throws ValueDeserializationException if an element cannot be converted
+	 */
+	static <A, T> ConfigPatch diff(ConfigTree tree, T target, ValueSerializer<A, T> ctx) throws ValueDeserializationException {
+		return ConfigPatchImpl.diff(tree, target, ctx);
+	}
+
+	/**
+	 * Returns the paths of the removed nodes, in tree order.
+	 */
+	Set<String> getRemovedPaths();
+
+	/**
+	 * Returns the paths of the added nodes, in tree order.
+	 *
+	 * <p>Descendants of an added branch are not listed separately.
+	 */
+	Set<String> getAddedPaths();
+
+	/**
+	 * Returns the new values of the changed leaves, by path, in tree order.
+	 */
+	Map<String, Object> getChangedValues();
+
+	/**
+	 * Returns the number of removed, added and changed nodes in this patch.
+	 */
+	int size();
+
+	/**
+	 * Returns {@code true} if this patch holds no change.
+	 */
+	default boolean isEmpty() {
+		return this.size() == 0;
+	}
+
+	/**
+	 * Applies this patch to a tree.
+	 *
+	 * <p>Value changes are applied first, in a single {@linkplain ConfigTransaction transaction}, then nodes are
+	 * removed and added. If a changed leaf or the parent of an added node cannot be found in the tree,
+	 * the tree is left unmodified. The whole patch is applied while holding the lock of the tree, so that
+	 * {@linkplain ConfigSnapshot snapshots} and transactions see either none or all of it, and listeners are
+	 * notified once it has been fully applied.
+	 *
+	 * <p>Added nodes are copies of those of the diffed tree, with the same listeners and threading behaviour.
+	 *
+	 * @param tree the tree to modify
+	 * @throws FiberException if this patch does not apply to the tree, or a new value is not valid for its leaf
+	 */
+	void apply(ConfigTree tree) throws FiberException;
+
+	/**
+	 * Serializes the value changes of this patch into a target shaped like the tree, holding only the changed leaves.
+	 *
+	 * <p>Deserializing the target into a tree with {@link FiberSerialization} applies the value changes of this patch.
+	 * Structural changes are not serialized. The serializer must write the names of elements, rather than
+	 * relying on the shape of a particular tree.
+	 *
+	 * @param ctx the serializer used to convert values
+	 * @param <A> the type of serialized elements
+	 * @param <T> the type of serialized targets
+	 * @return a new target
+	 */
+	<A, T> T serialize(ValueSerializer<A, T> ctx);
+}
@@ -1,8 +1,5 @@
 package io.github.fablabsmc.fablabs.api.fiber.v1.tree;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
 
 import javax.annotation.Nonnull;
@@ -10,6 +7,8 @@ import javax.annotation.Nullable;
 
 import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberQueryException;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.SerializableType;
+import io.github.fablabsmc.fablabs.impl.fiber.tree.ConfigBranchImpl;
+import io.github.fablabsmc.fablabs.impl.fiber.tree.IndexedNodeCollection;
 
 /**
  * A query that can be run against any config tree to try and get a node.
@@ -17,6 +16,11 @@ import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.SerializableType;
  * <p>A {@code ConfigQuery} follows a path in the tree, represented by a list of strings.
  * It can notably be used to retrieve nodes from various config trees with a similar structure.
  *
+ * <p>A query remembers the node it last found, and returns it again without walking
+ * the path as long as no branch along that path has been structurally modified
+ * or has a pending lazy load.
+ * Repeatedly running a query against the same tree is therefore cheap.
+ *
  * @param <T> the type of queried tree nodes
  */
 public final class ConfigQuery<T extends ConfigNode> {
@@ -60,17 +64,19 @@ public final class ConfigQuery<T extends ConfigNode> {
 		return new ConfigQuery<>(ConfigLeaf.class, propertyType, first, more);
 	}
 
-	private final List<String> path;
+	private final String[] path;
 	private final Class<? super T> nodeType;
 	@Nullable
 	private final SerializableType<?> valueType;
+	@Nullable
+	private volatile Resolution resolution;
 
 	private ConfigQuery(Class<? super T> nodeType, @Nullable SerializableType<?> valueType, String first, String[] path) {
 		this.nodeType = nodeType;
-		this.valueType = valueType;
-		this.path = new ArrayList<>();
-		this.path.add(first);
-		this.path.addAll(Arrays.asList(path));
+		this.valueType = valueType != null ? SerializableType.intern(valueType) : null;
+		this.path = new String[path.length + 1];
+		this.path[0] = first;
+		System.arraycopy(path, 0, this.path, 1, path.length);
 	}
 
 	/**
@@ -83,11 +89,7 @@ public final class ConfigQuery<T extends ConfigNode> {
 	 * @see #run(ConfigTree)
 	 */
 	public Optional<T> search(ConfigTree cfg) {
-		try {
-			return Optional.of(this.run(cfg));
-		} catch (FiberQueryException e) {
-			return Optional.empty();
-		}
+		return Optional.ofNullable(this.resolve(cfg));
 	}
 
 	/**
@@ -106,29 +108,106 @@ public final class ConfigQuery<T extends ConfigNode> {
 	 */
 	@Nonnull
 	public T run(ConfigTree cfg) throws FiberQueryException {
-		List<String> path = this.path;
+		T result = this.resolve(cfg);
+		return result != null ? result : this.resolveOrThrow(cfg);
+	}
+
+	/**
+	 * Finds the node satisfying this query, reusing the last resolution if it is still valid.
+	 *
+	 * @param cfg the config tree to run the query on
+	 * @return the queried node, or {@code null} if it could not be found
+	 */
+	@Nullable
+	private T resolve(ConfigTree cfg) {
+		Resolution cached = this.resolution;
+
+		if (cached != null && cached.isValidFor(cfg)) {
+			@SuppressWarnings("unchecked") T result = (T) cached.node;
+			return result;
+		}
+
+		String[] path = this.path;
+		ConfigTree[] branches = new ConfigTree[path.length];
+		IndexedNodeCollection[] collections = new IndexedNodeCollection[path.length];
+		int[] modCounts = new int[path.length];
+		boolean cacheable = true;
 		ConfigTree branch = cfg;
-		int lastIndex = path.size() - 1;
+		ConfigNode node = null;
+
+		for (int i = 0; i < path.length; i++) {
+			// runs any pending load, so that the modification count read below accounts for it
+			NodeCollection items = branch.getItems();
+			branches[i] = branch;
+
+			if (items instanceof IndexedNodeCollection) {
+				// read before the lookup, so that a change made in between invalidates the resolution
+				collections[i] = (IndexedNodeCollection) items;
+				modCounts[i] = collections[i].getModCount();
+			} else {
+				cacheable = false;
+			}
 
-		for (int i = 0; i < lastIndex; i++) {
-			branch = this.lookupChild(branch, path.get(i), ConfigBranch.class, null);
+			node = branch.lookup(path[i]);
+
+			if (!this.matches(node, i)) {
+				return null;
+			}
+
+			if (i < path.length - 1) {
+				branch = (ConfigBranch) node;
+			}
 		}
 
-		@SuppressWarnings("unchecked") T result =
-				(T) this.lookupChild(branch, path.get(lastIndex), this.nodeType, this.valueType);
+		if (cacheable) {
+			this.resolution = new Resolution(cfg, branches, collections, modCounts, node);
+		}
+
+		@SuppressWarnings("unchecked") T result = (T) node;
 		return result;
 	}
 
-	private <N> N lookupChild(ConfigTree tree, String name, Class<N> nodeType, @Nullable SerializableType<?> valueType) throws FiberQueryException {
-		ConfigNode node = tree.lookup(name);
+	/**
+	 * Walks the path of this query without caching, and throws an exception describing the first mismatch.
+	 *
+	 * <p>This is only called after {@link #resolve(ConfigTree)} failed, to report the failure. The tree
+	 * may have changed in between, in which case the node found is returned.
+	 */
+	@Nonnull
+	private T resolveOrThrow(ConfigTree cfg) throws FiberQueryException {
+		ConfigTree branch = cfg;
+		ConfigNode node = null;
+
+		for (int i = 0; i < this.path.length; i++) {
+			node = branch.lookup(this.path[i]);
+
+			if (!this.matches(node, i)) {
+				if (node != null) {
+					boolean last = i == this.path.length - 1;
+					throw new FiberQueryException.WrongType(branch, node, last ? this.nodeType : ConfigBranch.class, last ? this.valueType : null);
+				} else {
+					throw new FiberQueryException.MissingChild(this.path[i], branch);
+				}
+			}
 
-		if (nodeType.isInstance(node) && (valueType == null || valueType.equals(((ConfigLeaf<?>) node).getConfigType()))) {
-			return nodeType.cast(node);
-		} else if (node != null) {
-			throw new FiberQueryException.WrongType(tree, node, nodeType, valueType);
-		} else {
-			throw new FiberQueryException.MissingChild(name, tree);
+			if (i < this.path.length - 1) {
+				branch = (ConfigBranch) node;
+			}
 		}
+
+		@SuppressWarnings("unchecked") T result = (T) node;
+		return result;
+	}
+
+	/**
+	 * Returns whether a node can be the {@code index}th node on the path of this query.
+	 */
+	private boolean matches(@Nullable ConfigNode node, int index) {
+		if (index < this.path.length - 1) {
+			return node instanceof ConfigBranch;
+		}
+
+		return this.nodeType.isInstance(node) && (this.valueType == null || this.valueType.equals(((ConfigLeaf<?>) node).getConfigType()));
 	}
 
 	/**
@@ -150,4 +229,37 @@ public final class ConfigQuery<T extends ConfigNode> {
 
 		return sb.append("@'").append(String.join(".", this.path)).append('\'').toString();
 	}
+
+	/**
+	 * A successful resolution of a query, along with the modification counts
+	 * of every collection it went through.
+	 */
+	private static final class Resolution {
+		private final ConfigTree root;
+		private final ConfigTree[] branches;
+		private final IndexedNodeCollection[] collections;
+		private final int[] modCounts;
+		private final ConfigNode node;
+
+		Resolution(ConfigTree root, ConfigTree[] branches, IndexedNodeCollection[] collections, int[] modCounts, ConfigNode node) {
+			this.root = root;
+			this.branches = branches;
+			this.collections = collections;
+			this.modCounts = modCounts;
+			this.node = node;
+		}
+
+		boolean isValidFor(ConfigTree cfg) {
+			if (cfg != this.root) return false;
+
+			for (int i = 0; i < this.collections.length; i++) {
+				if (this.collections[i].getModCount() != this.modCounts[i]) return false;
+
+				// a pending load only runs on lookup, which a valid resolution would skip
+				if (this.branches[i] instanceof ConfigBranchImpl && ((ConfigBranchImpl) this.branches[i]).isLoadPending()) return false;
+			}
+
+			return true;
+		}
+	}
 }
@@ -0,0 +1,58 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.tree;
+
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import io.github.fablabsmc.fablabs.impl.fiber.tree.ConfigSnapshotImpl;
+
+/**
+ * An immutable view of the values held by every leaf of a config tree at a given time.
+ *
+ * <p>A snapshot never reflects a {@linkplain ConfigTransaction transaction} partially:
+ * it is either taken before the transaction is committed, or after all its values have been applied.
+ * Changes made to leaves outside of a transaction are not isolated from snapshots.
+ *
+ * @see ConfigTransaction#commit()
+ */
+public interface ConfigSnapshot {
+	/**
+	 * Returns a snapshot of the current values of a tree.
+	 *
+	 * <p>Snapshots of built-in trees are cached until one of their leaves changes
+	 * or their structure is modified, so this method is cheap to call repeatedly.
+	 *
+	 * @param tree the tree to take a snapshot of
+	 * @return a snapshot of {@code tree}
+	 */
+	static ConfigSnapshot of(ConfigTree tree) {
+		return ConfigSnapshotImpl.of(tree);
+	}
+
+	/**
+	 * Returns the value a leaf held when this snapshot was taken.
+	 *
+	 * @param leaf a leaf of the tree this snapshot was taken of
+	 * @param <T>  the type of values held by the leaf
+	 * @return the leaf's value, or {@code null} if the leaf was not part of the tree
+	 */
+	@Nullable
+	<T> T getValue(ConfigLeaf<T> leaf);
+
+	/**
+	 * Returns the value held by the leaf at the given path when this snapshot was taken.
+	 *
+	 * @param path the dotted path of the leaf, relative to the tree this snapshot was taken of
+	 * @return the leaf's value, or {@code null} if there was no leaf at that path
+	 * @see ConfigTree#lookupPath(String)
+	 */
+	@Nullable
+	Object getValue(String path);
+
+	/**
+	 * Returns every value of this snapshot, by leaf path.
+	 *
+	 * @return an unmodifiable map of dotted leaf paths to values, in tree order
+	 */
+	Map<String, Object> asMap();
+}
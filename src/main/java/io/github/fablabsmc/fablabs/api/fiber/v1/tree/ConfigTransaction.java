@@ -0,0 +1,69 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.tree;
+
+import java.io.InputStream;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.SerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.FiberSerialization;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.ValueSerializer;
+import io.github.fablabsmc.fablabs.impl.fiber.tree.ConfigTransactionImpl;
+
+/**
+ * A set of leaf values applied to a config tree all at once.
+ *
+ * <p>Values are first {@linkplain #stage(ConfigLeaf, Object) staged}, without affecting the tree.
+ * When the transaction is {@linkplain #commit() committed}, every staged value is checked against
+ * its leaf's {@linkplain SerializableType#test(Object) type}. If all of them are acceptable,
+ * they are applied together, and listeners are only notified once every leaf has been updated.
+ *
+ * <p>Commits and {@linkplain ConfigSnapshot snapshots} of the same tree are mutually exclusive,
+ * so a snapshot never observes a partially applied transaction.
+ *
+ * @see FiberSerialization#deserialize(ConfigTransaction, InputStream, ValueSerializer)
+ */
+public interface ConfigTransaction {
+	/**
+	 * Creates a new transaction for leaves of the given tree.
+	 *
+	 * @param tree the tree to which values will be applied
+	 * @return a new, empty transaction
+	 */
+	static ConfigTransaction begin(ConfigTree tree) {
+		return new ConfigTransactionImpl(tree);
+	}
+
+	/**
+	 * Returns the tree this transaction applies values to.
+	 */
+	ConfigTree getTree();
+
+	/**
+	 * Stages a value for a leaf.
+	 *
+	 * <p>The leaf is not affected until this transaction is committed.
+	 * Staging another value for the same leaf replaces the previous one.
+	 *
+	 * @param leaf  a leaf of this transaction's tree
+	 * @param value the value to apply to the leaf
+	 * @param <T>   the type of values held by the leaf
+	 * @return {@code this}, for chaining
+	 * @throws IllegalStateException    if this transaction has already been committed
+	 * @throws IllegalArgumentException if the leaf does not belong to the tree of this transaction
+	 */
+	<T> ConfigTransaction stage(ConfigLeaf<T> leaf, T value);
+
+	/**
+	 * Validates and applies every staged value.
+	 *
+	 * <p>Values failing their type check are replaced by the corrected value, if any.
+	 * If any value cannot be corrected, no leaf is modified and an exception is thrown.
+	 *
+	 * <p>Listeners of the modified leaves are notified after every value has been applied,
+	 * in the order the values were staged.
+	 *
+	 * @return a snapshot of the tree, taken right after the values were applied
+	 * @throws FiberException        if a staged value is not valid for its leaf
+	 * @throws IllegalStateException if this transaction has already been committed
+	 */
+	ConfigSnapshot commit() throws FiberException;
+}
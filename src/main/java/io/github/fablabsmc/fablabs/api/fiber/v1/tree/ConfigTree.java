@@ -54,6 +54,36 @@ public interface ConfigTree {
 	@Nullable
 	ConfigNode lookup(String name);
 
+	/**
+	 * Tries to find a descendant of this node by path.
+	 *
+	 * <p>A path is made of the names of every node leading to the descendant,
+	 * starting with a direct child of this tree, joined by dots. For example,
+	 * {@code lookupPath("a.b.c")} is equivalent to {@code lookupBranch("a").lookupBranch("b").lookup("c")},
+	 * without failing on missing intermediate branches.
+	 *
+	 * <p>Built-in trees answer this method from an index of every descendant, built on first use,
+	 * which makes repeated lookups take constant time. If a node's name contains a dot,
+	 * its path may be shadowed by another node's path.
+	 *
+	 * @param path the dotted path of the descendant to look for
+	 * @return the descendant if found, otherwise {@code null}
+	 */
+	@Nullable
+	default ConfigNode lookupPath(String path) {
+		ConfigTree tree = this;
+		int start = 0;
+		int end;
+
+		while ((end = path.indexOf('.', start)) >= 0) {
+			tree = tree.lookupBranch(path.substring(start, end));
+			if (tree == null) return null;
+			start = end + 1;
+		}
+
+		return tree.lookup(path.substring(start));
+	}
+
 	/**
 	 * Tries to find a child branch in this node by name. If a child is found, and it is
 	 * a branch node, it is returned.
@@ -0,0 +1,67 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.tree;
+
+import java.math.BigDecimal;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigLeafBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigTreeBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.DecimalSerializableType;
+
+/**
+ * A {@code ConfigLeaf} holding a number, which can also be accessed as a Java primitive.
+ *
+ * <p>Reading a primitive through this interface does not allocate, which makes it suitable
+ * for hot code paths. Setting a primitive checks the value against the leaf's constraints
+ * without converting it to a {@link BigDecimal} first, whenever those constraints fit
+ * the primitive's range.
+ *
+ * <p>Every leaf holding a {@link DecimalSerializableType} that is created through
+ * {@link ConfigTreeBuilder} or {@link ConfigLeafBuilder} implements this interface.
+ *
+ * @see ConfigLeaf
+ */
+public interface NumberConfigLeaf extends ConfigLeaf<BigDecimal> {
+	/**
+	 * Returns this leaf's current value as an {@code int}, as if by {@link BigDecimal#intValue()}.
+	 */
+	int getInt();
+
+	/**
+	 * Returns this leaf's current value as a {@code long}, as if by {@link BigDecimal#longValue()}.
+	 */
+	long getLong();
+
+	/**
+	 * Returns this leaf's current value as a {@code double}, as if by {@link BigDecimal#doubleValue()}.
+	 */
+	double getDouble();
+
+	/**
+	 * Sets the value held by this leaf from an {@code int}.
+	 *
+	 * @param value the new value
+	 * @return {@code true} if this property changed as a result of the call, and {@code false} otherwise.
+	 * @see #setValue(Object)
+	 */
+	default boolean setInt(int value) {
+		return this.setLong(value);
+	}
+
+	/**
+	 * Sets the value held by this leaf from a {@code long}.
+	 *
+	 * @param value the new value
+	 * @return {@code true} if this property changed as a result of the call, and {@code false} otherwise.
+	 * @see #setValue(Object)
+	 */
+	boolean setLong(long value);
+
+	/**
+	 * Sets the value held by this leaf from a {@code double}, converted as if by {@link BigDecimal#valueOf(double)}.
+	 *
+	 * @param value the new value
+	 * @return {@code true} if this property changed as a result of the call, and {@code false} otherwise.
+	 * @throws NumberFormatException if {@code value} is infinite or NaN.
+	 * @see #setValue(Object)
+	 */
+	boolean setDouble(double value);
+}
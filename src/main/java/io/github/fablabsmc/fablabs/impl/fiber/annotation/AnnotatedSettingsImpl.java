@@ -6,18 +6,21 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.AnnotatedParameterizedType;
 import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
@@ -30,6 +33,7 @@ import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.Setting;
 import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.SettingNamingConvention;
 import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.Settings;
 import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.collect.MemberCollector;
+import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.collect.PojoAccessor;
 import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.collect.PojoMemberProcessor;
 import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.processor.BranchAnnotationProcessor;
 import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.processor.ConfigAnnotationProcessor;
@@ -57,6 +61,18 @@ public final class AnnotatedSettingsImpl implements AnnotatedSettings {
 	private final Map<Class<? extends Annotation>, ConstraintAnnotationProcessor<?>> constraintProcessors;
 	private final MemberCollector memberCollector;
 	private final SettingNamingConvention convention;
+	/**
+	 * Compiled plans for the POJO classes processed by these settings.
+	 *
+	 * <p>Plans are attached to the POJO class rather than held in a map, so that they do not prevent the class from being unloaded.
+	 * Plans must not reference these settings, which would otherwise stay reachable as long as the class.
+	 */
+	private final ClassValue<AtomicReference<PojoPlan>> plans = new ClassValue<AtomicReference<PojoPlan>>() {
+		@Override
+		protected AtomicReference<PojoPlan> computeValue(Class<?> type) {
+			return new AtomicReference<>();
+		}
+	};
 
 	AnnotatedSettingsImpl(Map<Class<?>, ParameterizedTypeProcessor<?>> registeredGenericTypes, Map<Class<?>, ConfigType<?, ?, ?>> registeredTypes, Map<Class<? extends Annotation>, LeafAnnotationProcessor<?>> valueSettingProcessors, Map<Class<? extends Annotation>, BranchAnnotationProcessor<?>> groupSettingProcessors, Map<Class<? extends Annotation>, ConstraintAnnotationProcessor<?>> constraintProcessors, MemberCollector memberCollector, SettingNamingConvention convention) {
 		this.registeredGenericTypes = Collections.unmodifiableMap(new LinkedHashMap<>(registeredGenericTypes));
@@ -75,17 +91,55 @@ public final class AnnotatedSettingsImpl implements AnnotatedSettings {
 	}
 
 	public <P> void applyToNode(ConfigTree mergeTo, P pojo) throws FiberException {
-		@SuppressWarnings("unchecked") Class<P> pojoClass = (Class<P>) pojo.getClass();
-		SettingNamingConvention convention = findSettingAnnotation(Settings.class, pojoClass)
-				.map(Settings::namingConvention)
-				.map(AnnotatedSettingsImpl::createConvention)
-				.orElse(this.convention);
 		ConfigTreeBuilder builder = ConfigTree.builder();
-		PojoMemberProcessorImpl processor = this.new PojoMemberProcessorImpl(convention, builder);
-		this.memberCollector.collect(pojo, pojoClass, processor);
+		this.getPlan(pojo).apply(this, pojo, builder);
 		NodeOperations.moveChildren(builder, mergeTo);
 	}
 
+	/**
+	 * Returns the plan for the class of a POJO, compiling it on first use.
+	 *
+	 * <p>Compilation failures are not cached, so that every call for an invalid class reports its errors.
+	 */
+	private <P> PojoPlan getPlan(P pojo) throws ProcessingMemberException {
+		@SuppressWarnings("unchecked") Class<P> pojoClass = (Class<P>) pojo.getClass();
+		AtomicReference<PojoPlan> ref = this.plans.get(pojoClass);
+		PojoPlan plan = ref.get();
+
+		if (plan == null) {
+			SettingNamingConvention convention = findSettingAnnotation(Settings.class, pojoClass)
+					.map(Settings::namingConvention)
+					.map(AnnotatedSettingsImpl::createConvention)
+					.orElse(this.convention);
+			PojoMemberProcessorImpl processor = this.new PojoMemberProcessorImpl(convention, pojoClass, findAccessor(pojoClass));
+			this.memberCollector.collect(pojo, pojoClass, processor);
+			// concurrent compilations of the same class give equivalent plans, the first one is kept
+			ref.compareAndSet(null, new PojoPlan(processor.members));
+			plan = ref.get();
+		}
+
+		return plan;
+	}
+
+	/**
+	 * Returns the accessor generated at compile time for a POJO class, or {@code null} if there is none.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private static PojoAccessor<Object> findAccessor(Class<?> pojoClass) {
+		try {
+			Class<?> accessorClass = Class.forName(pojoClass.getName() + PojoAccessor.SUFFIX, true, pojoClass.getClassLoader());
+
+			if (PojoAccessor.class.isAssignableFrom(accessorClass)) {
+				return (PojoAccessor<Object>) accessorClass.newInstance();
+			}
+		} catch (ReflectiveOperationException | LinkageError e) {
+			// not generated, or not usable: members are accessed through reflection
+		}
+
+		return null;
+	}
+
 	private static void checkViolation(Field field) throws FiberException {
 		if (Modifier.isFinal(field.getModifiers())) {
 			throw new FiberException("Field '" + field.getName() + "' can not be final");
@@ -104,14 +158,50 @@ public final class AnnotatedSettingsImpl implements AnnotatedSettings {
 		}
 	}
 
+	private static ProcessingMemberException settingFailure(Field setting, FiberException cause) {
+		return new ProcessingMemberException("Failed to process setting '" + Modifier.toString(setting.getModifiers()) + " " + setting.getType().getSimpleName() + " " + setting.getName() + "' in " + setting.getDeclaringClass().getSimpleName(), cause, setting);
+	}
+
+	private static ProcessingMemberException groupFailure(Field group, Exception cause) {
+		return new ProcessingMemberException("Failed to process group '" + Modifier.toString(group.getModifiers()) + " " + group.getType().getSimpleName() + " " + group.getName() + "' in " + group.getDeclaringClass().getSimpleName(), cause, group);
+	}
+
+	/**
+	 * Compiles the members of a POJO class into {@link MemberPlan}s.
+	 *
+	 * <p>Only the class of the POJO is inspected, the POJO itself is only read when the plan is applied.
+	 */
 	private class PojoMemberProcessorImpl implements PojoMemberProcessor {
 		private final SettingNamingConvention convention;
+		private final Class<?> pojoClass;
+		@Nullable
+		private final PojoAccessor<Object> accessor;
 		private final Map<String, List<Member>> listenerMap = new HashMap<>();
-		private final ConfigTreeBuilder builder;
-
-		PojoMemberProcessorImpl(SettingNamingConvention convention, ConfigTreeBuilder builder) {
+		private final List<MemberPlan> members = new ArrayList<>();
+		/**
+		 * Config types resolved from annotated types, so that fields of identical types share a single instance.
+		 *
+		 * <p>Resolved types end up in the plan of the class being compiled, and are not kept anywhere else,
+		 * so that they do not prevent the classes they reference from being unloaded.
+		 */
+		private final Map<TypeKey, ConfigType<?, ?, ?>> resolvedTypes = new HashMap<>();
+
+		PojoMemberProcessorImpl(SettingNamingConvention convention, Class<?> pojoClass, @Nullable PojoAccessor<Object> accessor) {
 			this.convention = convention;
-			this.builder = builder;
+			this.pojoClass = pojoClass;
+			this.accessor = accessor;
+		}
+
+		/**
+		 * Returns the generated accessor through which a member can be accessed, if any.
+		 *
+		 * <p>The accessor only covers the members declared by the POJO class itself, which it identifies by name.
+		 * Members of superclasses, collected {@linkplain AnnotatedSettings.Builder#collectMembersRecursively() recursively},
+		 * may share the name of one of those, and are always accessed through reflection.
+		 */
+		@Nullable
+		private PojoAccessor<Object> accessorFor(Member member) {
+			return member.getDeclaringClass() == this.pojoClass ? this.accessor : null;
 		}
 
 		@Override
@@ -125,44 +215,25 @@ public final class AnnotatedSettingsImpl implements AnnotatedSettings {
 		}
 
 		@Override
-		public void processGroup(Object pojo, Field group) throws ProcessingMemberException {
-			try {
-				String name = this.findName(group);
-				ConfigTreeBuilder sub = this.builder.fork(name);
-				group.setAccessible(true);
-				Object subPojo = group.get(pojo);
-
-				if (subPojo == null) {
-					throw new ProcessingMemberException("Group " + name + " is null. Did you forget to initialize it?", group);
-				}
-
-				AnnotatedSettingsImpl.this.applyToNode(sub, subPojo);
-				this.applyAnnotationProcessors(pojo, group, sub, AnnotatedSettingsImpl.this.groupSettingProcessors);
-				sub.build();
-			} catch (FiberException | IllegalAccessException e) {
-				throw new ProcessingMemberException("Failed to process group '" + Modifier.toString(group.getModifiers()) + " " + group.getType().getSimpleName() + " " + group.getName() + "' in " + group.getDeclaringClass().getSimpleName(), e, group);
-			}
+		public void processGroup(Object pojo, Field group) {
+			group.setAccessible(true);
+			this.members.add(new GroupPlan(group, MemberAccessors.fieldReader(group, this.accessorFor(group)), this.findName(group), this.findAnnotationProcessors(group, AnnotatedSettingsImpl.this.groupSettingProcessors)));
 		}
 
 		@Override
 		public void processSetting(Object pojo, Field setting) throws ProcessingMemberException {
 			try {
 				checkViolation(setting);
-				this.processSetting(pojo, setting, this.toConfigType(setting.getAnnotatedType()));
+				this.processSetting(setting, this.toConfigType(setting.getAnnotatedType()));
 			} catch (FiberException e) {
-				throw new ProcessingMemberException("Failed to process setting '" + Modifier.toString(setting.getModifiers()) + " " + setting.getType().getSimpleName() + " " + setting.getName() + "' in " + setting.getDeclaringClass().getSimpleName(), e, setting);
+				throw settingFailure(setting, e);
 			}
 		}
 
-		private <R, S> void processSetting(Object pojo, Field setting, ConfigType<R, S, ?> type) throws FiberException {
+		private <R, S> void processSetting(Field setting, ConfigType<R, S, ?> type) throws FiberException {
 			String name = this.findName(setting);
 			List<Member> listeners = this.listenerMap.getOrDefault(name, Collections.emptyList());
-			ConfigLeafBuilder<S, R> leaf = this.builder
-					.beginValue(name, type, this.findDefaultValue(pojo, setting))
-					.withComment(this.findComment(setting))
-					.withListener(this.constructListener(pojo, setting, listeners, type));
-			this.applyAnnotationProcessors(pojo, setting, leaf, AnnotatedSettingsImpl.this.valueSettingProcessors);
-			leaf.build();
+			this.members.add(new SettingPlan<>(setting, MemberAccessors.fieldReader(setting, this.accessorFor(setting)), name, type, this.findComment(setting), this.constructListeners(setting, listeners, type), this.findAnnotationProcessors(setting, AnnotatedSettingsImpl.this.valueSettingProcessors)));
 		}
 
 		@Nonnull
@@ -180,36 +251,47 @@ public final class AnnotatedSettingsImpl implements AnnotatedSettings {
 		}
 
 		@Nonnull
-		private <R> BiConsumer<R, R> constructListener(Object pojo, Field setting, List<Member> listeners, ConfigType<R, ?, ?> type) throws FiberException {
-			BiConsumer<R, R> ret = (t, newValue) -> {
-				try {
-					setting.setAccessible(true);
-					setting.set(pojo, newValue);
-				} catch (IllegalAccessException e) {
-					throw new RuntimeFiberException("Failed to update field value", e);
-				}
-			};
+		private List<MemberAccessors.ListenerFactory> constructListeners(Field setting, List<Member> listeners, ConfigType<?, ?, ?> type) throws FiberException {
+			setting.setAccessible(true);
+			List<MemberAccessors.ListenerFactory> ret = new ArrayList<>(listeners.size() + 1);
+			ret.add(MemberAccessors.fieldSetter(setting, this.accessorFor(setting)));
 
 			for (Member listener : listeners) {
-				BiConsumer<R, R> consumer = this.constructListenerFromMember(pojo, listener, type.getRuntimeType());
-				if (consumer != null) ret = ret.andThen(consumer);
+				ret.add(this.constructListenerFromMember(listener, type.getRuntimeType()));
 			}
 
 			return ret;
 		}
 
-		private <C> void applyAnnotationProcessors(Object pojo, Field field, C sub, Map<Class<? extends Annotation>, ? extends ConfigAnnotationProcessor<?, Field, C>> settingProcessors) {
+		private <C> List<AnnotationProcessorPlan<C>> findAnnotationProcessors(Field field, Map<Class<? extends Annotation>, ? extends ConfigAnnotationProcessor<?, Field, C>> settingProcessors) {
+			List<AnnotationProcessorPlan<C>> ret = new ArrayList<>();
+
 			for (Annotation annotation : field.getAnnotations()) {
 				@SuppressWarnings("unchecked") ConfigAnnotationProcessor<Annotation, Field, C> processor = (ConfigAnnotationProcessor<Annotation, Field, C>) settingProcessors.get(annotation.annotationType());
 
 				if (processor != null) {
-					processor.apply(annotation, field, pojo, sub);
+					ret.add(new AnnotationProcessorPlan<>(annotation, processor));
 				}
 			}
+
+			return ret;
 		}
 
 		@Nonnull
 		private ConfigType<?, ?, ?> toConfigType(AnnotatedType annotatedType) throws FiberTypeProcessingException {
+			TypeKey key = TypeKey.of(annotatedType);
+			ConfigType<?, ?, ?> resolved = this.resolvedTypes.get(key);
+
+			if (resolved == null) {
+				resolved = this.resolveConfigType(annotatedType);
+				this.resolvedTypes.put(key, resolved);
+			}
+
+			return resolved;
+		}
+
+		@Nonnull
+		private ConfigType<?, ?, ?> resolveConfigType(AnnotatedType annotatedType) throws FiberTypeProcessingException {
 			Class<?> clazz = TypeMagic.classForType(annotatedType.getType());
 
 			if (clazz == null) {
@@ -304,33 +386,13 @@ public final class AnnotatedSettingsImpl implements AnnotatedSettings {
 			return (T) type.constrain(processor, annotation, annotated);
 		}
 
-		@SuppressWarnings("unchecked")
-		private <T> T findDefaultValue(Object pojo, Field field) throws FiberException {
-			boolean accessible = field.isAccessible();
-			field.setAccessible(true);
-			T value;
-
-			try {
-				value = (T) field.get(pojo);
-
-				if (value == null) {
-					throw new MalformedFieldException("Default value for field '" + field.getName() + "' is null");
-				}
-			} catch (IllegalAccessException e) {
-				throw new FiberException("Couldn't get value for field '" + field.getName() + "'", e);
-			}
-
-			field.setAccessible(accessible);
-			return value;
-		}
-
-		private <T> BiConsumer<T, T> constructListenerFromMember(Object pojo, Member listener, Class<T> wantedType) throws FiberException {
-			BiConsumer<T, T> result;
+		private MemberAccessors.ListenerFactory constructListenerFromMember(Member listener, Class<?> wantedType) throws FiberException {
+			MemberAccessors.ListenerFactory result;
 
 			if (listener instanceof Field) {
-				result = this.constructListenerFromField(pojo, (Field) listener, wantedType);
+				result = this.constructListenerFromField((Field) listener, wantedType);
 			} else if (listener instanceof Method) {
-				result = this.constructListenerFromMethod(pojo, (Method) listener, wantedType);
+				result = this.constructListenerFromMethod((Method) listener, wantedType);
 			} else {
 				throw new FiberException("Cannot create listener from " + listener + ": must be a field or method");
 			}
@@ -339,30 +401,10 @@ public final class AnnotatedSettingsImpl implements AnnotatedSettings {
 			return result;
 		}
 
-		private <T, A> BiConsumer<T, T> constructListenerFromMethod(Object pojo, Method method, Class<A> wantedType) throws FiberException {
+		private <A> MemberAccessors.ListenerFactory constructListenerFromMethod(Method method, Class<A> wantedType) throws FiberException {
 			int i = this.checkListenerMethod(method, wantedType);
 			method.setAccessible(true);
-			final boolean staticMethod = Modifier.isStatic(method.getModifiers());
-			switch (i) {
-			case 1:
-				return (oldValue, newValue) -> {
-					try {
-						method.invoke(staticMethod ? null : pojo, newValue);
-					} catch (IllegalAccessException | InvocationTargetException e) {
-						throw new RuntimeFiberException("Failed to invoke listener " + method + " with argument " + newValue, e);
-					}
-				};
-			case 2:
-				return (oldValue, newValue) -> {
-					try {
-						method.invoke(staticMethod ? null : pojo, oldValue, newValue);
-					} catch (IllegalAccessException | InvocationTargetException e) {
-						throw new RuntimeFiberException("Failed to invoke listener " + method + " with arguments " + oldValue + ", " + newValue, e);
-					}
-				};
-			default:
-				throw new FiberException("Listener failed due to an invalid number of arguments.");
-			}
+			return MemberAccessors.listenerMethod(method, i, this.accessorFor(method));
 		}
 
 		private <A> int checkListenerMethod(Method method, Class<A> wantedType) throws FiberException {
@@ -379,16 +421,10 @@ public final class AnnotatedSettingsImpl implements AnnotatedSettings {
 			return paramCount;
 		}
 
-		private <T, A> BiConsumer<T, T> constructListenerFromField(Object pojo, Field field, Class<A> wantedType) throws FiberException {
+		private <A> MemberAccessors.ListenerFactory constructListenerFromField(Field field, Class<A> wantedType) throws FiberException {
 			this.checkListenerField(field, wantedType);
 			field.setAccessible(true);
-
-			try {
-				@SuppressWarnings("unchecked") BiConsumer<T, T> consumer = (BiConsumer<T, T>) field.get(pojo);
-				return consumer;
-			} catch (IllegalAccessException e) {
-				throw new FiberException("Could not construct listener", e);
-			}
+			return MemberAccessors.listenerField(field, this.accessorFor(field));
 		}
 
 		private <A> void checkListenerField(Field field, Class<A> wantedType) throws MalformedFieldException {
@@ -407,4 +443,193 @@ public final class AnnotatedSettingsImpl implements AnnotatedSettings {
 			}
 		}
 	}
+
+	/**
+	 * The compiled members of a POJO class, applied to each instance of that class.
+	 */
+	private static final class PojoPlan {
+		private final List<MemberPlan> members;
+
+		PojoPlan(List<MemberPlan> members) {
+			this.members = members;
+		}
+
+		void apply(AnnotatedSettingsImpl settings, Object pojo, ConfigTreeBuilder builder) throws FiberException {
+			for (MemberPlan member : this.members) {
+				member.apply(settings, pojo, builder);
+			}
+		}
+	}
+
+	private interface MemberPlan {
+		void apply(AnnotatedSettingsImpl settings, Object pojo, ConfigTreeBuilder builder) throws FiberException;
+	}
+
+	private static final class SettingPlan<R, S> implements MemberPlan {
+		private final Field field;
+		private final MemberAccessors.FieldReader reader;
+		private final String name;
+		private final ConfigType<R, S, ?> type;
+		@Nullable
+		private final String comment;
+		private final List<MemberAccessors.ListenerFactory> listeners;
+		private final List<AnnotationProcessorPlan<ConfigLeafBuilder<?, ?>>> processors;
+
+		SettingPlan(Field field, MemberAccessors.FieldReader reader, String name, ConfigType<R, S, ?> type, @Nullable String comment, List<MemberAccessors.ListenerFactory> listeners, List<AnnotationProcessorPlan<ConfigLeafBuilder<?, ?>>> processors) {
+			this.field = field;
+			this.reader = reader;
+			this.name = name;
+			this.type = type;
+			this.comment = comment;
+			this.listeners = listeners;
+			this.processors = processors;
+		}
+
+		@Override
+		public void apply(AnnotatedSettingsImpl settings, Object pojo, ConfigTreeBuilder builder) throws ProcessingMemberException {
+			try {
+				ConfigLeafBuilder<S, R> leaf = builder
+						.beginValue(this.name, this.type, this.findDefaultValue(pojo))
+						.withComment(this.comment)
+						.withListener(this.constructListener(pojo));
+
+				for (AnnotationProcessorPlan<ConfigLeafBuilder<?, ?>> processor : this.processors) {
+					processor.apply(this.field, pojo, leaf);
+				}
+
+				leaf.build();
+			} catch (FiberException e) {
+				throw settingFailure(this.field, e);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private R findDefaultValue(Object pojo) throws FiberException {
+			R value;
+
+			try {
+				value = (R) this.reader.read(pojo);
+			} catch (IllegalAccessException e) {
+				throw new FiberException("Couldn't get value for field '" + this.field.getName() + "'", e);
+			}
+
+			if (value == null) {
+				throw new MalformedFieldException("Default value for field '" + this.field.getName() + "' is null");
+			}
+
+			return value;
+		}
+
+		@SuppressWarnings("unchecked")
+		private BiConsumer<R, R> constructListener(Object pojo) throws FiberException {
+			BiConsumer<Object, Object> ret = null;
+
+			for (MemberAccessors.ListenerFactory factory : this.listeners) {
+				BiConsumer<Object, Object> consumer = factory.create(pojo);
+				if (consumer != null) ret = ret == null ? consumer : ret.andThen(consumer);
+			}
+
+			return (BiConsumer<R, R>) (BiConsumer<?, ?>) ret;
+		}
+	}
+
+	private static final class GroupPlan implements MemberPlan {
+		private final Field field;
+		private final MemberAccessors.FieldReader reader;
+		private final String name;
+		private final List<AnnotationProcessorPlan<ConfigTreeBuilder>> processors;
+
+		GroupPlan(Field field, MemberAccessors.FieldReader reader, String name, List<AnnotationProcessorPlan<ConfigTreeBuilder>> processors) {
+			this.field = field;
+			this.reader = reader;
+			this.name = name;
+			this.processors = processors;
+		}
+
+		@Override
+		public void apply(AnnotatedSettingsImpl settings, Object pojo, ConfigTreeBuilder builder) throws ProcessingMemberException {
+			try {
+				ConfigTreeBuilder sub = builder.fork(this.name);
+				Object subPojo = this.reader.read(pojo);
+
+				if (subPojo == null) {
+					throw new ProcessingMemberException("Group " + this.name + " is null. Did you forget to initialize it?", this.field);
+				}
+
+				settings.applyToNode(sub, subPojo);
+
+				for (AnnotationProcessorPlan<ConfigTreeBuilder> processor : this.processors) {
+					processor.apply(this.field, pojo, sub);
+				}
+
+				sub.build();
+			} catch (FiberException | IllegalAccessException e) {
+				throw groupFailure(this.field, e);
+			}
+		}
+	}
+
+	/**
+	 * The parts of an annotated type which determine the config type resolved from it:
+	 * the type itself, and the annotations on it and on its component or argument types.
+	 */
+	private static final class TypeKey {
+		private final Type type;
+		private final List<Annotation> annotations;
+		private final List<TypeKey> arguments;
+
+		private TypeKey(Type type, List<Annotation> annotations, List<TypeKey> arguments) {
+			this.type = type;
+			this.annotations = annotations;
+			this.arguments = arguments;
+		}
+
+		static TypeKey of(AnnotatedType annotatedType) {
+			List<TypeKey> arguments;
+
+			if (annotatedType instanceof AnnotatedArrayType) {
+				arguments = Collections.singletonList(of(((AnnotatedArrayType) annotatedType).getAnnotatedGenericComponentType()));
+			} else if (annotatedType instanceof AnnotatedParameterizedType) {
+				AnnotatedType[] annotatedTypeArgs = ((AnnotatedParameterizedType) annotatedType).getAnnotatedActualTypeArguments();
+				arguments = new ArrayList<>(annotatedTypeArgs.length);
+
+				for (AnnotatedType annotatedTypeArg : annotatedTypeArgs) {
+					arguments.add(of(annotatedTypeArg));
+				}
+			} else {
+				arguments = Collections.emptyList();
+			}
+
+			return new TypeKey(annotatedType.getType(), Arrays.asList(annotatedType.getAnnotations()), arguments);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || this.getClass() != o.getClass()) return false;
+			TypeKey that = (TypeKey) o;
+			return this.type.equals(that.type)
+					&& this.annotations.equals(that.annotations)
+					&& this.arguments.equals(that.arguments);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.type, this.annotations, this.arguments);
+		}
+	}
+
+	private static final class AnnotationProcessorPlan<C> {
+		private final Annotation annotation;
+		private final ConfigAnnotationProcessor<Annotation, Field, C> processor;
+
+		AnnotationProcessorPlan(Annotation annotation, ConfigAnnotationProcessor<Annotation, Field, C> processor) {
+			this.annotation = annotation;
+			this.processor = processor;
+		}
+
+		void apply(Field field, Object pojo, C setting) {
+			this.processor.apply(this.annotation, field, pojo, setting);
+		}
+	}
 }
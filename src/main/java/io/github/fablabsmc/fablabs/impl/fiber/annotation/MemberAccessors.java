@@ -0,0 +1,294 @@
+package io.github.fablabsmc.fablabs.impl.fiber.annotation;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.collect.PojoAccessor;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.RuntimeFiberException;
+
+/**
+ * Creates the listeners writing POJO fields and invoking POJO listener methods.
+ *
+ * <p>Members are resolved once into a {@link ListenerFactory}, which then only binds the resolved
+ * accessor to each POJO instance.
+ *
+ * <p>Members reachable through a {@link PojoAccessor} generated at compile time are accessed through it.
+ * Otherwise, public methods that can be linked from this class are called through a {@link LambdaMetafactory} generated class,
+ * which the JIT compiler can inline like a direct call. Other methods, and fields, are accessed through method handles.
+ * If a handle cannot be created, this falls back to reflection.
+ */
+final class MemberAccessors {
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType ONE_ARG = MethodType.methodType(void.class, Object.class);
+	private static final MethodType TWO_ARGS = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType THREE_ARGS = MethodType.methodType(void.class, Object.class, Object.class, Object.class);
+
+	private MemberAccessors() {
+	}
+
+	/**
+	 * Creates listeners for POJO instances.
+	 */
+	@FunctionalInterface
+	interface ListenerFactory {
+		/**
+		 * Creates a listener for a POJO.
+		 *
+		 * @param pojo the POJO, ignored for static members
+		 * @return the listener, or {@code null} if there is none
+		 * @throws FiberException if the listener cannot be created
+		 */
+		@Nullable
+		BiConsumer<Object, Object> create(Object pojo) throws FiberException;
+	}
+
+	/**
+	 * Reads the value of a field.
+	 */
+	@FunctionalInterface
+	interface FieldReader {
+		Object read(Object pojo) throws IllegalAccessException;
+	}
+
+	/**
+	 * Returns a reader for a field.
+	 *
+	 * @param field    the field, which must have been made accessible
+	 * @param accessor the generated accessor for the class declaring the field, if any
+	 */
+	static FieldReader fieldReader(Field field, @Nullable PojoAccessor<Object> accessor) {
+		int index = accessor != null ? accessor.fieldIndex(field.getName()) : -1;
+
+		if (index >= 0) {
+			return pojo -> accessor.get(pojo, index);
+		}
+
+		return field::get;
+	}
+
+	/**
+	 * Returns a factory for listeners setting a field to the new value.
+	 *
+	 * @param field    the field, which must have been made accessible
+	 * @param accessor the generated accessor for the class declaring the field, if any
+	 */
+	static ListenerFactory fieldSetter(Field field, @Nullable PojoAccessor<Object> accessor) {
+		// accessors cannot write final fields
+		int index = accessor != null && !Modifier.isFinal(field.getModifiers()) ? accessor.fieldIndex(field.getName()) : -1;
+
+		if (index >= 0) {
+			return pojo -> (oldValue, newValue) -> accessor.set(pojo, index, newValue);
+		}
+
+		boolean staticField = Modifier.isStatic(field.getModifiers());
+		MethodHandle setter;
+
+		try {
+			setter = LOOKUP.unreflectSetter(field).asType(staticField ? ONE_ARG : TWO_ARGS);
+		} catch (IllegalAccessException e) {
+			return pojo -> (oldValue, newValue) -> {
+				try {
+					field.set(pojo, newValue);
+				} catch (IllegalAccessException e1) {
+					throw new RuntimeFiberException("Failed to update field value", e1);
+				}
+			};
+		}
+
+		return pojo -> {
+			MethodHandle bound = staticField ? setter : setter.bindTo(pojo);
+			return (oldValue, newValue) -> {
+				try {
+					bound.invokeExact(newValue);
+				} catch (Throwable t) {
+					throw new RuntimeFiberException("Failed to update field value", t);
+				}
+			};
+		};
+	}
+
+	/**
+	 * Returns a factory for listeners held by a {@link BiConsumer} field.
+	 *
+	 * @param field    the field, which must have been made accessible
+	 * @param accessor the generated accessor for the class declaring the field, if any
+	 */
+	@SuppressWarnings("unchecked")
+	static ListenerFactory listenerField(Field field, @Nullable PojoAccessor<Object> accessor) {
+		FieldReader reader = fieldReader(field, accessor);
+		return pojo -> {
+			try {
+				return (BiConsumer<Object, Object>) reader.read(pojo);
+			} catch (IllegalAccessException e) {
+				throw new FiberException("Could not construct listener", e);
+			}
+		};
+	}
+
+	/**
+	 * Returns a factory for listeners invoking a method with the new value, or with both the old and new values.
+	 *
+	 * @param method     the method, which must have been made accessible
+	 * @param paramCount the number of parameters of the method, either 1 or 2
+	 * @param accessor   the generated accessor for the class declaring the method, if any
+	 */
+	static ListenerFactory listenerMethod(Method method, int paramCount, @Nullable PojoAccessor<Object> accessor) {
+		int index = accessor != null ? accessor.methodIndex(method.getName(), paramCount) : -1;
+
+		if (index >= 0) {
+			return pojo -> (oldValue, newValue) -> {
+				try {
+					accessor.invoke(pojo, index, oldValue, newValue);
+				} catch (Throwable t) {
+					throw new RuntimeFiberException("Failed to invoke listener " + method + " with arguments " + oldValue + ", " + newValue, t);
+				}
+			};
+		}
+
+		boolean staticMethod = Modifier.isStatic(method.getModifiers());
+		MethodHandle handle;
+
+		try {
+			handle = LOOKUP.unreflect(method);
+		} catch (IllegalAccessException e) {
+			return pojo -> reflectiveListener(staticMethod ? null : pojo, method, paramCount);
+		}
+
+		if (isLinkable(method)) {
+			try {
+				return generatedListener(method, handle, staticMethod, paramCount);
+			} catch (LambdaConversionException | RuntimeException | LinkageError e) {
+				// the method handle is used instead
+			}
+		}
+
+		if (paramCount == 1) {
+			MethodHandle invoker = handle.asType(staticMethod ? ONE_ARG : TWO_ARGS);
+			return pojo -> {
+				MethodHandle bound = staticMethod ? invoker : invoker.bindTo(pojo);
+				return (oldValue, newValue) -> {
+					try {
+						bound.invokeExact(newValue);
+					} catch (Throwable t) {
+						throw new RuntimeFiberException("Failed to invoke listener " + method + " with argument " + newValue, t);
+					}
+				};
+			};
+		}
+
+		MethodHandle invoker = handle.asType(staticMethod ? TWO_ARGS : THREE_ARGS);
+		return pojo -> {
+			MethodHandle bound = staticMethod ? invoker : invoker.bindTo(pojo);
+			return (oldValue, newValue) -> {
+				try {
+					bound.invokeExact(oldValue, newValue);
+				} catch (Throwable t) {
+					throw new RuntimeFiberException("Failed to invoke listener " + method + " with arguments " + oldValue + ", " + newValue, t);
+				}
+			};
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ListenerFactory generatedListener(Method method, MethodHandle handle, boolean staticMethod, int paramCount) throws LambdaConversionException {
+		Class<?> functionType = paramCount == 1 ? Consumer.class : BiConsumer.class;
+		MethodType factoryType = staticMethod ? MethodType.methodType(functionType) : MethodType.methodType(functionType, method.getDeclaringClass());
+		MethodType instantiatedType = MethodType.methodType(void.class, method.getParameterTypes()).wrap().changeReturnType(void.class);
+		CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", factoryType, paramCount == 1 ? ONE_ARG : TWO_ARGS, handle, instantiatedType);
+		MethodHandle factory = site.getTarget();
+
+		return pojo -> {
+			Object function;
+
+			try {
+				function = staticMethod ? factory.invoke() : factory.invoke(pojo);
+			} catch (Throwable t) {
+				throw new FiberException("Failed to create listener " + method, t);
+			}
+
+			if (paramCount == 1) {
+				Consumer<Object> consumer = (Consumer<Object>) function;
+				return (oldValue, newValue) -> {
+					try {
+						consumer.accept(newValue);
+					} catch (Throwable t) {
+						throw new RuntimeFiberException("Failed to invoke listener " + method + " with argument " + newValue, t);
+					}
+				};
+			}
+
+			BiConsumer<Object, Object> consumer = (BiConsumer<Object, Object>) function;
+			return (oldValue, newValue) -> {
+				try {
+					consumer.accept(oldValue, newValue);
+				} catch (Throwable t) {
+					throw new RuntimeFiberException("Failed to invoke listener " + method + " with arguments " + oldValue + ", " + newValue, t);
+				}
+			};
+		};
+	}
+
+	private static BiConsumer<Object, Object> reflectiveListener(@Nullable Object target, Method method, int paramCount) {
+		return (oldValue, newValue) -> {
+			try {
+				if (paramCount == 1) {
+					method.invoke(target, newValue);
+				} else {
+					method.invoke(target, oldValue, newValue);
+				}
+			} catch (IllegalAccessException | InvocationTargetException e) {
+				throw new RuntimeFiberException("Failed to invoke listener " + method + " with arguments " + oldValue + ", " + newValue, e);
+			}
+		};
+	}
+
+	/**
+	 * Returns {@code true} if a class generated alongside this one can call the method directly:
+	 * the method and its declaring classes must be public, and every type in its signature must be
+	 * visible from this class' loader.
+	 */
+	private static boolean isLinkable(Method method) {
+		if (!Modifier.isPublic(method.getModifiers())) return false;
+
+		for (Class<?> c = method.getDeclaringClass(); c != null; c = c.getEnclosingClass()) {
+			if (!Modifier.isPublic(c.getModifiers())) return false;
+		}
+
+		if (!isVisible(method.getDeclaringClass())) return false;
+
+		for (Class<?> parameter : method.getParameterTypes()) {
+			if (!isVisible(parameter)) return false;
+		}
+
+		return true;
+	}
+
+	private static boolean isVisible(Class<?> type) {
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+
+		if (type.isPrimitive()) return true;
+
+		if (!Modifier.isPublic(type.getModifiers())) return false;
+
+		try {
+			return Class.forName(type.getName(), false, MemberAccessors.class.getClassLoader()) == type;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+}
@@ -2,29 +2,100 @@ package io.github.fablabsmc.fablabs.impl.fiber.constraint;
 
 import java.math.BigDecimal;
 
+import javax.annotation.Nullable;
+
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.DecimalSerializableType;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.TypeCheckResult;
 
 /**
  * Checks validity of serialized numbers based on a {@code DecimalConfigType}'s range constraint.
+ *
+ * <p>Checkers obtained through {@link #forBounds(BigDecimal, BigDecimal, BigDecimal)} are specialized
+ * for a single set of bounds. When those bounds are integers that fit in a {@code long}, integral values
+ * are checked with primitive arithmetic, and BigDecimal arithmetic is only used for other values.
  */
 public final class DecimalConstraintChecker extends ConstraintChecker<BigDecimal, DecimalSerializableType> {
-	private static final DecimalConstraintChecker INSTANCE = new DecimalConstraintChecker();
+	private static final DecimalConstraintChecker INSTANCE = new DecimalConstraintChecker(false, Long.MIN_VALUE, Long.MAX_VALUE, 0, false);
 
+	/**
+	 * Returns a checker which works with any bounds.
+	 */
 	public static DecimalConstraintChecker instance() {
 		return INSTANCE;
 	}
 
-	private DecimalConstraintChecker() {
+	/**
+	 * Returns a checker for the given bounds.
+	 *
+	 * <p>The returned checker must only be used with a {@code DecimalSerializableType} having those bounds.
+	 */
+	public static DecimalConstraintChecker forBounds(@Nullable BigDecimal min, @Nullable BigDecimal max, @Nullable BigDecimal increment) {
+		if (min == null && max == null && increment == null) return INSTANCE;
+
+		// remainders by 1 are always smaller than 1 in magnitude, so they never fail the check
+		boolean unitIncrement = increment != null && increment.compareTo(BigDecimal.ONE) == 0;
+
+		if (fitsLong(min) && fitsLong(max) && fitsLong(increment)) {
+			return new DecimalConstraintChecker(
+					true,
+					min == null ? Long.MIN_VALUE : min.longValue(),
+					max == null ? Long.MAX_VALUE : max.longValue(),
+					increment == null || unitIncrement ? 0 : increment.longValue(),
+					unitIncrement
+			);
+		}
+
+		return new DecimalConstraintChecker(false, Long.MIN_VALUE, Long.MAX_VALUE, 0, unitIncrement);
+	}
+
+	private static boolean fitsLong(@Nullable BigDecimal bound) {
+		if (bound == null) return true;
+
+		try {
+			bound.longValueExact();
+			return true;
+		} catch (ArithmeticException e) {
+			return false;
+		}
+	}
+
+	// whether the bounds below are exact
+	private final boolean integral;
+	private final long min;
+	private final long max;
+	// 0 if there is no increment to check
+	private final long step;
+	private final boolean unitIncrement;
+
+	private DecimalConstraintChecker(boolean integral, long min, long max, long step, boolean unitIncrement) {
+		this.integral = integral;
+		this.min = min;
+		this.max = max;
+		this.step = step;
+		this.unitIncrement = unitIncrement;
 	}
 
 	@Override
 	public TypeCheckResult<BigDecimal> test(DecimalSerializableType cfg, BigDecimal value) {
+		// a scale of 0 and at most 18 digits guarantees the value fits in a long
+		// misaligned values fall through, as finding the nearest tick needs BigDecimal arithmetic
+		if (this.integral && value.scale() == 0 && value.precision() < 19) {
+			long v = value.longValue();
+
+			if (v < this.min) {
+				return TypeCheckResult.failed(cfg.getMinimum());
+			} else if (v > this.max) {
+				return TypeCheckResult.failed(cfg.getMaximum());
+			} else if (this.step == 0 || (int) (v % this.step) == 0) {
+				return TypeCheckResult.successful(value);
+			}
+		}
+
 		if (cfg.getMinimum() != null && cfg.getMinimum().compareTo(value) > 0) {
 			return TypeCheckResult.failed(cfg.getMinimum());
 		} else if (cfg.getMaximum() != null && cfg.getMaximum().compareTo(value) < 0) {
 			return TypeCheckResult.failed(cfg.getMaximum());
-		} else if (cfg.getIncrement() != null && value.remainder(cfg.getIncrement()).intValue() != 0) {
+		} else if (cfg.getIncrement() != null && !this.unitIncrement && value.remainder(cfg.getIncrement()).intValue() != 0) {
 			if (cfg.getMinimum() != null) {
 				return TypeCheckResult.failed(fit(value, cfg.getMinimum(), cfg.getIncrement()));
 			} else {
@@ -0,0 +1,43 @@
+package io.github.fablabsmc.fablabs.impl.fiber.serialization;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An input stream reading the remaining content of a buffer, without copying it.
+ */
+public final class ByteBufferInputStream extends InputStream {
+	private final ByteBuffer buffer;
+
+	public ByteBufferInputStream(ByteBuffer buffer) {
+		this.buffer = buffer.duplicate();
+	}
+
+	@Override
+	public int read() {
+		return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int length) {
+		if (length == 0) return 0;
+
+		if (!this.buffer.hasRemaining()) return -1;
+
+		int read = Math.min(length, this.buffer.remaining());
+		this.buffer.get(bytes, offset, read);
+		return read;
+	}
+
+	@Override
+	public long skip(long n) {
+		int skipped = (int) Math.max(0, Math.min(n, this.buffer.remaining()));
+		this.buffer.position(this.buffer.position() + skipped);
+		return skipped;
+	}
+
+	@Override
+	public int available() {
+		return this.buffer.remaining();
+	}
+}
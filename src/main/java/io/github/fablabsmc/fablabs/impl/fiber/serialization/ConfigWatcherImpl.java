@@ -0,0 +1,267 @@
+package io.github.fablabsmc.fablabs.impl.fiber.serialization;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.ValueDeserializationException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.SerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.ConfigWatcher;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.ValueSerializer;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTransaction;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+
+public final class ConfigWatcherImpl<A, T> implements ConfigWatcher {
+	private final ConfigTree tree;
+	private final Path file;
+	private final Path branchDirectory;
+	private final ValueSerializer<A, T> ctx;
+	private final long debounceNanos;
+	private final Consumer<? super Exception> errorHandler;
+	private final WatchService watchService;
+	private final Thread thread;
+	// the metrics are only written by the watcher thread
+	private volatile long reloadCount;
+	private volatile long failureCount;
+	private volatile int lastUpdatedLeaves;
+	private volatile long lastLatencyNanos;
+	private volatile long maxLatencyNanos;
+	private volatile long totalLatencyNanos;
+
+	private ConfigWatcherImpl(ConfigTree tree, Path file, ValueSerializer<A, T> ctx, long debounceNanos, Consumer<? super Exception> errorHandler) throws IOException {
+		this.tree = tree;
+		this.file = file.toAbsolutePath().normalize();
+		this.branchDirectory = SplitFiles.getBranchDirectory(this.file);
+		this.ctx = ctx;
+		this.debounceNanos = debounceNanos;
+		this.errorHandler = errorHandler;
+		this.watchService = this.file.getFileSystem().newWatchService();
+
+		try {
+			this.register(this.file.getParent());
+
+			if (Files.isDirectory(this.branchDirectory)) {
+				this.registerAll(this.branchDirectory);
+			}
+		} catch (IOException e) {
+			this.watchService.close();
+			throw e;
+		}
+
+		this.thread = new Thread(this::run, "Fiber config watcher");
+		this.thread.setDaemon(true);
+	}
+
+	public static <A, T> ConfigWatcher start(ConfigTree tree, Path file, ValueSerializer<A, T> ctx, long debounceNanos, Consumer<? super Exception> errorHandler) throws IOException {
+		ConfigWatcherImpl<A, T> watcher = new ConfigWatcherImpl<>(tree, file, ctx, debounceNanos, errorHandler);
+		watcher.thread.start();
+		return watcher;
+	}
+
+	private void register(Path directory) throws IOException {
+		directory.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+	}
+
+	private void registerAll(Path directory) throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Iterator<Path> it = paths.filter(Files::isDirectory).iterator(); it.hasNext(); ) {
+				this.register(it.next());
+			}
+		}
+	}
+
+	private void run() {
+		Set<Path> changed = new HashSet<>();
+		boolean overflow = false;
+		long firstEvent = 0;
+
+		try {
+			while (true) {
+				WatchKey key;
+
+				if (changed.isEmpty() && !overflow) {
+					key = this.watchService.take();
+					firstEvent = System.nanoTime();
+				} else {
+					// every event restarts the delay, so that bursts are handled at once
+					key = this.watchService.poll(this.debounceNanos, TimeUnit.NANOSECONDS);
+				}
+
+				if (key == null) {
+					this.reload(changed, overflow, firstEvent);
+					changed.clear();
+					overflow = false;
+					continue;
+				}
+
+				Path directory = (Path) key.watchable();
+
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+						overflow = true;
+						continue;
+					}
+
+					Path path = directory.resolve((Path) event.context());
+
+					// other files of the directory holding the main file
+					if (!path.equals(this.file) && !path.startsWith(this.branchDirectory)) continue;
+
+					if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path) && path.startsWith(this.branchDirectory)) {
+						try {
+							this.registerAll(path);
+						} catch (IOException e) {
+							this.errorHandler.accept(e);
+						}
+
+						// files may have been written before the directory was registered
+						overflow = true;
+					}
+
+					changed.add(path);
+				}
+
+				key.reset();
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// closed
+		}
+	}
+
+	private void reload(Set<Path> changed, boolean all, long firstEvent) {
+		try {
+			Map<Path, ConfigTree> files = new LinkedHashMap<>();
+			files.put(this.file, this.tree);
+
+			for (ConfigBranch branch : SplitFiles.getLoadedBranches(this.tree)) {
+				files.put(SplitFiles.getBranchFile(this.file, this.tree, branch), branch);
+			}
+
+			ConfigTransaction transaction = ConfigTransaction.begin(this.tree);
+			int updated = 0;
+
+			for (Map.Entry<Path, ConfigTree> entry : files.entrySet()) {
+				if (all || changed.contains(entry.getKey())) {
+					updated += this.stageFile(entry.getValue(), entry.getKey(), transaction);
+				}
+			}
+
+			if (updated > 0) {
+				transaction.commit();
+			}
+
+			long latency = System.nanoTime() - firstEvent;
+			this.lastUpdatedLeaves = updated;
+			this.lastLatencyNanos = latency;
+			this.maxLatencyNanos = Math.max(this.maxLatencyNanos, latency);
+			this.totalLatencyNanos += latency;
+			this.reloadCount++;
+		} catch (IOException | FiberException | RuntimeException e) {
+			this.failureCount++;
+			this.errorHandler.accept(e);
+		}
+	}
+
+	private int stageFile(ConfigTree tree, Path file, ConfigTransaction transaction) throws IOException, ValueDeserializationException {
+		T target;
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			target = this.ctx.readTarget(FileBuffers.read(channel));
+		} catch (NoSuchFileException e) {
+			// deleted files leave the tree unchanged
+			return 0;
+		}
+
+		return this.stageChanges(tree, this.ctx.elements(target), transaction);
+	}
+
+	private int stageChanges(ConfigTree tree, Iterator<Map.Entry<String, A>> entries, ConfigTransaction transaction) throws ValueDeserializationException {
+		int staged = 0;
+
+		while (entries.hasNext()) {
+			Map.Entry<String, A> entry = entries.next();
+			ConfigNode node = tree.lookup(entry.getKey());
+
+			if (node instanceof ConfigBranch) {
+				// the values of separately serialized branches are read from their own file
+				if (!((ConfigBranch) node).isSerializedSeparately()) {
+					staged += this.stageChanges((ConfigBranch) node, this.ctx.subElements(entry.getValue()), transaction);
+				}
+			} else if (node instanceof ConfigLeaf<?>) {
+				staged += this.stageChange((ConfigLeaf<?>) node, entry.getValue(), transaction);
+			}
+		}
+
+		return staged;
+	}
+
+	private <V> int stageChange(ConfigLeaf<V> leaf, A elem, ConfigTransaction transaction) throws ValueDeserializationException {
+		SerializableType<V> type = leaf.getConfigType();
+		V value = type.deserializeValue(elem, this.ctx);
+
+		if (type.isEquivalent(leaf.getValue(), value)) return 0;
+
+		transaction.stage(leaf, value);
+		return 1;
+	}
+
+	@Override
+	public long getReloadCount() {
+		return this.reloadCount;
+	}
+
+	@Override
+	public long getFailureCount() {
+		return this.failureCount;
+	}
+
+	@Override
+	public int getLastUpdatedLeaves() {
+		return this.lastUpdatedLeaves;
+	}
+
+	@Override
+	public long getLastLatency(TimeUnit unit) {
+		return unit.convert(this.lastLatencyNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public long getMaxLatency(TimeUnit unit) {
+		return unit.convert(this.maxLatencyNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public long getAverageLatency(TimeUnit unit) {
+		long count = this.reloadCount;
+		return count == 0 ? 0 : unit.convert(this.totalLatencyNanos / count, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void close() {
+		try {
+			this.watchService.close();
+		} catch (IOException e) {
+			this.errorHandler.accept(e);
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package io.github.fablabsmc.fablabs.impl.fiber.serialization;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads config files into heap buffers.
+ *
+ * <p>Config files are small, and a mapping would keep them open until it is garbage collected,
+ * which prevents replacing them on some platforms and fails with an {@link Error} if another
+ * process truncates them while they are read.
+ */
+public final class FileBuffers {
+	private FileBuffers() {
+	}
+
+	/**
+	 * Reads the content of a channel from its current position to its end.
+	 *
+	 * @param channel The channel to read, which is not closed by this method.
+	 * @return A buffer holding the content read, ready to be read in turn.
+	 * @throws IOException If an IO error occurs while reading, or if the file is too large to fit in a buffer.
+	 */
+	public static ByteBuffer read(FileChannel channel) throws IOException {
+		long size = channel.size() - channel.position();
+
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IOException("File is too large to be read: " + size + " bytes");
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(size, 0));
+
+		// the file may shrink while it is read, in which case only what is left is returned
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) break;
+		}
+
+		buffer.flip();
+		return buffer;
+	}
+}
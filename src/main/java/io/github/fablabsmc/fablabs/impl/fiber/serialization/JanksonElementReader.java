@@ -0,0 +1,426 @@
+package io.github.fablabsmc.fablabs.impl.fiber.serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import javax.annotation.Nullable;
+
+import blue.endless.jankson.JsonArray;
+import blue.endless.jankson.JsonElement;
+import blue.endless.jankson.JsonNull;
+import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.JsonPrimitive;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.ValueDeserializationException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.ElementReader;
+
+/**
+ * An {@link ElementReader} that tokenizes JSON5 as accepted by Jankson straight from a character stream.
+ *
+ * <p>Comments, unquoted keys, single-quoted strings and trailing or missing commas are tolerated.
+ * Comments are discarded, since they carry no information relevant to deserialization.
+ */
+public class JanksonElementReader implements ElementReader<JsonElement> {
+	private static final int EOF = -1;
+
+	private final Reader in;
+	private final char[] buf = new char[8192];
+	private int pos;
+	private int limit;
+	private int line = 1;
+	private int depth;
+
+	public JanksonElementReader(InputStream in) {
+		this.in = new InputStreamReader(in, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void beginAggregate() throws ValueDeserializationException, IOException {
+		if (this.peekSignificant() != '{') {
+			throw this.syntaxError(JsonObject.class, "Expected '{'");
+		}
+
+		this.pos++;
+		this.depth++;
+	}
+
+	@Nullable
+	@Override
+	public String nextName() throws ValueDeserializationException, IOException {
+		if (this.depth == 0) {
+			throw new IllegalStateException("Not inside an aggregate");
+		}
+
+		int c = this.skipSeparators();
+
+		if (c == '}') {
+			this.pos++;
+			this.depth--;
+			return null;
+		}
+
+		String name = this.readKey(c);
+
+		if (this.peekSignificant() != ':') {
+			throw this.syntaxError(JsonObject.class, "Expected ':' after key " + name);
+		}
+
+		this.pos++;
+		return name;
+	}
+
+	@Override
+	public JsonElement readElement() throws ValueDeserializationException, IOException {
+		int c = this.peekSignificant();
+
+		switch (c) {
+		case '{':
+			return this.readObject();
+		case '[':
+			return this.readArray();
+		case '"':
+		case '\'':
+			this.pos++;
+			return new JsonPrimitive(this.readString((char) c));
+		case EOF:
+			throw this.syntaxError(JsonElement.class, "Unexpected end of input");
+		default:
+			return this.readLiteral();
+		}
+	}
+
+	@Override
+	public void skipElement() throws ValueDeserializationException, IOException {
+		int c = this.peekSignificant();
+
+		if (c == '"' || c == '\'') {
+			this.pos++;
+			this.skipString((char) c);
+			return;
+		} else if (c != '{' && c != '[') {
+			this.readBareToken();
+			return;
+		}
+
+		int nesting = 0;
+
+		do {
+			c = this.peekSignificant();
+
+			if (c == EOF) {
+				throw this.syntaxError(JsonElement.class, "Unexpected end of input");
+			}
+
+			this.pos++;
+
+			if (c == '{' || c == '[') {
+				nesting++;
+			} else if (c == '}' || c == ']') {
+				nesting--;
+			} else if (c == '"' || c == '\'') {
+				this.skipString((char) c);
+			}
+		} while (nesting > 0);
+	}
+
+	private JsonObject readObject() throws ValueDeserializationException, IOException {
+		JsonObject obj = new JsonObject();
+		this.pos++;
+
+		for (int c = this.skipSeparators(); c != '}'; c = this.skipSeparators()) {
+			String name = this.readKey(c);
+
+			if (this.peekSignificant() != ':') {
+				throw this.syntaxError(JsonObject.class, "Expected ':' after key " + name);
+			}
+
+			this.pos++;
+			obj.put(name, this.readElement());
+		}
+
+		this.pos++;
+		return obj;
+	}
+
+	private JsonArray readArray() throws ValueDeserializationException, IOException {
+		JsonArray arr = new JsonArray();
+		this.pos++;
+
+		for (int c = this.skipSeparators(); c != ']'; c = this.skipSeparators()) {
+			if (c == '}') {
+				throw this.syntaxError(JsonArray.class, "Unexpected '}' in array");
+			}
+
+			arr.add(this.readElement());
+		}
+
+		this.pos++;
+		return arr;
+	}
+
+	private String readKey(int c) throws ValueDeserializationException, IOException {
+		if (c == '"' || c == '\'') {
+			this.pos++;
+			return this.readString((char) c);
+		} else if (c == EOF) {
+			throw this.syntaxError(JsonObject.class, "Unexpected end of input");
+		}
+
+		String key = this.readBareToken();
+
+		if (key.isEmpty()) {
+			throw this.syntaxError(JsonObject.class, "Unexpected character '" + (char) c + "'");
+		}
+
+		return key;
+	}
+
+	private JsonElement readLiteral() throws ValueDeserializationException, IOException {
+		String token = this.readBareToken();
+
+		switch (token) {
+		case "true":
+			return JsonPrimitive.TRUE;
+		case "false":
+			return JsonPrimitive.FALSE;
+		case "null":
+			return JsonNull.INSTANCE;
+		case "Infinity":
+		case "+Infinity":
+			return new JsonPrimitive(Double.POSITIVE_INFINITY);
+		case "-Infinity":
+			return new JsonPrimitive(Double.NEGATIVE_INFINITY);
+		case "NaN":
+			return new JsonPrimitive(Double.NaN);
+		default:
+			return new JsonPrimitive(this.parseNumber(token));
+		}
+	}
+
+	private Number parseNumber(String token) throws ValueDeserializationException {
+		String digits = token.startsWith("+") ? token.substring(1) : token;
+
+		try {
+			if (digits.startsWith("0x") || digits.startsWith("0X")) {
+				return Long.parseLong(digits.substring(2), 16);
+			} else if (digits.startsWith("-0x") || digits.startsWith("-0X")) {
+				return -Long.parseLong(digits.substring(3), 16);
+			}
+
+			BigDecimal value = new BigDecimal(digits);
+
+			// integral values are kept as longs, like Jankson does, when they fit
+			if (value.scale() <= 0 && value.precision() - value.scale() < 19) {
+				return value.longValueExact();
+			}
+
+			return value;
+		} catch (NumberFormatException | ArithmeticException e) {
+			throw new ValueDeserializationException(token, JsonPrimitive.class, "Invalid literal at line " + this.line, e);
+		}
+	}
+
+	private String readString(char quote) throws ValueDeserializationException, IOException {
+		StringBuilder sb = new StringBuilder();
+
+		while (true) {
+			int c = this.read();
+
+			if (c == quote) {
+				return sb.toString();
+			} else if (c == EOF) {
+				throw this.syntaxError(String.class, "Unterminated string");
+			} else if (c == '\\') {
+				sb.append(this.readEscape());
+			} else {
+				if (c == '\n') this.line++;
+				sb.append((char) c);
+			}
+		}
+	}
+
+	private void skipString(char quote) throws ValueDeserializationException, IOException {
+		while (true) {
+			int c = this.read();
+
+			if (c == quote) {
+				return;
+			} else if (c == EOF) {
+				throw this.syntaxError(String.class, "Unterminated string");
+			} else if (c == '\\') {
+				this.readEscape();
+			} else if (c == '\n') {
+				this.line++;
+			}
+		}
+	}
+
+	private char readEscape() throws ValueDeserializationException, IOException {
+		int c = this.read();
+
+		switch (c) {
+		case 'n':
+			return '\n';
+		case 't':
+			return '\t';
+		case 'r':
+			return '\r';
+		case 'b':
+			return '\b';
+		case 'f':
+			return '\f';
+		case '0':
+			return '\0';
+		case 'u':
+			int code = 0;
+
+			for (int i = 0; i < 4; i++) {
+				int digit = Character.digit(this.read(), 16);
+
+				if (digit < 0) {
+					throw this.syntaxError(String.class, "Invalid unicode escape");
+				}
+
+				code = (code << 4) | digit;
+			}
+
+			return (char) code;
+		case EOF:
+			throw this.syntaxError(String.class, "Unterminated string");
+		default:
+			if (c == '\n') this.line++;
+			return (char) c;
+		}
+	}
+
+	/**
+	 * Reads an unquoted token, up to the next whitespace, structural character or comment.
+	 */
+	private String readBareToken() throws IOException {
+		StringBuilder sb = new StringBuilder();
+
+		for (int c = this.peek(); c != EOF && !isDelimiter(c); c = this.peek()) {
+			sb.append((char) c);
+			this.pos++;
+		}
+
+		return sb.toString();
+	}
+
+	private static boolean isDelimiter(int c) {
+		switch (c) {
+		case '{':
+		case '}':
+		case '[':
+		case ']':
+		case ',':
+		case ':':
+		case '/':
+		case '"':
+		case '\'':
+			return true;
+		default:
+			return Character.isWhitespace(c);
+		}
+	}
+
+	/**
+	 * Skips whitespace, comments and commas, and returns the next character without consuming it.
+	 */
+	private int skipSeparators() throws ValueDeserializationException, IOException {
+		int c = this.peekSignificant();
+
+		while (c == ',') {
+			this.pos++;
+			c = this.peekSignificant();
+		}
+
+		return c;
+	}
+
+	/**
+	 * Skips whitespace and comments, and returns the next character without consuming it.
+	 */
+	private int peekSignificant() throws ValueDeserializationException, IOException {
+		while (true) {
+			int c = this.peek();
+
+			if (c == '\n') {
+				this.line++;
+				this.pos++;
+			} else if (c != EOF && Character.isWhitespace(c)) {
+				this.pos++;
+			} else if (c == '/') {
+				this.pos++;
+				this.skipComment();
+			} else {
+				return c;
+			}
+		}
+	}
+
+	private void skipComment() throws ValueDeserializationException, IOException {
+		int c = this.read();
+
+		if (c == '/') {
+			do {
+				c = this.read();
+			} while (c != '\n' && c != EOF);
+
+			this.line++;
+		} else if (c == '*') {
+			int prev = 0;
+
+			while (true) {
+				c = this.read();
+
+				if (c == EOF) {
+					throw this.syntaxError(JsonElement.class, "Unterminated comment");
+				} else if (c == '/' && prev == '*') {
+					return;
+				} else if (c == '\n') {
+					this.line++;
+				}
+
+				prev = c;
+			}
+		} else {
+			throw this.syntaxError(JsonElement.class, "Unexpected character '/'");
+		}
+	}
+
+	private int peek() throws IOException {
+		if (this.pos == this.limit && !this.fill()) {
+			return EOF;
+		}
+
+		return this.buf[this.pos];
+	}
+
+	private int read() throws IOException {
+		if (this.pos == this.limit && !this.fill()) {
+			return EOF;
+		}
+
+		return this.buf[this.pos++];
+	}
+
+	private boolean fill() throws IOException {
+		int n = this.in.read(this.buf, 0, this.buf.length);
+
+		if (n <= 0) {
+			return false;
+		}
+
+		this.pos = 0;
+		this.limit = n;
+		return true;
+	}
+
+	private ValueDeserializationException syntaxError(Class<?> targetType, String message) {
+		return new ValueDeserializationException(null, targetType, message + " at line " + this.line);
+	}
+}
@@ -0,0 +1,111 @@
+package io.github.fablabsmc.fablabs.impl.fiber.serialization;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import javax.annotation.Nullable;
+
+import blue.endless.jankson.JsonElement;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.ElementWriter;
+
+/**
+ * An {@link ElementWriter} that emits JSON5 directly to a stream, laid out
+ * exactly like {@link blue.endless.jankson.JsonObject#toJson(boolean, boolean)} would.
+ *
+ * <p>Only the leaf elements are rendered to intermediate strings; the aggregates
+ * themselves are written incrementally through a fixed size buffer.
+ */
+public class JanksonElementWriter implements ElementWriter<JsonElement> {
+	private final Writer out;
+	private final boolean minify;
+	private int depth;
+	// whether the innermost open aggregate has no entries yet
+	private boolean empty;
+
+	public JanksonElementWriter(OutputStream out, boolean minify) {
+		this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		this.minify = minify;
+	}
+
+	@Override
+	public void beginAggregate() throws IOException {
+		this.out.write('{');
+		this.depth++;
+		this.empty = true;
+	}
+
+	@Override
+	public void name(String name, @Nullable String comment) throws IOException {
+		if (this.depth == 0) {
+			throw new IllegalStateException("Not inside an aggregate");
+		}
+
+		if (!this.empty) {
+			this.out.write(',');
+		}
+
+		this.out.write(this.minify ? ' ' : '\n');
+		this.empty = false;
+		this.indent(this.depth);
+
+		if (comment != null && !this.minify) {
+			if (comment.contains("\n")) {
+				this.out.write("/* ");
+				this.out.write(comment);
+				this.out.write(" */");
+			} else {
+				this.out.write("// ");
+				this.out.write(comment);
+			}
+
+			this.out.write('\n');
+			this.indent(this.depth);
+		}
+
+		this.out.write('"');
+		this.out.write(name);
+		this.out.write("\": ");
+	}
+
+	@Override
+	public void writeElement(JsonElement elem) throws IOException {
+		this.out.write(elem.toJson(!this.minify, !this.minify, this.depth));
+	}
+
+	@Override
+	public void endAggregate() throws IOException {
+		if (this.depth == 0) {
+			throw new IllegalStateException("Not inside an aggregate");
+		}
+
+		this.depth--;
+
+		if (this.empty || this.minify) {
+			this.out.write(' ');
+		} else {
+			this.out.write('\n');
+			this.indent(this.depth);
+		}
+
+		this.out.write('}');
+		// the enclosing aggregate, if any, has at least the entry just closed
+		this.empty = false;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		this.out.flush();
+	}
+
+	private void indent(int level) throws IOException {
+		if (this.minify) return;
+
+		for (int i = 0; i < level; i++) {
+			this.out.write('\t');
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package io.github.fablabsmc.fablabs.impl.fiber.serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.ValueDeserializationException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.FiberSerialization;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.ValueSerializer;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+
+/**
+ * Deserializes a config tree by converting values on a {@link ForkJoinPool}.
+ *
+ * <p>The document is read and matched against the tree on the calling thread, which yields the list of
+ * leaves to update in document order. That list is then split into ranges, whose values are converted
+ * concurrently. Finally, values are applied on the calling thread, in document order.
+ *
+ * @see FiberSerialization#deserialize(ConfigTree, InputStream, ValueSerializer, ForkJoinPool)
+ */
+public final class ParallelDeserialization {
+	// leaves converted by a single task, to amortize the cost of forking
+	private static final int THRESHOLD = 16;
+
+	private ParallelDeserialization() {
+	}
+
+	public static <A, T> void deserialize(ConfigTree tree, InputStream in, ValueSerializer<A, T> ctx, ForkJoinPool pool) throws IOException, ValueDeserializationException {
+		T target = ctx.readTarget(in);
+		List<ConfigLeaf<?>> leaves = new ArrayList<>();
+		List<A> elements = new ArrayList<>();
+		collect(tree, ctx.elements(target), ctx, leaves, elements);
+
+		Object[] values = new Object[leaves.size()];
+		ValueDeserializationException[] errors = new ValueDeserializationException[leaves.size()];
+		pool.invoke(new ConvertAction<>(leaves, elements, ctx, values, errors, 0, values.length));
+
+		for (int i = 0; i < values.length; i++) {
+			// fail at the same point as a sequential deserialization would
+			if (errors[i] != null) throw errors[i];
+
+			apply(leaves.get(i), values[i]);
+		}
+	}
+
+	private static <A> void collect(ConfigTree tree, Iterator<Map.Entry<String, A>> entries, ValueSerializer<A, ?> ctx, List<ConfigLeaf<?>> leaves, List<A> elements) throws ValueDeserializationException {
+		while (entries.hasNext()) {
+			Map.Entry<String, A> entry = entries.next();
+			ConfigNode node = tree.lookup(entry.getKey());
+
+			if (node instanceof ConfigBranch) {
+				collect((ConfigBranch) node, ctx.subElements(entry.getValue()), ctx, leaves, elements);
+			} else if (node instanceof ConfigLeaf<?>) {
+				leaves.add((ConfigLeaf<?>) node);
+				elements.add(entry.getValue());
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> void apply(ConfigLeaf<T> leaf, Object value) {
+		leaf.setValue((T) value);
+	}
+
+	private static final class ConvertAction<A> extends RecursiveAction {
+		private final List<ConfigLeaf<?>> leaves;
+		private final List<A> elements;
+		private final ValueSerializer<A, ?> ctx;
+		private final Object[] values;
+		private final ValueDeserializationException[] errors;
+		private final int from;
+		private final int to;
+
+		ConvertAction(List<ConfigLeaf<?>> leaves, List<A> elements, ValueSerializer<A, ?> ctx, Object[] values, ValueDeserializationException[] errors, int from, int to) {
+			this.leaves = leaves;
+			this.elements = elements;
+			this.ctx = ctx;
+			this.values = values;
+			this.errors = errors;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= THRESHOLD) {
+				for (int i = this.from; i < this.to; i++) {
+					try {
+						this.values[i] = this.leaves.get(i).getConfigType().deserializeValue(this.elements.get(i), this.ctx);
+					} catch (ValueDeserializationException e) {
+						this.errors[i] = e;
+					}
+				}
+			} else {
+				int mid = (this.from + this.to) >>> 1;
+				invokeAll(
+						new ConvertAction<>(this.leaves, this.elements, this.ctx, this.values, this.errors, this.from, mid),
+						new ConvertAction<>(this.leaves, this.elements, this.ctx, this.values, this.errors, mid, this.to)
+				);
+			}
+		}
+	}
+}
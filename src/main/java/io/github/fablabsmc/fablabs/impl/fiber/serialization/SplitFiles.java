@@ -0,0 +1,83 @@
+package io.github.fablabsmc.fablabs.impl.fiber.serialization;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.SplitFileSerialization;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import io.github.fablabsmc.fablabs.impl.fiber.tree.ConfigBranchImpl;
+
+/**
+ * Locates the files of separately serialized branches.
+ *
+ * @see SplitFileSerialization
+ */
+public final class SplitFiles {
+	// a branch file must not share its name with the directory holding the files of its descendants
+	private static final String DEFAULT_EXTENSION = ".branch";
+
+	private SplitFiles() {
+	}
+
+	/**
+	 * Returns the directory holding the files of the separately serialized branches of a tree stored in {@code file}.
+	 */
+	public static Path getBranchDirectory(Path file) {
+		String fileName = file.getFileName().toString();
+		int dot = fileName.lastIndexOf('.');
+		return file.resolveSibling(dot > 0 ? fileName.substring(0, dot) : fileName + ".d");
+	}
+
+	/**
+	 * Returns the file of a separately serialized branch of a tree stored in {@code file}.
+	 *
+	 * <p>Branch files have the extension of {@code file}, or {@value #DEFAULT_EXTENSION} if it has none.
+	 */
+	public static Path getBranchFile(Path file, ConfigTree root, ConfigBranch branch) {
+		String fileName = file.getFileName().toString();
+		int dot = fileName.lastIndexOf('.');
+		String extension = dot > 0 ? fileName.substring(dot) : DEFAULT_EXTENSION;
+		Path path = getBranchDirectory(file);
+		Deque<String> names = new ArrayDeque<>();
+
+		for (ConfigNode node = branch; node != null && node != root; node = node.getParent()) {
+			names.push(Objects.requireNonNull(node.getName()));
+		}
+
+		for (String name : names) {
+			path = path.resolve(name);
+		}
+
+		return path.resolveSibling(path.getFileName() + extension);
+	}
+
+	/**
+	 * Collects the separately serialized descendants of a tree, except those whose deferred load has not run yet.
+	 */
+	public static List<ConfigBranch> getLoadedBranches(ConfigTree tree) {
+		List<ConfigBranch> branches = new ArrayList<>();
+
+		for (ConfigNode node : tree.getItems()) {
+			if (!(node instanceof ConfigBranch)) continue;
+
+			ConfigBranch branch = (ConfigBranch) node;
+
+			// an unloaded branch and its descendants are unchanged
+			if (branch instanceof ConfigBranchImpl && ((ConfigBranchImpl) branch).isLoadPending()) continue;
+
+			if (branch.isSerializedSeparately()) {
+				branches.add(branch);
+			}
+
+			branches.addAll(getLoadedBranches(branch));
+		}
+
+		return branches;
+	}
+}
@@ -0,0 +1,87 @@
+package io.github.fablabsmc.fablabs.impl.fiber.tree;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * A change listener running on an {@link Executor}.
+ *
+ * <p>Notifications are queued, and run one at a time in the order they were received,
+ * so that a listener never observes changes out of order, whichever executor is used.
+ * If the executor rejects a task, or fails in any other way, queued notifications run on the
+ * notifying thread instead.
+ *
+ * @param <T> the type of values listened to
+ */
+public final class AsyncListener<T> implements BiConsumer<T, T> {
+	private final BiConsumer<T, T> delegate;
+	private final Executor executor;
+	// guarded by this
+	private final Queue<Runnable> pending = new ArrayDeque<>();
+	private boolean scheduled;
+	private CompletableFuture<Void> idle = CompletableFuture.completedFuture(null);
+
+	public AsyncListener(BiConsumer<T, T> delegate, Executor executor) {
+		this.delegate = delegate;
+		this.executor = executor;
+	}
+
+	@Override
+	public void accept(T oldValue, T newValue) {
+		synchronized (this) {
+			this.pending.add(() -> this.delegate.accept(oldValue, newValue));
+
+			if (this.scheduled) return;
+
+			this.scheduled = true;
+			// the previous future is completed by the drain which emptied the queue
+			this.idle = new CompletableFuture<>();
+		}
+
+		try {
+			this.executor.execute(this::drain);
+		} catch (Throwable e) {
+			// whatever went wrong, the queue must not stay scheduled without a drain to empty it
+			this.drain();
+		}
+	}
+
+	/**
+	 * Returns a future completed once every notification received so far has been processed.
+	 */
+	public synchronized CompletableFuture<Void> idle() {
+		return this.idle;
+	}
+
+	private void drain() {
+		while (true) {
+			Runnable task;
+			CompletableFuture<Void> idle;
+
+			synchronized (this) {
+				task = this.pending.poll();
+				idle = this.idle;
+
+				if (task == null) {
+					this.scheduled = false;
+				}
+			}
+
+			if (task == null) {
+				idle.complete(null);
+				return;
+			}
+
+			try {
+				task.run();
+			} catch (Throwable e) {
+				// there is no caller to report to, and later notifications must still be delivered
+				Thread thread = Thread.currentThread();
+				thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+			}
+		}
+	}
+}
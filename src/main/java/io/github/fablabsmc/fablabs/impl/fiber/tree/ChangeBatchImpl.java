@@ -0,0 +1,125 @@
+package io.github.fablabsmc.fablabs.impl.fiber.tree;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ChangeBatch;
+
+public final class ChangeBatchImpl implements ChangeBatch {
+	private static final ThreadLocal<Changes> CURRENT = new ThreadLocal<>();
+	// number of threads with an open batch, to skip the thread local lookup in the common case
+	private static final AtomicInteger OPEN = new AtomicInteger();
+
+	private final Changes changes;
+	private boolean closed;
+
+	private ChangeBatchImpl(Changes changes) {
+		this.changes = changes;
+	}
+
+	public static ChangeBatch begin() {
+		Changes changes = CURRENT.get();
+
+		if (changes == null) {
+			changes = new Changes(Thread.currentThread());
+			CURRENT.set(changes);
+			OPEN.incrementAndGet();
+		}
+
+		changes.depth++;
+		return new ChangeBatchImpl(changes);
+	}
+
+	/**
+	 * Records a change in the batch open on the current thread, if any.
+	 *
+	 * @return {@code true} if the change was recorded, {@code false} if listeners must be notified right away
+	 */
+	static <T> boolean record(ConfigLeafImpl<T> leaf, T oldValue, T newValue) {
+		if (OPEN.get() == 0) return false;
+
+		Changes changes = CURRENT.get();
+
+		if (changes == null) return false;
+
+		Change<?> change = changes.byLeaf.get(leaf);
+
+		if (change == null) {
+			changes.byLeaf.put(leaf, new Change<>(leaf, oldValue, newValue));
+		} else {
+			change.newValue = newValue;
+		}
+
+		return true;
+	}
+
+	@Override
+	public void close() {
+		if (this.closed) throw new IllegalStateException("Batch already closed");
+		if (this.changes.thread != Thread.currentThread()) throw new IllegalStateException("Batch closed on another thread");
+
+		this.closed = true;
+
+		if (--this.changes.depth == 0) {
+			// listeners setting values are notified right away
+			CURRENT.remove();
+			OPEN.decrementAndGet();
+			this.changes.deliver();
+		}
+	}
+
+	private static final class Changes {
+		private final Thread thread;
+		// first recorded change of every modified leaf, in modification order
+		private final Map<ConfigLeafImpl<?>, Change<?>> byLeaf = new LinkedHashMap<>();
+		private int depth;
+
+		Changes(Thread thread) {
+			this.thread = thread;
+		}
+
+		void deliver() {
+			RuntimeException failure = null;
+
+			for (Change<?> change : this.byLeaf.values()) {
+				try {
+					change.deliver();
+				} catch (RuntimeException e) {
+					if (failure == null) {
+						failure = e;
+					} else {
+						failure.addSuppressed(e);
+					}
+				}
+			}
+
+			if (failure != null) throw failure;
+		}
+	}
+
+	private static final class Change<T> {
+		private final ConfigLeafImpl<T> leaf;
+		@Nullable
+		private final T oldValue;
+		private Object newValue;
+
+		Change(ConfigLeafImpl<T> leaf, @Nullable T oldValue, T newValue) {
+			this.leaf = leaf;
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+		}
+
+		@SuppressWarnings("unchecked")
+		void deliver() {
+			T newValue = (T) this.newValue;
+
+			// the leaf may have been set back to its original value
+			if (this.leaf.isChange(this.oldValue, newValue)) {
+				this.leaf.fireListeners(this.oldValue, newValue);
+			}
+		}
+	}
+}
@@ -2,11 +2,14 @@ package io.github.fablabsmc.fablabs.impl.fiber.tree;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.SerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.ValueSerializer;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
@@ -17,8 +20,23 @@ import io.github.fablabsmc.fablabs.api.fiber.v1.tree.PropertyMirror;
  * Class implementing {@link ConfigBranch}.
  */
 public class ConfigBranchImpl extends ConfigNodeImpl implements ConfigBranch {
-	private final NodeCollection items;
+	private final IndexedNodeCollection items;
 	private final boolean serializeSeparately;
+	@Nullable
+	private volatile ConfigSnapshotImpl.Cache snapshotCache;
+	// incremented whenever a descendant leaf changes after having been serialized
+	private final AtomicInteger serialVersion = new AtomicInteger();
+	@Nullable
+	private volatile SerializedTarget serialized;
+	// run on first access to the children of this branch
+	@Nullable
+	private volatile Runnable pendingLoad;
+	// guarded by lock, set while the pending load runs, so that it can access this branch
+	private boolean loading;
+	// guards the pending load and the creation of the snapshot cache
+	private final Object lock = new Object();
+	// held to capture or modify the tree of which this branch is the root
+	private final Object treeLock = new Object();
 
 	/**
 	 * Creates a new {@code ConfigBranch}.
@@ -29,8 +47,24 @@ public class ConfigBranchImpl extends ConfigNodeImpl implements ConfigBranch {
 	 * @param serializeSeparately whether or not this node should be serialised separately. If {@code true}, it will be ignored during serialisation.
 	 */
 	public ConfigBranchImpl(String name, @Nullable String comment, @Nonnull Collection<ConfigNode> items, boolean serializeSeparately) {
+		this(name, comment, items, serializeSeparately, false);
+	}
+
+	/**
+	 * Creates a new {@code ConfigBranch}.
+	 *
+	 * <p>The children of a concurrent branch can be looked up and iterated from any thread,
+	 * without locking, while another thread adds or removes children.
+	 *
+	 * @param name                the name for this {@link ConfigBranchImpl}
+	 * @param comment             the comment for this {@link ConfigBranchImpl}
+	 * @param items               the node's items
+	 * @param serializeSeparately whether or not this node should be serialised separately. If {@code true}, it will be ignored during serialisation.
+	 * @param concurrent          whether this node's children may be read concurrently with modifications
+	 */
+	public ConfigBranchImpl(String name, @Nullable String comment, @Nonnull Collection<ConfigNode> items, boolean serializeSeparately, boolean concurrent) {
 		super(name, comment);
-		this.items = new IndexedNodeCollection(this);
+		this.items = new IndexedNodeCollection(this, concurrent);
 		this.serializeSeparately = serializeSeparately;
 		// must do 2-step initialization, to avoid leaking uninitialized <this>
 		this.items.addAll(items);
@@ -60,18 +94,28 @@ public class ConfigBranchImpl extends ConfigNodeImpl implements ConfigBranch {
 	@Nonnull
 	@Override
 	public NodeCollection getItems() {
+		this.loadPending();
 		return items;
 	}
 
 	@Nullable
 	@Override
 	public ConfigNode lookup(String name) {
+		this.loadPending();
 		return this.items.getByName(name);
 	}
 
+	@Nullable
+	@Override
+	public ConfigNode lookupPath(String path) {
+		this.loadPending();
+		return this.items.lookupPath(path);
+	}
+
 	@Nullable
 	@Override
 	public <T> ConfigLeaf<T> lookupLeaf(String name, SerializableType<T> type) {
+		this.loadPending();
 		ConfigNode child = this.items.getByName(name);
 
 		if (child instanceof ConfigLeaf && type.isAssignableFrom(((ConfigLeaf<?>) child).getConfigType())) {
@@ -97,6 +141,7 @@ public class ConfigBranchImpl extends ConfigNodeImpl implements ConfigBranch {
 	@Nullable
 	@Override
 	public ConfigBranch lookupBranch(String name) {
+		this.loadPending();
 		ConfigNode child = this.items.getByName(name);
 
 		if (child instanceof ConfigBranch) {
@@ -106,8 +151,155 @@ public class ConfigBranchImpl extends ConfigNodeImpl implements ConfigBranch {
 		return null;
 	}
 
+	/**
+	 * Defers loading the values of this branch until its children are first accessed.
+	 *
+	 * <p>The given action is run once, on the thread performing the first call to {@link #getItems()}
+	 * or to any lookup method, which blocks concurrent accesses until it completes. The action itself
+	 * can access this branch freely. If it throws an exception, the exception is propagated to the caller
+	 * and the action is not run again.
+	 *
+	 * <p>The serialized forms, snapshots, path indices and query resolutions cached for this branch
+	 * and its ancestors are invalidated, so that they are rebuilt from the loaded values.
+	 *
+	 * @param load the action loading the values of this branch
+	 */
+	public void deferLoad(Runnable load) {
+		// set first, so that whoever sees the invalidated caches also sees the load
+		this.pendingLoad = load;
+		this.items.markModified();
+
+		for (ConfigBranch branch = this; branch != null; branch = branch.getParent()) {
+			if (branch instanceof ConfigBranchImpl) {
+				((ConfigBranchImpl) branch).invalidateSerialized();
+				((ConfigBranchImpl) branch).invalidateSnapshot();
+			}
+		}
+	}
+
+	/**
+	 * Returns {@code true} if this branch has a {@linkplain #deferLoad(Runnable) deferred load} that has not run yet.
+	 *
+	 * <p>Unlike the other methods of this class, this method does not trigger the load.
+	 */
+	public boolean isLoadPending() {
+		return this.pendingLoad != null;
+	}
+
+	private void loadPending() {
+		if (this.pendingLoad == null) return;
+
+		synchronized (this.lock) {
+			Runnable load = this.pendingLoad;
+
+			if (load == null || this.loading) return;
+
+			this.loading = true;
+
+			try {
+				load.run();
+			} finally {
+				this.loading = false;
+				this.pendingLoad = null;
+			}
+		}
+	}
+
+	/**
+	 * Returns the children of this branch without running a pending load.
+	 */
+	IndexedNodeCollection getLoadedItems() {
+		return this.items;
+	}
+
+	/**
+	 * Returns the lock of the tree of which this branch is the root.
+	 *
+	 * @see ConfigSnapshotImpl#lockOf
+	 */
+	Object getTreeLock() {
+		return this.treeLock;
+	}
+
+	/**
+	 * Returns the cache holding the latest snapshot of this branch, creating it if needed.
+	 */
+	ConfigSnapshotImpl.Cache getSnapshotCache() {
+		ConfigSnapshotImpl.Cache cache = this.snapshotCache;
+
+		if (cache == null) {
+			synchronized (this.lock) {
+				cache = this.snapshotCache;
+
+				if (cache == null) {
+					this.snapshotCache = cache = new ConfigSnapshotImpl.Cache(this);
+				}
+			}
+		}
+
+		return cache;
+	}
+
+	/**
+	 * Returns whether the children of this branch may be read concurrently with modifications.
+	 */
+	public boolean isConcurrent() {
+		return this.items.isConcurrent();
+	}
+
 	@Override
 	public boolean isSerializedSeparately() {
 		return serializeSeparately;
 	}
+
+	/**
+	 * Serializes this branch, reusing the target produced by the previous call with the same serializer
+	 * if neither the structure of this branch nor the values of its descendants have changed since.
+	 *
+	 * @param serializer       a serializer whose {@linkplain ValueSerializer#isElementReusable() elements can be reused}
+	 * @param serializeMembers the function serializing the children of this branch into a new target
+	 * @param <T>              the type of serialized targets
+	 * @return the serialized target
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T serializeCached(ValueSerializer<?, T> serializer, Function<ConfigBranch, T> serializeMembers) {
+		// read before serializing, so that changes made while serializing invalidate the result
+		int version = this.serialVersion.get();
+		int treeModCount = this.items.getTreeModCount();
+		SerializedTarget cached = this.serialized;
+
+		if (cached != null && cached.serializer == serializer && cached.version == version && cached.treeModCount == treeModCount) {
+			return (T) cached.target;
+		}
+
+		T target = serializeMembers.apply(this);
+		this.serialized = new SerializedTarget(serializer, version, treeModCount, target);
+		return target;
+	}
+
+	void invalidateSerialized() {
+		this.serialVersion.incrementAndGet();
+	}
+
+	void invalidateSnapshot() {
+		ConfigSnapshotImpl.Cache cache = this.snapshotCache;
+
+		if (cache != null) {
+			cache.invalidate();
+		}
+	}
+
+	private static final class SerializedTarget {
+		private final ValueSerializer<?, ?> serializer;
+		private final int version;
+		private final int treeModCount;
+		private final Object target;
+
+		SerializedTarget(ValueSerializer<?, ?> serializer, int version, int treeModCount, Object target) {
+			this.serializer = serializer;
+			this.version = version;
+			this.treeModCount = treeModCount;
+			this.target = target;
+		}
+	}
 }
@@ -1,22 +1,55 @@
 package io.github.fablabsmc.fablabs.impl.fiber.tree;
 
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigLeafBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.DecimalSerializableType;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.SerializableType;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.TypeCheckResult;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.ValueSerializer;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
 
-public final class ConfigLeafImpl<T> extends ConfigNodeImpl implements ConfigLeaf<T> {
+public class ConfigLeafImpl<T> extends ConfigNodeImpl implements ConfigLeaf<T> {
+	private static final Runnable[] NO_HOOKS = new Runnable[0];
+
 	private T value;
+	// holds the value instead of the field above in concurrent leaves
+	private volatile T sharedValue;
+	private final boolean concurrent;
+	// guarded by this, only used by concurrent leaves: changes whose listeners have not been notified yet,
+	// in the order they were made, and whether a thread is notifying them
+	@Nullable
+	private final Queue<Notification<T>> notifications;
+	private boolean notifying;
+	private boolean changeDetection = true;
+	// set once this leaf's value has been serialized with caching, after which changes must invalidate ancestors
+	private volatile boolean serializationTracked;
+	// set once a snapshot of an ancestor has been cached, after which changes must invalidate ancestors
+	private volatile boolean snapshotTracked;
+	@Nullable
+	private volatile SerializedValue serialized;
 	@Nonnull
 	private final T defaultValue;
+	// copied on every addition, so that listeners can be notified without locking
+	@Nonnull
+	private volatile BiConsumer<T, T>[] listeners;
+	@Nonnull
+	private final BiConsumer<T, T> dispatcher = this::fireListeners;
+	// run whenever a value is stored, even while listeners are deferred
 	@Nonnull
-	private BiConsumer<T, T> listener;
+	private volatile Runnable[] invalidationHooks = NO_HOOKS;
 	@Nonnull
 	private final SerializableType<T> type;
 
@@ -31,17 +64,60 @@ public final class ConfigLeafImpl<T> extends ConfigNodeImpl implements ConfigLea
 	 * @see ConfigLeafBuilder
 	 */
 	public ConfigLeafImpl(@Nonnull String name, @Nonnull SerializableType<T> type, @Nullable String comment, @Nonnull T defaultValue, @Nonnull BiConsumer<T, T> listener) {
+		this(name, type, comment, defaultValue, listener, false);
+	}
+
+	/**
+	 * Creates a {@code ConfigLeaf}.
+	 *
+	 * <p>The value of a concurrent leaf is safely published to every thread reading it,
+	 * and changes to it are serialized, at the cost of slower writes.
+	 *
+	 * @param name         the name for this node
+	 * @param type         the type of value this item holds
+	 * @param comment      the comment for this node
+	 * @param defaultValue the default value for this node
+	 * @param listener     the consumer or listener for this item. When this item's value changes, the consumer will be called with the old value as first argument and the new value as second argument.
+	 * @param concurrent   whether this leaf may be read concurrently with modifications
+	 * @see ConfigLeafBuilder
+	 */
+	public ConfigLeafImpl(@Nonnull String name, @Nonnull SerializableType<T> type, @Nullable String comment, @Nonnull T defaultValue, @Nonnull BiConsumer<T, T> listener, boolean concurrent) {
 		super(name, comment);
 		this.defaultValue = Objects.requireNonNull(defaultValue);
-		this.listener = listener;
-		this.type = type;
+		this.listeners = newListenerArray(listener);
+		this.type = SerializableType.intern(type);
+		this.concurrent = concurrent;
+		this.notifications = concurrent ? new ArrayDeque<>() : null;
 		this.setValue(defaultValue);
 	}
 
+	/**
+	 * Creates a {@code ConfigLeaf}, choosing the most specialized implementation for the given type.
+	 *
+	 * <p>Leaves holding numbers are created as {@link NumberConfigLeafImpl}s.
+	 *
+	 * @see #ConfigLeafImpl(String, SerializableType, String, Object, BiConsumer, boolean)
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ConfigLeafImpl<T> create(@Nonnull String name, @Nonnull SerializableType<T> type, @Nullable String comment, @Nonnull T defaultValue, @Nonnull BiConsumer<T, T> listener, boolean concurrent) {
+		if (type instanceof DecimalSerializableType) {
+			return (ConfigLeafImpl<T>) new NumberConfigLeafImpl(name, (DecimalSerializableType) type, comment, (BigDecimal) defaultValue, (BiConsumer<BigDecimal, BigDecimal>) listener, concurrent);
+		}
+
+		return new ConfigLeafImpl<>(name, type, comment, defaultValue, listener, concurrent);
+	}
+
+	/**
+	 * Returns whether this leaf may be read concurrently with modifications.
+	 */
+	public boolean isConcurrent() {
+		return this.concurrent;
+	}
+
 	@Override
 	@Nonnull
 	public T getValue() {
-		return this.value;
+		return this.concurrent ? this.sharedValue : this.value;
 	}
 
 	@Override
@@ -69,21 +145,293 @@ public final class ConfigLeafImpl<T> extends ConfigNodeImpl implements ConfigLea
 			correctedValue = result.getCorrectedValue().get();
 		}
 
-		T oldValue = this.value;
-		this.value = Objects.requireNonNull(correctedValue);
-		this.listener.accept(oldValue, this.value);
+		this.applyValue(Objects.requireNonNull(correctedValue));
+		return true;
+	}
+
+	/**
+	 * Returns whether setting a value {@linkplain SerializableType#isEquivalent(Object, Object) equivalent}
+	 * to the current one is ignored.
+	 */
+	public boolean hasChangeDetection() {
+		return this.changeDetection;
+	}
+
+	/**
+	 * Sets whether setting a value {@linkplain SerializableType#isEquivalent(Object, Object) equivalent}
+	 * to the current one is ignored, in which case listeners are not notified.
+	 *
+	 * <p>Change detection is enabled by default.
+	 *
+	 * @param changeDetection {@code true} to ignore equivalent values
+	 */
+	public void setChangeDetection(boolean changeDetection) {
+		this.changeDetection = changeDetection;
+	}
+
+	/**
+	 * Returns whether going from one value to another is a change listeners must be notified of.
+	 */
+	boolean isChange(@Nullable T oldValue, T newValue) {
+		return !this.changeDetection || !this.type.isEquivalent(oldValue, newValue);
+	}
+
+	/**
+	 * Stores a value that is known to satisfy this leaf's constraints, and notifies listeners.
+	 *
+	 * <p>This method may be called from the constructor, before subclass fields are initialized.
+	 */
+	void applyValue(@Nonnull T value) {
+		if (this.concurrent) {
+			boolean deliver;
+
+			synchronized (this) {
+				if (!this.isChange(this.getValue(), value)) return;
+
+				deliver = this.queueNotification(this.storeValue(value), value);
+			}
+
+			// listeners run without the lock, as they may set other leaves whose own listeners set this one
+			if (deliver) {
+				this.deliverNotifications();
+			}
+		} else if (this.isChange(this.getValue(), value)) {
+			this.notifyListeners(this.storeValue(value), value);
+		}
+	}
+
+	/**
+	 * Notifies listeners of a change, or records it if a {@linkplain ChangeBatchImpl batch} is open on the current thread.
+	 */
+	void notifyListeners(T oldValue, T newValue) {
+		if (!ChangeBatchImpl.record(this, oldValue, newValue)) {
+			this.fireListeners(oldValue, newValue);
+		}
+	}
+
+	/**
+	 * Queues a change of this concurrent leaf, so that listeners are notified of changes in the order they were made.
+	 *
+	 * <p>This must be called while holding this leaf's lock, right after the change was stored.
+	 * If this returns {@code true}, the caller must call {@link #deliverNotifications()} once it released the lock.
+	 * Otherwise, the change was recorded by a {@linkplain ChangeBatchImpl batch}, or will be delivered by the
+	 * thread already notifying this leaf's listeners.
+	 *
+	 * @return whether the caller is responsible for delivering queued notifications
+	 */
+	boolean queueNotification(T oldValue, T newValue) {
+		assert this.notifications != null && Thread.holdsLock(this);
+
+		if (ChangeBatchImpl.record(this, oldValue, newValue)) return false;
+
+		this.notifications.add(new Notification<>(oldValue, newValue));
+
+		if (this.notifying) return false;
+
+		this.notifying = true;
 		return true;
 	}
 
+	/**
+	 * Notifies listeners of the changes queued by {@link #queueNotification(Object, Object)}, including those queued
+	 * by other threads while doing so. This must be called without holding this leaf's lock.
+	 */
+	void deliverNotifications() {
+		assert this.notifications != null;
+		RuntimeException failure = null;
+		boolean drained = false;
+
+		try {
+			while (true) {
+				Notification<T> notification;
+
+				synchronized (this) {
+					notification = this.notifications.poll();
+
+					if (notification == null) {
+						this.notifying = false;
+						drained = true;
+						break;
+					}
+				}
+
+				try {
+					this.fireListeners(notification.oldValue, notification.newValue);
+				} catch (RuntimeException e) {
+					// later changes, possibly made by other threads, must still be delivered
+					if (failure == null) {
+						failure = e;
+					} else {
+						failure.addSuppressed(e);
+					}
+				}
+			}
+		} finally {
+			if (!drained) {
+				// what is left is delivered by the next change
+				synchronized (this) {
+					this.notifying = false;
+				}
+			}
+		}
+
+		if (failure != null) throw failure;
+	}
+
+	/**
+	 * Calls every listener of this leaf, in the order they were added.
+	 */
+	void fireListeners(T oldValue, T newValue) {
+		for (BiConsumer<T, T> listener : this.listeners) {
+			listener.accept(oldValue, newValue);
+		}
+	}
+
+	@SafeVarargs
+	private static <T> BiConsumer<T, T>[] newListenerArray(BiConsumer<T, T>... listeners) {
+		return listeners;
+	}
+
+	/**
+	 * Stores a value that is known to satisfy this leaf's constraints, <em>without</em> notifying listeners.
+	 *
+	 * <p>This is used to apply several changes at once, before notifying any listener.
+	 * Callers are responsible for notifying this leaf's {@linkplain #getListener() listeners} with the returned value.
+	 * Unlike {@link #setValue(Object)}, this method does not lock concurrent leaves,
+	 * so that callers may hold other locks while applying values.
+	 *
+	 * @param value the new value
+	 * @return the previous value
+	 */
+	public T swapValue(@Nonnull T value) {
+		return this.storeValue(value);
+	}
+
+	/**
+	 * Replaces the value of this leaf.
+	 *
+	 * <p>This method may be called from the constructor, before subclass fields are initialized.
+	 *
+	 * @return the previous value
+	 */
+	T storeValue(@Nonnull T value) {
+		T oldValue;
+
+		if (this.concurrent) {
+			oldValue = this.sharedValue;
+			this.sharedValue = value;
+		} else {
+			oldValue = this.value;
+			this.value = value;
+		}
+
+		for (Runnable hook : this.invalidationHooks) {
+			hook.run();
+		}
+
+		boolean serializationTracked = this.serializationTracked;
+		boolean snapshotTracked = this.snapshotTracked;
+
+		if (serializationTracked || snapshotTracked) {
+			for (ConfigBranch parent = this.getParent(); parent != null; parent = parent.getParent()) {
+				if (parent instanceof ConfigBranchImpl) {
+					ConfigBranchImpl branch = (ConfigBranchImpl) parent;
+
+					if (serializationTracked) branch.invalidateSerialized();
+
+					if (snapshotTracked) branch.invalidateSnapshot();
+				}
+			}
+		}
+
+		return oldValue;
+	}
+
+	/**
+	 * Makes changes to this leaf invalidate the {@linkplain ConfigSnapshotImpl snapshots} cached by its ancestors.
+	 *
+	 * <p>This must be called before reading the value to cache.
+	 */
+	void trackSnapshots() {
+		this.snapshotTracked = true;
+	}
+
+	/**
+	 * Serializes the value of this leaf, reusing the element produced by the previous call
+	 * with the same serializer if the value has not changed since.
+	 *
+	 * @param serializer a serializer whose {@linkplain ValueSerializer#isElementReusable() elements can be reused}
+	 * @param <A>        the type of serialized elements
+	 * @return the serialized value
+	 */
+	@SuppressWarnings("unchecked")
+	public <A> A serializeValue(ValueSerializer<A, ?> serializer) {
+		// must be set before reading the value, so that either this method sees a concurrent change,
+		// or the change invalidates the ancestors caching this method's result
+		this.serializationTracked = true;
+		T value = this.getValue();
+		SerializedValue cached = this.serialized;
+
+		if (cached != null && cached.serializer == serializer && cached.value == value) {
+			return (A) cached.element;
+		}
+
+		A element = this.type.serializeValue(value, serializer);
+		this.serialized = new SerializedValue(serializer, value, element);
+		return element;
+	}
+
 	@Override
 	@Nonnull
 	public BiConsumer<T, T> getListener() {
-		return listener;
+		return this.dispatcher;
 	}
 
 	@Override
-	public void addChangeListener(BiConsumer<T, T> listener) {
-		this.listener = this.listener.andThen(listener);
+	public synchronized void addChangeListener(BiConsumer<T, T> listener) {
+		BiConsumer<T, T>[] listeners = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+		listeners[listeners.length - 1] = Objects.requireNonNull(listener);
+		this.listeners = listeners;
+	}
+
+	/**
+	 * Adds the listeners of this leaf to another leaf, after its own.
+	 */
+	void copyListenersTo(ConfigLeafImpl<T> leaf) {
+		for (BiConsumer<T, T> listener : this.listeners) {
+			leaf.addChangeListener(listener);
+		}
+	}
+
+	/**
+	 * Adds an action run on the thread storing a value, as soon as it is stored.
+	 *
+	 * <p>Unlike listeners, hooks are neither deferred by {@linkplain ChangeBatchImpl batches} nor run
+	 * asynchronously, and they are also run by {@link #swapValue(Object)}. They are meant to invalidate
+	 * state derived from the value of this leaf, which must not be read stale in the meantime.
+	 *
+	 * @param hook the action to run
+	 */
+	public synchronized void addInvalidationHook(Runnable hook) {
+		Runnable[] hooks = Arrays.copyOf(this.invalidationHooks, this.invalidationHooks.length + 1);
+		hooks[hooks.length - 1] = Objects.requireNonNull(hook);
+		this.invalidationHooks = hooks;
+	}
+
+	/**
+	 * Returns a future completed once the {@linkplain AsyncListener asynchronous listeners} of this leaf
+	 * have processed every change made so far.
+	 */
+	public CompletableFuture<Void> awaitListeners() {
+		List<CompletableFuture<Void>> pending = new ArrayList<>(1);
+
+		for (BiConsumer<T, T> listener : this.listeners) {
+			if (listener instanceof AsyncListener) {
+				pending.add(((AsyncListener<T>) listener).idle());
+			}
+		}
+
+		return pending.size() == 1 ? pending.get(0) : CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]));
 	}
 
 	@Override
@@ -92,6 +440,28 @@ public final class ConfigLeafImpl<T> extends ConfigNodeImpl implements ConfigLea
 		return defaultValue;
 	}
 
+	private static final class Notification<T> {
+		private final T oldValue;
+		private final T newValue;
+
+		Notification(T oldValue, T newValue) {
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+		}
+	}
+
+	private static final class SerializedValue {
+		private final ValueSerializer<?, ?> serializer;
+		private final Object value;
+		private final Object element;
+
+		SerializedValue(ValueSerializer<?, ?> serializer, Object value, Object element) {
+			this.serializer = serializer;
+			this.value = value;
+			this.element = element;
+		}
+	}
+
 	@Override
 	public String toString() {
 		return this.getClass().getSimpleName()
@@ -0,0 +1,328 @@
+package io.github.fablabsmc.fablabs.impl.fiber.tree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.ValueDeserializationException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.SerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.ValueSerializer;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ChangeBatch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigPatch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTransaction;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+
+public final class ConfigPatchImpl implements ConfigPatch {
+	// paths are kept as lists of names, as names may contain dots
+	private final List<List<String>> removed = new ArrayList<>();
+	private final List<Addition> added = new ArrayList<>();
+	private final List<Change<?>> changed = new ArrayList<>();
+
+	private ConfigPatchImpl() {
+	}
+
+	public static ConfigPatch diff(ConfigTree from, ConfigTree to) {
+		ConfigPatchImpl patch = new ConfigPatchImpl();
+		patch.diffChildren(from, to, Collections.emptyList());
+		return patch;
+	}
+
+	public static <A, T> ConfigPatch diff(ConfigTree tree, T target, ValueSerializer<A, T> ctx) throws ValueDeserializationException {
+		ConfigPatchImpl patch = new ConfigPatchImpl();
+		patch.diffElements(tree, ctx.elements(target), ctx, Collections.emptyList());
+		return patch;
+	}
+
+	private void diffChildren(ConfigTree from, ConfigTree to, List<String> prefix) {
+		for (ConfigNode node : from.getItems()) {
+			if (to.lookup(node.getName()) == null) {
+				this.removed.add(append(prefix, node.getName()));
+			}
+		}
+
+		for (ConfigNode node : to.getItems()) {
+			List<String> path = append(prefix, node.getName());
+			ConfigNode old = from.lookup(node.getName());
+
+			if (old == null) {
+				this.added.add(new Addition(path, copy(node)));
+			} else if (old instanceof ConfigBranch && node instanceof ConfigBranch) {
+				this.diffChildren((ConfigBranch) old, (ConfigBranch) node, path);
+			} else if (old instanceof ConfigLeaf<?> && node instanceof ConfigLeaf<?> && ((ConfigLeaf<?>) old).getConfigType().equals(((ConfigLeaf<?>) node).getConfigType())) {
+				this.diffValue((ConfigLeaf<?>) old, ((ConfigLeaf<?>) node).getValue(), path);
+			} else {
+				this.removed.add(path);
+				this.added.add(new Addition(path, copy(node)));
+			}
+		}
+	}
+
+	private <A> void diffElements(ConfigTree tree, Iterator<Map.Entry<String, A>> entries, ValueSerializer<A, ?> ctx, List<String> prefix) throws ValueDeserializationException {
+		while (entries.hasNext()) {
+			Map.Entry<String, A> entry = entries.next();
+			ConfigNode node = tree.lookup(entry.getKey());
+			List<String> path = append(prefix, entry.getKey());
+
+			if (node instanceof ConfigBranch) {
+				this.diffElements((ConfigBranch) node, ctx.subElements(entry.getValue()), ctx, path);
+			} else if (node instanceof ConfigLeaf<?>) {
+				ConfigLeaf<?> leaf = (ConfigLeaf<?>) node;
+				this.diffValue(leaf, leaf.getConfigType().deserializeValue(entry.getValue(), ctx), path);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> void diffValue(ConfigLeaf<T> leaf, Object value, List<String> path) {
+		SerializableType<T> type = leaf.getConfigType();
+
+		if (!type.isEquivalent(leaf.getValue(), (T) value)) {
+			this.changed.add(new Change<>(path, type, (T) value));
+		}
+	}
+
+	private static List<String> append(List<String> prefix, String name) {
+		List<String> path = new ArrayList<>(prefix.size() + 1);
+		path.addAll(prefix);
+		path.add(name);
+		return path;
+	}
+
+	private static String join(List<String> path) {
+		return String.join(".", path);
+	}
+
+	@Override
+	public Set<String> getRemovedPaths() {
+		Set<String> paths = new LinkedHashSet<>();
+
+		for (List<String> path : this.removed) {
+			paths.add(join(path));
+		}
+
+		return Collections.unmodifiableSet(paths);
+	}
+
+	@Override
+	public Set<String> getAddedPaths() {
+		Set<String> paths = new LinkedHashSet<>();
+
+		for (Addition addition : this.added) {
+			paths.add(join(addition.path));
+		}
+
+		return Collections.unmodifiableSet(paths);
+	}
+
+	@Override
+	public Map<String, Object> getChangedValues() {
+		Map<String, Object> values = new LinkedHashMap<>();
+
+		for (Change<?> change : this.changed) {
+			values.put(join(change.path), change.value);
+		}
+
+		return Collections.unmodifiableMap(values);
+	}
+
+	@Override
+	public int size() {
+		return this.removed.size() + this.added.size() + this.changed.size();
+	}
+
+	@Override
+	public void apply(ConfigTree tree) throws FiberException {
+		// every node is looked up before modifying the tree, so that a patch which does not apply has no effect
+		ConfigTransaction transaction = ConfigTransaction.begin(tree);
+
+		for (Change<?> change : this.changed) {
+			change.stage(tree, transaction);
+		}
+
+		List<ConfigNode> removedNodes = new ArrayList<>(this.removed.size());
+
+		for (List<String> path : this.removed) {
+			ConfigNode node = resolve(tree, path);
+
+			// already absent
+			if (node != null) removedNodes.add(node);
+		}
+
+		List<ConfigTree> parents = new ArrayList<>(this.added.size());
+		List<ConfigNode> addedNodes = new ArrayList<>(this.added.size());
+
+		for (Addition addition : this.added) {
+			ConfigTree parent = resolveParent(tree, addition.path);
+
+			if (parent == null) {
+				throw new FiberException("Patch does not apply, no branch at " + join(addition.path.subList(0, addition.path.size() - 1)));
+			}
+
+			parents.add(parent);
+			// copied outside of the batch, which would otherwise notify the copied listeners of the initial values
+			addedNodes.add(copy(addition.node));
+		}
+
+		// the tree is locked so that snapshots see either none or all of the patch,
+		// and listeners are notified once it is fully applied
+		try (ChangeBatch batch = ChangeBatch.begin()) {
+			synchronized (ConfigSnapshotImpl.lockOf(tree)) {
+				transaction.commit();
+
+				for (ConfigNode node : removedNodes) {
+					node.detach();
+				}
+
+				for (int i = 0; i < this.added.size(); i++) {
+					parents.get(i).getItems().add(addedNodes.get(i), true);
+				}
+			}
+		}
+	}
+
+	@Override
+	public <A, T> T serialize(ValueSerializer<A, T> ctx) {
+		// changed leaves, grouped by branch
+		Map<String, Object> root = new LinkedHashMap<>();
+
+		for (Change<?> change : this.changed) {
+			Map<String, Object> group = root;
+
+			for (String name : change.path.subList(0, change.path.size() - 1)) {
+				@SuppressWarnings("unchecked") Map<String, Object> child = (Map<String, Object>) group.computeIfAbsent(name, n -> new LinkedHashMap<String, Object>());
+				group = child;
+			}
+
+			group.put(change.path.get(change.path.size() - 1), change);
+		}
+
+		return serializeGroup(root, ctx);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <A, T> T serializeGroup(Map<String, Object> group, ValueSerializer<A, T> ctx) {
+		T target = ctx.newTarget();
+
+		for (Map.Entry<String, Object> entry : group.entrySet()) {
+			if (entry.getValue() instanceof Change) {
+				ctx.addElement(entry.getKey(), ((Change<?>) entry.getValue()).serialize(ctx), target, null);
+			} else {
+				ctx.addSubElement(entry.getKey(), serializeGroup((Map<String, Object>) entry.getValue(), ctx), target, null);
+			}
+		}
+
+		return target;
+	}
+
+	@Nullable
+	private static ConfigNode resolve(ConfigTree tree, List<String> path) {
+		ConfigNode node = null;
+		ConfigTree current = tree;
+
+		for (String name : path) {
+			if (current == null) return null;
+
+			node = current.lookup(name);
+			current = node instanceof ConfigTree ? (ConfigTree) node : null;
+		}
+
+		return node;
+	}
+
+	@Nullable
+	private static ConfigTree resolveParent(ConfigTree tree, List<String> path) {
+		if (path.size() == 1) return tree;
+
+		ConfigNode parent = resolve(tree, path.subList(0, path.size() - 1));
+		return parent instanceof ConfigTree ? (ConfigTree) parent : null;
+	}
+
+	private static ConfigNode copy(ConfigNode node) {
+		ConfigNode copy;
+
+		if (node instanceof ConfigBranch) {
+			ConfigBranch branch = (ConfigBranch) node;
+			List<ConfigNode> children = new ArrayList<>();
+
+			for (ConfigNode child : branch.getItems()) {
+				children.add(copy(child));
+			}
+
+			boolean concurrent = branch instanceof ConfigBranchImpl && ((ConfigBranchImpl) branch).isConcurrent();
+			copy = new ConfigBranchImpl(branch.getName(), branch.getComment(), children, branch.isSerializedSeparately(), concurrent);
+		} else if (node instanceof ConfigLeaf<?>) {
+			copy = copyLeaf((ConfigLeaf<?>) node);
+		} else {
+			throw new IllegalArgumentException("Cannot copy node " + node);
+		}
+
+		copy.getAttributes().putAll(node.getAttributes());
+		return copy;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> ConfigLeaf<T> copyLeaf(ConfigLeaf<T> leaf) {
+		boolean concurrent = leaf instanceof ConfigLeafImpl && ((ConfigLeafImpl<T>) leaf).isConcurrent();
+		ConfigLeafImpl<T> copy = ConfigLeafImpl.create(leaf.getName(), leaf.getConfigType(), leaf.getComment(), leaf.getDefaultValue(), (oldValue, newValue) -> {
+		}, concurrent);
+		copy.setValue(leaf.getValue());
+
+		// added once the value is copied, so that they are not notified of it
+		if (leaf instanceof ConfigLeafImpl) {
+			((ConfigLeafImpl<T>) leaf).copyListenersTo(copy);
+		} else {
+			copy.addChangeListener(leaf.getListener());
+		}
+
+		return copy;
+	}
+
+	private static final class Addition {
+		private final List<String> path;
+		// detached copy, copied again on every application
+		private final ConfigNode node;
+
+		Addition(List<String> path, ConfigNode node) {
+			this.path = path;
+			this.node = node;
+		}
+	}
+
+	private static final class Change<T> {
+		private final List<String> path;
+		private final SerializableType<T> type;
+		private final T value;
+
+		Change(List<String> path, SerializableType<T> type, T value) {
+			this.path = path;
+			this.type = type;
+			this.value = value;
+		}
+
+		void stage(ConfigTree tree, ConfigTransaction transaction) throws FiberException {
+			ConfigTree parent = resolveParent(tree, this.path);
+			ConfigLeaf<T> leaf = parent != null ? parent.lookupLeaf(this.path.get(this.path.size() - 1), this.type) : null;
+
+			if (leaf == null) {
+				throw new FiberException("Patch does not apply, no leaf of type " + this.type + " at " + join(this.path));
+			}
+
+			transaction.stage(leaf, this.value);
+		}
+
+		<A> A serialize(ValueSerializer<A, ?> ctx) {
+			return this.type.serializeValue(this.value, ctx);
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package io.github.fablabsmc.fablabs.impl.fiber.tree;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigSnapshot;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.NodeCollection;
+
+public final class ConfigSnapshotImpl implements ConfigSnapshot {
+	private final Map<ConfigLeaf<?>, Object> byLeaf;
+	private final Map<String, Object> byPath;
+	// state of the cache when this snapshot was taken, used to tell whether it is still current
+	private final int treeModCount;
+	private final int writeCount;
+
+	private ConfigSnapshotImpl(Map<ConfigLeaf<?>, Object> byLeaf, Map<String, Object> byPath, int treeModCount, int writeCount) {
+		this.byLeaf = byLeaf;
+		this.byPath = byPath;
+		this.treeModCount = treeModCount;
+		this.writeCount = writeCount;
+	}
+
+	/**
+	 * Returns a snapshot of the current values of a tree.
+	 *
+	 * @see ConfigSnapshot#of(ConfigTree)
+	 */
+	public static ConfigSnapshot of(ConfigTree tree) {
+		if (tree instanceof ConfigBranchImpl) {
+			return ((ConfigBranchImpl) tree).getSnapshotCache().get();
+		}
+
+		synchronized (lockOf(tree)) {
+			return capture(tree, null, 0, 0);
+		}
+	}
+
+	/**
+	 * Takes a new snapshot of a tree, and caches it if possible.
+	 *
+	 * <p>The caller must hold the {@linkplain #lockOf(ConfigTree) lock} of the tree.
+	 */
+	static ConfigSnapshot refresh(ConfigTree tree) {
+		if (tree instanceof ConfigBranchImpl) {
+			return ((ConfigBranchImpl) tree).getSnapshotCache().refresh();
+		}
+
+		return capture(tree, null, 0, 0);
+	}
+
+	/**
+	 * Returns the object to synchronize on to capture or modify a tree as a whole.
+	 *
+	 * <p>The lock belongs to the root of the tree, so that every subtree of the same tree shares the same lock.
+	 * Fiber branches own a private lock object, so that user code synchronizing on the tree cannot contend with it.
+	 * Other roots are their own lock.
+	 */
+	static Object lockOf(ConfigTree tree) {
+		ConfigTree root = tree;
+
+		while (root instanceof ConfigNode && ((ConfigNode) root).getParent() != null) {
+			root = ((ConfigNode) root).getParent();
+		}
+
+		return root instanceof ConfigBranchImpl ? ((ConfigBranchImpl) root).getTreeLock() : root;
+	}
+
+	private static ConfigSnapshotImpl capture(ConfigTree tree, @Nullable Cache cache, int treeModCount, int writeCount) {
+		Map<ConfigLeaf<?>, Object> byLeaf = new IdentityHashMap<>();
+		Map<String, Object> byPath = new LinkedHashMap<>();
+		capture(tree.getItems(), "", cache, byLeaf, byPath);
+		return new ConfigSnapshotImpl(byLeaf, Collections.unmodifiableMap(byPath), treeModCount, writeCount);
+	}
+
+	private static void capture(NodeCollection items, String prefix, @Nullable Cache cache, Map<ConfigLeaf<?>, Object> byLeaf, Map<String, Object> byPath) {
+		for (ConfigNode node : items) {
+			String path = prefix + node.getName();
+
+			if (node instanceof ConfigLeaf) {
+				ConfigLeaf<?> leaf = (ConfigLeaf<?>) node;
+
+				// the leaf must invalidate the cache before its value is read, so that no change is missed
+				if (cache != null && leaf instanceof ConfigLeafImpl) ((ConfigLeafImpl<?>) leaf).trackSnapshots();
+
+				Object value = leaf.getValue();
+				byLeaf.put(leaf, value);
+				byPath.put(path, value);
+			} else if (node instanceof ConfigBranch) {
+				capture(((ConfigBranch) node).getItems(), path + '.', cache, byLeaf, byPath);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether every change to the given items can be tracked, which is not the case
+	 * of structural changes in foreign collections, nor of value changes in foreign leaves.
+	 */
+	private static boolean isTrackable(NodeCollection items) {
+		if (!(items instanceof IndexedNodeCollection)) return false;
+
+		for (ConfigNode node : items) {
+			if (node instanceof ConfigBranch ? !isTrackable(((ConfigBranch) node).getItems()) : !(node instanceof ConfigLeafImpl)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Nullable
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T getValue(ConfigLeaf<T> leaf) {
+		return (T) this.byLeaf.get(leaf);
+	}
+
+	@Nullable
+	@Override
+	public Object getValue(String path) {
+		return this.byPath.get(path);
+	}
+
+	@Override
+	public Map<String, Object> asMap() {
+		return this.byPath;
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigSnapshot" + this.byPath;
+	}
+
+	/**
+	 * Holds the latest snapshot of a branch, as long as none of its leaves or descendants change.
+	 *
+	 * <p>Leaves {@linkplain #invalidate() invalidate} the caches of their ancestors when their value changes,
+	 * so that a cache is only ever referenced by its branch.
+	 */
+	static final class Cache {
+		private final ConfigBranchImpl tree;
+		// incremented whenever a descendant leaf changes
+		private final AtomicInteger writeCount = new AtomicInteger();
+		@Nullable
+		private volatile ConfigSnapshotImpl current;
+
+		Cache(ConfigBranchImpl tree) {
+			this.tree = tree;
+		}
+
+		@Nonnull
+		ConfigSnapshotImpl get() {
+			ConfigSnapshotImpl snapshot = this.current;
+
+			if (snapshot != null && snapshot.writeCount == this.writeCount.get() && snapshot.treeModCount == this.treeModCount()) {
+				return snapshot;
+			}
+
+			synchronized (lockOf(this.tree)) {
+				return this.refresh();
+			}
+		}
+
+		/**
+		 * Takes a new snapshot. The caller must hold the lock of the tree.
+		 */
+		@Nonnull
+		ConfigSnapshotImpl refresh() {
+			// read before capturing, so that changes made while capturing invalidate the snapshot
+			int treeModCount = this.treeModCount();
+			int writeCount = this.writeCount.get();
+			ConfigSnapshotImpl snapshot = capture(this.tree, this, treeModCount, writeCount);
+			this.current = isTrackable(this.tree.getItems()) ? snapshot : null;
+			return snapshot;
+		}
+
+		private int treeModCount() {
+			return ((IndexedNodeCollection) this.tree.getItems()).getTreeModCount();
+		}
+
+		/**
+		 * Discards the current snapshot, after a descendant leaf has changed.
+		 */
+		void invalidate() {
+			this.writeCount.incrementAndGet();
+		}
+	}
+}
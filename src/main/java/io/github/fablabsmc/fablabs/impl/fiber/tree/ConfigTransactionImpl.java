@@ -0,0 +1,160 @@
+package io.github.fablabsmc.fablabs.impl.fiber.tree;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import javax.annotation.Nullable;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.TypeCheckResult;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigSnapshot;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTransaction;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+
+public final class ConfigTransactionImpl implements ConfigTransaction {
+	private final ConfigTree tree;
+	// staged values, in staging order
+	private final Map<ConfigLeaf<?>, Object> staged = new LinkedHashMap<>();
+	private boolean committed;
+
+	public ConfigTransactionImpl(ConfigTree tree) {
+		this.tree = tree;
+	}
+
+	@Override
+	public ConfigTree getTree() {
+		return this.tree;
+	}
+
+	@Override
+	public <T> ConfigTransaction stage(ConfigLeaf<T> leaf, T value) {
+		if (this.committed) throw new IllegalStateException("Transaction already committed");
+
+		// values are applied under the lock of this transaction's tree, which must also guard the leaf
+		if (!this.isInTree(leaf)) throw new IllegalArgumentException("Leaf " + leaf.getName() + " does not belong to the tree of this transaction");
+
+		this.staged.put(leaf, value);
+		return this;
+	}
+
+	private boolean isInTree(ConfigNode node) {
+		for (ConfigBranch parent = node.getParent(); parent != null; parent = parent.getParent()) {
+			if (parent == this.tree) return true;
+		}
+
+		return false;
+	}
+
+	@Override
+	public ConfigSnapshot commit() throws FiberException {
+		if (this.committed) throw new IllegalStateException("Transaction already committed");
+
+		this.committed = true;
+		List<Change<?>> changes = new ArrayList<>(this.staged.size());
+		StringJoiner rejected = new StringJoiner(", ");
+
+		for (Map.Entry<ConfigLeaf<?>, Object> entry : this.staged.entrySet()) {
+			Change<?> change = Change.validate(entry.getKey(), entry.getValue());
+
+			if (change == null) {
+				rejected.add(entry.getKey().getName() + "=" + entry.getValue());
+			} else {
+				changes.add(change);
+			}
+		}
+
+		if (rejected.length() > 0) {
+			throw new FiberException("Transaction rejected, invalid values: " + rejected);
+		}
+
+		ConfigSnapshot snapshot;
+
+		synchronized (ConfigSnapshotImpl.lockOf(this.tree)) {
+			for (Change<?> change : changes) {
+				change.apply();
+			}
+
+			snapshot = ConfigSnapshotImpl.refresh(this.tree);
+		}
+
+		for (Change<?> change : changes) {
+			change.notifyListener();
+		}
+
+		return snapshot;
+	}
+
+	private static final class Change<T> {
+		private final ConfigLeaf<T> leaf;
+		private final T value;
+		@Nullable
+		private T oldValue;
+		// whether the leaf's listener must be notified separately
+		private boolean swapped;
+		// whether the concurrent leaf's queued notifications must be delivered
+		private boolean queued;
+
+		private Change(ConfigLeaf<T> leaf, T value) {
+			this.leaf = leaf;
+			this.value = value;
+		}
+
+		@Nullable
+		@SuppressWarnings("unchecked")
+		static <T> Change<T> validate(ConfigLeaf<T> leaf, Object staged) {
+			T value = (T) staged;
+			TypeCheckResult<T> result = leaf.getConfigType().test(value);
+
+			if (result.hasPassed()) {
+				return new Change<>(leaf, value);
+			}
+
+			return result.getCorrectedValue().map(corrected -> new Change<>(leaf, corrected)).orElse(null);
+		}
+
+		void apply() {
+			if (this.leaf instanceof ConfigLeafImpl) {
+				ConfigLeafImpl<T> impl = (ConfigLeafImpl<T>) this.leaf;
+
+				if (impl.isConcurrent()) {
+					// concurrent writers of the leaf are ordered by its own lock, which setValue also holds
+					synchronized (impl) {
+						this.swap(impl);
+
+						if (this.swapped) {
+							// keeps listeners notified in the order the leaf was changed
+							this.queued = impl.queueNotification(this.oldValue, this.value);
+							this.swapped = false;
+						}
+					}
+				} else {
+					this.swap(impl);
+				}
+			} else {
+				// foreign leaves cannot defer notifications
+				this.leaf.setValue(this.value);
+			}
+		}
+
+		private void swap(ConfigLeafImpl<T> impl) {
+			if (impl.isChange(impl.getValue(), this.value)) {
+				this.oldValue = impl.swapValue(this.value);
+				this.swapped = true;
+			}
+		}
+
+		void notifyListener() {
+			if (this.swapped) {
+				((ConfigLeafImpl<T>) this.leaf).notifyListeners(this.oldValue, this.value);
+			} else if (this.queued) {
+				((ConfigLeafImpl<T>) this.leaf).deliverNotifications();
+			}
+		}
+	}
+}
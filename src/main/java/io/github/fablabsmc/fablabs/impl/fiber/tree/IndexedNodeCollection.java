@@ -1,11 +1,14 @@
 package io.github.fablabsmc.fablabs.impl.fiber.tree;
 
 import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -15,14 +18,180 @@ import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.NodeCollection;
 
+/**
+ * A {@link NodeCollection} indexing nodes by name, which preserves insertion order.
+ *
+ * <p>A concurrent collection can be read from any thread without locking. Each modification
+ * copies the backing map and publishes the copy, so readers always see a consistent
+ * state, while writers are serialized.
+ */
 public class IndexedNodeCollection extends AbstractCollection<ConfigNode> implements NodeCollection {
+	private static final AtomicIntegerFieldUpdater<IndexedNodeCollection> TREE_MOD_COUNT = AtomicIntegerFieldUpdater.newUpdater(IndexedNodeCollection.class, "treeModCount");
+
 	// the node ordering is important, it will be kept in the config file
-	private final Map<String, ConfigNode> items = new LinkedHashMap<>();
+	// replaced on every modification by concurrent collections, mutated in place otherwise
+	private volatile Map<String, ConfigNode> items = new LinkedHashMap<>();
 	@Nullable
 	private final ConfigBranch owner;
+	private final boolean concurrent;
+	// incremented whenever a node is added or removed
+	private volatile int modCount;
+	// incremented whenever this collection or a descendant collection is modified,
+	// atomically, as descendants are modified while holding their own lock only
+	private volatile int treeModCount;
+	@Nullable
+	private volatile PathIndex pathIndex;
 
 	public IndexedNodeCollection(@Nullable ConfigBranch owner) {
+		this(owner, false);
+	}
+
+	/**
+	 * Creates a new {@code IndexedNodeCollection}.
+	 *
+	 * @param owner      the branch owning this collection, which will become the parent of added nodes
+	 * @param concurrent whether this collection may be read concurrently with modifications
+	 */
+	public IndexedNodeCollection(@Nullable ConfigBranch owner, boolean concurrent) {
 		this.owner = owner;
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Returns whether this collection may be read concurrently with modifications.
+	 */
+	public boolean isConcurrent() {
+		return this.concurrent;
+	}
+
+	/**
+	 * Returns the number of structural modifications this collection has gone through.
+	 *
+	 * <p>Any addition or removal of a node changes the returned value, so that
+	 * lookups made on this collection can be cached and cheaply revalidated.
+	 *
+	 * @return the modification count of this collection
+	 */
+	public int getModCount() {
+		return this.modCount;
+	}
+
+	/**
+	 * Returns the number of structural modifications this collection and the collections
+	 * of its descendants have gone through.
+	 *
+	 * <p>Any addition or removal of a node anywhere in the subtree changes the returned value.
+	 *
+	 * @return the modification count of this subtree
+	 */
+	public int getTreeModCount() {
+		return this.treeModCount;
+	}
+
+	/**
+	 * Returns a map that can be modified to change the contents of this collection.
+	 *
+	 * <p>Must be called while holding this collection's lock, and followed by {@link #publish(Map)}.
+	 */
+	private Map<String, ConfigNode> beginModification() {
+		return this.concurrent ? new LinkedHashMap<>(this.items) : this.items;
+	}
+
+	/**
+	 * Makes a modified map the new contents of this collection, and records the modification.
+	 *
+	 * <p>The path indices of this collection and of every collection
+	 * belonging to an ancestor of the owner are invalidated.
+	 */
+	private void publish(Map<String, ConfigNode> modified) {
+		this.items = modified;
+		this.modCount++;
+		IndexedNodeCollection collection = this;
+
+		while (collection != null) {
+			TREE_MOD_COUNT.incrementAndGet(collection);
+			ConfigBranch parent = collection.owner == null ? null : collection.owner.getParent();
+
+			if (parent instanceof ConfigBranchImpl) {
+				// ancestors must not be loaded just to be notified
+				collection = ((ConfigBranchImpl) parent).getLoadedItems();
+			} else {
+				collection = parent != null && parent.getItems() instanceof IndexedNodeCollection ? (IndexedNodeCollection) parent.getItems() : null;
+			}
+		}
+	}
+
+	/**
+	 * Records that the contents of the nodes in this collection were replaced without going through it,
+	 * as if a node had been added or removed.
+	 *
+	 * <p>Lookups cached against this collection and path indices of its ancestors are invalidated.
+	 */
+	void markModified() {
+		synchronized (this) {
+			this.publish(this.items);
+		}
+	}
+
+	/**
+	 * Finds a descendant of this collection by its path.
+	 *
+	 * <p>The index backing this method is built on first use, and kept until
+	 * a node is added to or removed from this collection or one of its descendants.
+	 * Branches whose {@linkplain ConfigBranchImpl#deferLoad(Runnable) load is pending} are not indexed,
+	 * so that only the branches on the looked up path are loaded.
+	 *
+	 * @param path the names of the nodes leading to the descendant, joined by dots
+	 * @return the descendant if found, otherwise {@code null}
+	 * @see io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree#lookupPath(String)
+	 */
+	@Nullable
+	public ConfigNode lookupPath(String path) {
+		PathIndex index = this.pathIndex;
+		int treeModCount = this.treeModCount;
+
+		if (index == null || index.treeModCount != treeModCount) {
+			index = new PathIndex(treeModCount);
+
+			// changes to foreign collections would not invalidate the index, so it is only kept if there are none
+			if (indexPaths(this, "", index)) {
+				// a modification made while indexing changes the modification count, so the index will not be reused
+				this.pathIndex = index;
+			}
+		}
+
+		return index.lookup(path);
+	}
+
+	/**
+	 * Adds every descendant of a collection to a path index.
+	 *
+	 * <p>When several nodes have the same path, because of names containing dots, the first one visited is kept.
+	 * The children of branches whose load is pending are not visited, as that would run the load.
+	 *
+	 * @return {@code true} if every visited collection is an {@code IndexedNodeCollection}
+	 */
+	private static boolean indexPaths(NodeCollection items, String prefix, PathIndex index) {
+		boolean indexed = items instanceof IndexedNodeCollection;
+
+		for (ConfigNode node : items) {
+			String path = prefix + node.getName();
+			index.paths.putIfAbsent(path, node);
+
+			if (node instanceof ConfigBranchImpl) {
+				ConfigBranchImpl branch = (ConfigBranchImpl) node;
+
+				if (branch.isLoadPending()) {
+					index.deferred.putIfAbsent(path, branch);
+				} else {
+					indexed &= indexPaths(branch.getLoadedItems(), path + '.', index);
+				}
+			} else if (node instanceof ConfigBranch) {
+				indexed &= indexPaths(((ConfigBranch) node).getItems(), path + '.', index);
+			}
+		}
+
+		return indexed;
 	}
 
 	@Nonnull
@@ -31,6 +200,7 @@ public class IndexedNodeCollection extends AbstractCollection<ConfigNode> implem
 		return new Iterator<ConfigNode>() {
 			@Nullable
 			private ConfigNode last;
+			// concurrent collections are iterated over a snapshot, which later modifications do not affect
 			private final Iterator<ConfigNode> backing = items.values().iterator();
 
 			@Override
@@ -47,9 +217,20 @@ public class IndexedNodeCollection extends AbstractCollection<ConfigNode> implem
 			@Override
 			public void remove() {
 				if (this.last == null) throw new IllegalStateException();
-				// order is important to avoid infinite recursion
-				this.backing.remove();
-				this.last.detach();
+
+				if (concurrent) {
+					IndexedNodeCollection.this.remove(this.last);
+				} else {
+					synchronized (IndexedNodeCollection.this) {
+						// order is important to avoid infinite recursion
+						this.backing.remove();
+						publish(items);
+					}
+
+					this.last.detach();
+				}
+
+				this.last = null;
 			}
 		};
 	}
@@ -68,17 +249,46 @@ public class IndexedNodeCollection extends AbstractCollection<ConfigNode> implem
 	public boolean add(ConfigNode item, boolean overwrite) throws DuplicateChildException {
 		Objects.requireNonNull(item);
 
-		if (overwrite) {
-			this.removeByName(item.getName());
-		} else if (this.items.containsKey(item.getName())) {
-			throw new DuplicateChildException("Attempt to replace node " + item.getName());
+		synchronized (this) {
+			if (overwrite) {
+				this.removeByName(item.getName());
+			} else if (this.items.containsKey(item.getName())) {
+				throw new DuplicateChildException("Attempt to replace node " + item.getName());
+			}
+
+			Map<String, ConfigNode> modified = this.beginModification();
+			modified.put(item.getName(), item);
+			this.publish(modified);
 		}
 
-		this.items.put(item.getName(), item);
 		item.attachTo(this.owner);
 		return true;
 	}
 
+	@Override
+	public boolean addAll(Collection<? extends ConfigNode> nodes) throws DuplicateChildException {
+		if (!this.concurrent) return super.addAll(nodes);
+
+		// copy the backing map only once
+		synchronized (this) {
+			Map<String, ConfigNode> modified = this.beginModification();
+
+			for (ConfigNode item : nodes) {
+				if (modified.putIfAbsent(Objects.requireNonNull(item).getName(), item) != null) {
+					throw new DuplicateChildException("Attempt to replace node " + item.getName());
+				}
+			}
+
+			this.publish(modified);
+		}
+
+		for (ConfigNode item : nodes) {
+			item.attachTo(this.owner);
+		}
+
+		return !nodes.isEmpty();
+	}
+
 	@Override
 	public boolean contains(@Nullable Object o) {
 		if (o instanceof ConfigNode) {
@@ -91,12 +301,15 @@ public class IndexedNodeCollection extends AbstractCollection<ConfigNode> implem
 	@Override
 	public boolean remove(@Nullable Object child) {
 		if (child instanceof ConfigNode) {
-			boolean removed = this.items.remove(((ConfigNode) child).getName(), child);
-
-			if (removed) {
-				((ConfigNode) child).detach();
-				return true;
+			synchronized (this) {
+				if (!this.contains(child)) return false;
+				Map<String, ConfigNode> modified = this.beginModification();
+				modified.remove(((ConfigNode) child).getName());
+				this.publish(modified);
 			}
+
+			((ConfigNode) child).detach();
+			return true;
 		}
 
 		return false;
@@ -115,12 +328,50 @@ public class IndexedNodeCollection extends AbstractCollection<ConfigNode> implem
 	@Override
 	@Nullable
 	public ConfigNode removeByName(String name) {
-		ConfigNode removed = this.items.remove(name);
+		ConfigNode removed;
 
-		if (removed != null) {
-			removed.detach();
+		synchronized (this) {
+			if (!this.items.containsKey(name)) return null;
+			Map<String, ConfigNode> modified = this.beginModification();
+			removed = modified.remove(name);
+			this.publish(modified);
 		}
 
+		removed.detach();
 		return removed;
 	}
+
+	/**
+	 * An index of descendants by path, valid as long as the tree modification count it was built for is current.
+	 */
+	private static final class PathIndex {
+		private final int treeModCount;
+		private final Map<String, ConfigNode> paths = new HashMap<>();
+		// branches whose load was pending while indexing, by path
+		private final Map<String, ConfigBranch> deferred = new HashMap<>();
+
+		PathIndex(int treeModCount) {
+			this.treeModCount = treeModCount;
+		}
+
+		@Nullable
+		ConfigNode lookup(String path) {
+			ConfigNode node = this.paths.get(path);
+
+			if (node != null || this.deferred.isEmpty()) return node;
+
+			// the descendants of deferred branches are looked up through them, which runs their load
+			for (int dot = path.indexOf('.'); dot >= 0; dot = path.indexOf('.', dot + 1)) {
+				ConfigBranch branch = this.deferred.get(path.substring(0, dot));
+
+				if (branch != null) {
+					node = branch.lookupPath(path.substring(dot + 1));
+
+					if (node != null) return node;
+				}
+			}
+
+			return null;
+		}
+	}
 }
@@ -0,0 +1,151 @@
+package io.github.fablabsmc.fablabs.impl.fiber.tree;
+
+import java.math.BigDecimal;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.DecimalSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.NumberConfigLeaf;
+
+/**
+ * A {@code ConfigLeaf} holding a number, which caches the primitive conversions of its value.
+ *
+ * <p>The {@code long} view is computed whenever the value changes, while the {@code double} view
+ * is computed on first access, as converting fractional {@code BigDecimal}s to doubles is costly.
+ * Concurrent leaves do not cache primitive views, as they could not be kept consistent
+ * with the value without locking.
+ */
+public final class NumberConfigLeafImpl extends ConfigLeafImpl<BigDecimal> implements NumberConfigLeaf {
+	// fields below are assigned from storeValue, which first runs from the super constructor
+	private long longValue;
+	private double doubleValue;
+	private boolean doubleValid;
+	// set by setDouble for the next storeValue, so that the cache is filled before listeners run
+	private boolean doublePending;
+	private double pendingDouble;
+
+	private final boolean longFast;
+	private final long longMin;
+	private final long longMax;
+	// 0 if there is no increment
+	private final long longStep;
+
+	private final boolean doubleFast;
+	private final double doubleMin;
+	private final double doubleMax;
+
+	public NumberConfigLeafImpl(@Nonnull String name, @Nonnull DecimalSerializableType type, @Nullable String comment, @Nonnull BigDecimal defaultValue, @Nonnull BiConsumer<BigDecimal, BigDecimal> listener) {
+		this(name, type, comment, defaultValue, listener, false);
+	}
+
+	public NumberConfigLeafImpl(@Nonnull String name, @Nonnull DecimalSerializableType type, @Nullable String comment, @Nonnull BigDecimal defaultValue, @Nonnull BiConsumer<BigDecimal, BigDecimal> listener, boolean concurrent) {
+		super(name, type, comment, defaultValue, listener, concurrent);
+		BigDecimal min = type.getMinimum();
+		BigDecimal max = type.getMaximum();
+		BigDecimal step = type.getIncrement();
+
+		this.longFast = fitsLong(min) && fitsLong(max) && fitsLong(step);
+		this.longMin = this.longFast && min != null ? min.longValue() : Long.MIN_VALUE;
+		this.longMax = this.longFast && max != null ? max.longValue() : Long.MAX_VALUE;
+		this.longStep = this.longFast && step != null ? step.longValue() : 0;
+
+		this.doubleFast = step == null && fitsDouble(min) && fitsDouble(max);
+		this.doubleMin = this.doubleFast && min != null ? min.doubleValue() : Double.NEGATIVE_INFINITY;
+		this.doubleMax = this.doubleFast && max != null ? max.doubleValue() : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Returns whether the given bound is null or an integer representable by a {@code long}.
+	 */
+	private static boolean fitsLong(@Nullable BigDecimal bound) {
+		if (bound == null) return true;
+
+		try {
+			bound.longValueExact();
+			return true;
+		} catch (ArithmeticException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns whether the given bound is null or exactly representable by a finite {@code double}.
+	 */
+	private static boolean fitsDouble(@Nullable BigDecimal bound) {
+		if (bound == null) return true;
+
+		double d = bound.doubleValue();
+		return !Double.isInfinite(d) && new BigDecimal(d).compareTo(bound) == 0;
+	}
+
+	@Override
+	BigDecimal storeValue(@Nonnull BigDecimal value) {
+		this.longValue = value.longValue();
+		this.doubleValue = this.pendingDouble;
+		this.doubleValid = this.doublePending;
+		this.doublePending = false;
+		return super.storeValue(value);
+	}
+
+	@Override
+	public int getInt() {
+		return (int) this.getLong();
+	}
+
+	@Override
+	public long getLong() {
+		if (this.isConcurrent()) return this.getValue().longValue();
+		return this.longValue;
+	}
+
+	@Override
+	public double getDouble() {
+		if (this.isConcurrent()) return this.getValue().doubleValue();
+
+		if (!this.doubleValid) {
+			this.doubleValue = this.getValue().doubleValue();
+			this.doubleValid = true;
+		}
+
+		return this.doubleValue;
+	}
+
+	@Override
+	public boolean setLong(long value) {
+		BigDecimal decimal = BigDecimal.valueOf(value);
+
+		// same checks as DecimalConstraintChecker, including its int-truncated remainder
+		if (this.longFast && value >= this.longMin && value <= this.longMax && (this.longStep == 0 || (int) (value % this.longStep) == 0)) {
+			this.applyValue(decimal);
+			return true;
+		}
+
+		return this.setValue(decimal);
+	}
+
+	@Override
+	public boolean setDouble(double value) {
+		BigDecimal decimal = BigDecimal.valueOf(value);
+
+		if (this.doubleFast && value >= this.doubleMin && value <= this.doubleMax) {
+			if (!this.isConcurrent()) {
+				// BigDecimal.valueOf(double) round trips exactly
+				this.pendingDouble = value;
+				this.doublePending = true;
+			}
+
+			try {
+				this.applyValue(decimal);
+			} finally {
+				// the value may have been equal to the current one, in which case nothing was stored
+				this.doublePending = false;
+			}
+
+			return true;
+		}
+
+		return this.setValue(decimal);
+	}
+}
@@ -17,6 +17,8 @@ public final class PropertyMirrorImpl<R, S> implements PropertyMirror<R> {
 	private S lastSerializedValue;
 	@Nullable
 	private R cachedValue;
+	// whether cachedValue is invalidated by a listener on the delegate
+	private boolean passive;
 
 	public PropertyMirrorImpl(ConfigType<R, S, ?> mirroredType) {
 		this.mirroredType = mirroredType;
@@ -38,10 +40,17 @@ public final class PropertyMirrorImpl<R, S> implements PropertyMirror<R> {
 
 		@SuppressWarnings("unchecked") Property<S> d = (Property<S>) delegate;
 		this.delegate = d;
+		this.cachedValue = null;
+		this.passive = d instanceof ConfigLeaf;
+
+		if (this.passive) {
+			// passive invalidation, the hook is not deferred by change batches like listeners are
+			if (d instanceof ConfigLeafImpl) {
+				((ConfigLeafImpl<S>) d).addInvalidationHook(() -> this.cachedValue = null);
+			} else {
+				((ConfigLeaf<S>) d).addChangeListener((old, cur) -> this.cachedValue = null);
+			}
 
-		if (d instanceof ConfigLeaf) {
-			// passive invalidation
-			((ConfigLeaf<S>) d).addChangeListener((old, cur) -> this.cachedValue = null);
 			this.lastSerializedValue = null;
 		} else {
 			// active invalidation, less efficient
@@ -71,12 +80,15 @@ public final class PropertyMirrorImpl<R, S> implements PropertyMirror<R> {
 	public R getValue() {
 		if (this.delegate == null) throw new IllegalStateException("No delegate property set for this mirror");
 
-		if (this.cachedValue == null || this.lastSerializedValue != null) {
+		if (this.cachedValue == null || !this.passive) {
 			S serializedValue = this.delegate.getValue();
 
 			if (cachedValue == null || !Objects.equals(this.lastSerializedValue, serializedValue)) {
 				this.cachedValue = this.mirroredType.toRuntimeType(serializedValue);
-				this.lastSerializedValue = serializedValue;
+
+				if (!this.passive) {
+					this.lastSerializedValue = serializedValue;
+				}
 			}
 		}
 
@@ -5,10 +5,13 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -17,7 +20,10 @@ import java.util.Objects;
 import java.util.function.BiConsumer;
 
 import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.RuntimeFiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.DecimalSerializableType;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.ListSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.SerializableType;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.StringSerializableType;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ListConfigType;
@@ -101,6 +107,69 @@ class AnnotatedSettingsTest {
 		assertTrue(pojo.listenedC, "Listener for C was triggered");
 	}
 
+	@Test
+	@DisplayName("Listener arguments and failures")
+	void testListenerArguments() throws FiberException {
+		ArgumentListenerPojo pojo = new ArgumentListenerPojo();
+		this.annotatedSettings.applyToNode(this.node, pojo);
+
+		PropertyMirror<Integer> property = PropertyMirror.create(ConfigTypes.INTEGER);
+		property.mirror((Property<?>) this.node.lookup("a"));
+		pojo.calls.clear();
+		property.setValue(10);
+		assertEquals(10, pojo.a, "Field was updated");
+		// listeners are called in member declaration order, which reflection does not guarantee
+		Collections.sort(pojo.calls);
+		assertEquals(Arrays.asList("a:5->10", "static a:10"), pojo.calls);
+
+		property.mirror((Property<?>) this.node.lookup("failing"));
+		RuntimeFiberException e = assertThrows(RuntimeFiberException.class, () -> property.setValue(1));
+		assertTrue(e.getCause() instanceof IllegalStateException, "Listener exception is the cause");
+	}
+
+	@Test
+	@DisplayName("Trees made from the same class are bound to their own POJO")
+	void testSameClass() throws FiberException {
+		ArgumentListenerPojo first = new ArgumentListenerPojo();
+		ConfigTree firstTree = this.annotatedSettings.makeTree(first);
+		ArgumentListenerPojo second = new ArgumentListenerPojo();
+		second.a = 7;
+		ConfigTree secondTree = this.annotatedSettings.makeTree(second);
+		first.calls.clear();
+		second.calls.clear();
+
+		PropertyMirror<Integer> property = PropertyMirror.create(ConfigTypes.INTEGER);
+		property.mirror((Property<?>) firstTree.lookup("a"));
+		assertEquals(5, property.getValue());
+		property.mirror((Property<?>) secondTree.lookup("a"));
+		assertEquals(7, property.getValue());
+		property.setValue(10);
+		assertEquals(5, first.a);
+		assertEquals(10, second.a);
+		assertEquals(Collections.emptyList(), first.calls);
+		assertTrue(second.calls.contains("a:7->10"), "Listener of the second POJO was triggered");
+
+		// invalid classes keep failing
+		assertThrows(FiberException.class, () -> this.annotatedSettings.makeTree(new FinalSettingPojo()));
+		assertThrows(FiberException.class, () -> this.annotatedSettings.makeTree(new FinalSettingPojo()));
+	}
+
+	@Test
+	@DisplayName("Identical field types share a config type")
+	void testSharedTypes() throws FiberException {
+		ConfigTree first = this.annotatedSettings.makeTree(new SharedTypesPojo());
+		ConfigTree second = this.annotatedSettings.makeTree(new OtherSharedTypesPojo());
+		SerializableType<?> a = ((ConfigLeaf<?>) first.lookup("a")).getConfigType();
+
+		assertSame(a, ((ConfigLeaf<?>) first.lookup("b")).getConfigType());
+		assertSame(a, ((ConfigLeaf<?>) second.lookup("a")).getConfigType());
+
+		// constraints on type arguments are part of the type
+		ListSerializableType<?> constrained = (ListSerializableType<?>) ((ConfigLeaf<?>) first.lookup("constrained")).getConfigType();
+		assertNotSame(a, constrained);
+		assertEquals(0, BigDecimal.valueOf(3).compareTo(((DecimalSerializableType) constrained.getElementType()).getMaximum()));
+	}
+
 	@Test
 	@DisplayName("Listener with different generics")
 	void testTwoGenerics() {
@@ -317,6 +386,44 @@ class AnnotatedSettingsTest {
 		}
 	}
 
+	private static class ArgumentListenerPojo {
+		private static transient ArgumentListenerPojo instance;
+		private transient List<String> calls = new ArrayList<>();
+
+		private int a = 5;
+		private int failing = 0;
+
+		ArgumentListenerPojo() {
+			instance = this;
+		}
+
+		@Listener("a")
+		public void aListener(Integer oldValue, Integer newValue) {
+			this.calls.add("a:" + oldValue + "->" + newValue);
+		}
+
+		@Listener("a")
+		private static void staticListener(Integer newValue) {
+			instance.calls.add("static a:" + newValue);
+		}
+
+		@Listener("failing")
+		private void failingListener(Integer newValue) {
+			// listeners are also called with the initial value
+			if (newValue > 0) throw new IllegalStateException();
+		}
+	}
+
+	private static class SharedTypesPojo {
+		private List<Integer> a = Collections.singletonList(1);
+		private List<Integer> b = Collections.singletonList(2);
+		private List<@Setting.Constrain.Range(min = 0, max = 3) Integer> constrained = Collections.singletonList(3);
+	}
+
+	private static class OtherSharedTypesPojo {
+		private List<Integer> a = Collections.singletonList(1);
+	}
+
 	private static class NonMatchingListenerPojo {
 		private int a = 5;
 
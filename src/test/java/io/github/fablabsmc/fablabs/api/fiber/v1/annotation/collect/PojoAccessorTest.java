@@ -0,0 +1,172 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.annotation.collect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.AnnotatedSettings;
+import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.Listener;
+import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.Setting;
+import io.github.fablabsmc.fablabs.api.fiber.v1.annotation.Settings;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigPatch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings({"unused", "FieldMayBeFinal"})
+class PojoAccessorTest {
+	@Test
+	@DisplayName("Accessors are generated for reachable members of @Settings classes")
+	void generated() throws ReflectiveOperationException {
+		@SuppressWarnings("unchecked") PojoAccessor<Object> accessor = (PojoAccessor<Object>) Class.forName(AccessedPojo.class.getName() + PojoAccessor.SUFFIX).newInstance();
+
+		assertTrue(accessor.fieldIndex("integer") >= 0);
+		assertTrue(accessor.methodIndex("oneArg", 1) >= 0);
+		assertEquals(-1, accessor.fieldIndex("reflective"));
+		assertEquals(-1, accessor.fieldIndex("calls"));
+		assertEquals(-1, accessor.methodIndex("oneArg", 2));
+
+		AccessedPojo pojo = new AccessedPojo();
+		accessor.set(pojo, accessor.fieldIndex("integer"), 7);
+		assertEquals(7, accessor.get(pojo, accessor.fieldIndex("integer")));
+	}
+
+	@Test
+	@DisplayName("Final fields are readable but not writable through accessors")
+	void finalFields() throws ReflectiveOperationException {
+		@SuppressWarnings("unchecked") PojoAccessor<Object> accessor = (PojoAccessor<Object>) Class.forName(Group.class.getName() + PojoAccessor.SUFFIX).newInstance();
+		Group group = new Group();
+		int index = accessor.fieldIndex("flagListener");
+
+		assertTrue(index >= 0);
+		assertSame(group.flagListener, accessor.get(group, index));
+		assertThrows(IndexOutOfBoundsException.class, () -> accessor.set(group, index, null));
+	}
+
+	@Test
+	@DisplayName("Trees match those generated through reflection")
+	void identical() throws FiberException {
+		ConfigBranch accessed = AnnotatedSettings.DEFAULT_SETTINGS.makeTree(new AccessedPojo());
+		ConfigBranch reflected = AnnotatedSettings.DEFAULT_SETTINGS.makeTree(new ReflectivePojo());
+
+		assertTrue(ConfigPatch.diff(reflected, accessed).isEmpty());
+		assertEquals(reflected.lookup("decimal").getClass(), accessed.lookup("decimal").getClass());
+	}
+
+	@Test
+	@DisplayName("Leaves update the POJO and invoke listeners")
+	@SuppressWarnings("unchecked")
+	void update() throws FiberException {
+		AccessedPojo pojo = new AccessedPojo();
+		ConfigBranch tree = AnnotatedSettings.DEFAULT_SETTINGS.makeTree(pojo);
+		pojo.calls.clear();
+
+		((ConfigLeaf<BigDecimal>) tree.lookup("integer")).setValue(BigDecimal.valueOf(8));
+		((ConfigLeaf<String>) tree.lookup("text")).setValue("world");
+		((ConfigLeaf<BigDecimal>) tree.lookup("reflective")).setValue(BigDecimal.valueOf(4));
+		((ConfigLeaf<Boolean>) tree.lookupBranch("group").lookup("flag")).setValue(false);
+
+		assertEquals(8, pojo.integer);
+		assertEquals("world", pojo.text);
+		assertEquals(4, pojo.reflective);
+		assertEquals(false, pojo.group.flag);
+		// listener methods are collected before listener fields
+		assertEquals(Arrays.asList("one 8", "field 8", "text hello->world"), pojo.calls);
+	}
+
+	@Test
+	@DisplayName("Members of superclasses are not accessed through the accessor of a subclass")
+	@SuppressWarnings("unchecked")
+	void superclassMembers() throws FiberException {
+		AccessedSubPojo pojo = new AccessedSubPojo();
+		ConfigBranch tree = AnnotatedSettings.builder().collectMembersRecursively().build().makeTree(pojo);
+		pojo.calls.clear();
+
+		((ConfigLeaf<BigDecimal>) tree.lookup("count")).setValue(BigDecimal.valueOf(2));
+
+		assertEquals(2, pojo.count);
+		pojo.calls.sort(null);
+		assertEquals(Arrays.asList("base field 2", "base method 2", "sub field 2", "sub method 2"), pojo.calls);
+	}
+
+	@Settings
+	static class AccessedPojo {
+		int integer = 5;
+		@Setting.Constrain.Range(min = 0, max = 10)
+		double decimal = 0.5;
+		String text = "hello";
+		List<Integer> list = Arrays.asList(1, 2);
+		int[] array = {1, 2};
+		private int reflective = 3;
+		@Setting.Group
+		Group group = new Group();
+
+		transient List<String> calls = new ArrayList<>();
+
+		@Listener("integer")
+		BiConsumer<Integer, Integer> fieldListener = (oldValue, newValue) -> this.calls.add("field " + newValue);
+
+		@Listener("integer")
+		void oneArg(Integer newValue) {
+			this.calls.add("one " + newValue);
+		}
+
+		@Listener("text")
+		void twoArgs(String oldValue, String newValue) {
+			this.calls.add("text " + oldValue + "->" + newValue);
+		}
+	}
+
+	static class ReflectivePojo {
+		int integer = 5;
+		@Setting.Constrain.Range(min = 0, max = 10)
+		double decimal = 0.5;
+		String text = "hello";
+		List<Integer> list = Arrays.asList(1, 2);
+		int[] array = {1, 2};
+		private int reflective = 3;
+		@Setting.Group
+		Group group = new Group();
+	}
+
+	@Settings
+	static class Group {
+		boolean flag = true;
+
+		@Listener("flag")
+		final BiConsumer<Boolean, Boolean> flagListener = (oldValue, newValue) -> { };
+	}
+
+	static class BasePojo {
+		transient List<String> calls = new ArrayList<>();
+		int count = 1;
+
+		@Listener("count")
+		private BiConsumer<Integer, Integer> listener = (oldValue, newValue) -> this.calls.add("base field " + newValue);
+
+		@Listener("count")
+		private void changed(Integer newValue) {
+			this.calls.add("base method " + newValue);
+		}
+	}
+
+	@Settings
+	static class AccessedSubPojo extends BasePojo {
+		@Listener("count")
+		BiConsumer<Integer, Integer> listener = (oldValue, newValue) -> this.calls.add("sub field " + newValue);
+
+		@Listener("count")
+		void changed(Integer newValue) {
+			this.calls.add("sub method " + newValue);
+		}
+	}
+}
@@ -1,10 +1,19 @@
 package io.github.fablabsmc.fablabs.api.fiber.v1.schema.type;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -46,4 +55,41 @@ class SerializableTypesTest {
 		assertTrue(typeF.isAssignableFrom(typeG));
 		assertTrue(typeG.isAssignableFrom(typeF));
 	}
+
+	@DisplayName("Test type interning")
+	@Test
+	void testInterning() {
+		StringSerializableType string = SerializableType.intern(new StringSerializableType(0, 10, null));
+		StringSerializableType equalString = new StringSerializableType(0, 10, null);
+		assertNotSame(string, equalString);
+		assertEquals(string, equalString);
+		assertEquals(string.hashCode(), equalString.hashCode());
+		assertSame(string, SerializableType.intern(equalString));
+		assertNotSame(string, SerializableType.intern(new StringSerializableType(0, 11, null)));
+
+		ListSerializableType<String> list = new ListSerializableType<>(new StringSerializableType(0, 10, null));
+		assertSame(string, list.getElementType());
+		MapSerializableType<String> map = new MapSerializableType<>(new StringSerializableType(0, 10, null));
+		assertSame(string, map.getValueType());
+		RecordSerializableType record = new RecordSerializableType(Collections.singletonMap("a", new StringSerializableType(0, 10, null)));
+		assertSame(string, record.getFields().get("a"));
+		assertThrows(UnsupportedOperationException.class, () -> record.getFields().clear());
+
+		assertTrue(list.isAssignableFrom(SerializableType.intern(new ListSerializableType<>(string))));
+
+		MapSerializableType<String> keyed = new MapSerializableType<>(new StringSerializableType(1, 3, null), string);
+		assertNotEquals(SerializableType.intern(map), keyed);
+		assertSame(keyed.getKeyType(), SerializableType.intern(keyed).getKeyType());
+
+		Map<String, SerializableType<?>> fields = new LinkedHashMap<>();
+		fields.put("a", string);
+		fields.put("b", BooleanSerializableType.BOOLEAN);
+		RecordSerializableType ab = SerializableType.intern(new RecordSerializableType(fields));
+		fields.remove("a");
+		fields.put("a", string);
+		RecordSerializableType ba = SerializableType.intern(new RecordSerializableType(fields));
+		assertNotEquals(ab, ba);
+		assertNotSame(ab, ba);
+		assertEquals(Arrays.asList("b", "a"), new ArrayList<>(ba.getFields().keySet()));
+	}
 }
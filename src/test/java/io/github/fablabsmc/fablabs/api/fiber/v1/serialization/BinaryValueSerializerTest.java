@@ -0,0 +1,219 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.function.Function;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigTreeBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.ValueDeserializationException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.RecordSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.SerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.RecordConfigType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BinaryValueSerializerTest {
+	enum TestEnum { A, B }
+
+	private static final RecordConfigType<Map<String, Object>> RECORD_TYPE;
+
+	static {
+		Map<String, SerializableType<?>> fields = new LinkedHashMap<>();
+		fields.put("I", ConfigTypes.INTEGER.getSerializedType());
+		fields.put("S", ConfigTypes.STRING.getSerializedType());
+		RECORD_TYPE = new RecordConfigType<>(new RecordSerializableType(fields), Map.class, Function.identity(), Function.identity());
+	}
+
+	/**
+	 * Builds a tree holding a value of every type in {@link ConfigTypes}, with two distinct sets of values.
+	 */
+	private static ConfigTree allTypes(boolean alt) {
+		Map<String, Object> record = new LinkedHashMap<>();
+		record.put("I", BigDecimal.valueOf(alt ? 1 : -1));
+		record.put("S", alt ? "one" : "minus one");
+		ConfigTreeBuilder builder = ConfigTree.builder()
+				.withValue("boolean", ConfigTypes.BOOLEAN, alt)
+				.withValue("decimal", ConfigTypes.UNBOUNDED_DECIMAL, alt ? new BigDecimal("1e-40") : new BigDecimal("123456789012345678901234567890.5"))
+				.withValue("bigint", ConfigTypes.UNBOUNDED_INTEGER, alt ? BigInteger.ZERO : BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE))
+				.withValue("byte", ConfigTypes.BYTE, alt ? Byte.MIN_VALUE : Byte.MAX_VALUE)
+				.withValue("short", ConfigTypes.SHORT, alt ? (short) -300 : (short) 300)
+				.withValue("int", ConfigTypes.INTEGER, alt ? Integer.MIN_VALUE : 42)
+				.withValue("long", ConfigTypes.LONG, alt ? Long.MAX_VALUE : -1L)
+				.withValue("float", ConfigTypes.FLOAT, alt ? 0.5f : -2.25f)
+				.withValue("double", ConfigTypes.DOUBLE, alt ? Math.PI : 1e300)
+				.withValue("natural", ConfigTypes.NATURAL, alt ? 0 : 7)
+				.withValue("string", ConfigTypes.STRING, alt ? "" : "héllo ☃")
+				.withValue("char", ConfigTypes.CHARACTER, alt ? 'x' : 'é')
+				.withValue("enum", ConfigTypes.makeEnum(TestEnum.class), alt ? TestEnum.A : TestEnum.B)
+				.withValue("list", ConfigTypes.makeList(ConfigTypes.STRING), alt ? Collections.emptyList() : Arrays.asList("a", "b"))
+				.withValue("set", ConfigTypes.makeSet(ConfigTypes.INTEGER), new LinkedHashSet<>(alt ? Arrays.asList(3, 1) : Collections.singletonList(2)))
+				.withValue("intArray", ConfigTypes.makeIntArray(ConfigTypes.INTEGER), alt ? new int[] {1} : new int[] {2, 3})
+				.withValue("array", ConfigTypes.makeArray(ConfigTypes.BOOLEAN), alt ? new Boolean[] {true} : new Boolean[0])
+				.withValue("map", ConfigTypes.makeMap(ConfigTypes.STRING, ConfigTypes.makeList(ConfigTypes.DOUBLE)), Collections.singletonMap(alt ? "k" : "l", Collections.singletonList(alt ? 1.0 : 2.0)))
+				.withValue("record", RECORD_TYPE, record);
+		builder.fork("child")
+				.withValue("nested", ConfigTypes.INTEGER, alt ? 5 : 6)
+				.fork("empty").finishBranch()
+				.finishBranch();
+		builder.fork("separate").withSeparateSerialization()
+				.withValue("skipped", ConfigTypes.INTEGER, alt ? 8 : 9)
+				.finishBranch();
+		return builder.build();
+	}
+
+	private static void assertSameValues(ConfigTree expected, ConfigTree actual) {
+		for (ConfigNode node : expected.getItems()) {
+			ConfigNode other = actual.lookup(node.getName());
+
+			if (node instanceof ConfigBranch) {
+				if (!((ConfigBranch) node).isSerializedSeparately()) {
+					assertSameValues((ConfigBranch) node, (ConfigBranch) other);
+				}
+			} else {
+				assertEquals(((ConfigLeaf<?>) node).getValue(), ((ConfigLeaf<?>) other).getValue(), node.getName());
+			}
+		}
+	}
+
+	private static byte[] roundTrip(ValueSerializer<?, ?> serializer) throws IOException, FiberException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ConfigTree source = allTypes(false);
+		ConfigTree dest = allTypes(true);
+
+		FiberSerialization.serialize(source, bos, serializer);
+		FiberSerialization.deserialize(dest, new ByteArrayInputStream(bos.toByteArray()), serializer);
+		assertSameValues(source, dest);
+		assertEquals(8, dest.lookupBranch("separate").lookupLeaf("skipped", ConfigTypes.INTEGER.getSerializedType()).getValue().intValue(), "Separate branch deserialized");
+		return bos.toByteArray();
+	}
+
+	@Test
+	@DisplayName("All types, self-describing")
+	void roundTripTagged() throws IOException, FiberException {
+		roundTrip(new BinaryValueSerializer());
+	}
+
+	@Test
+	@DisplayName("All types, schema-aware")
+	void roundTripSchema() throws IOException, FiberException {
+		byte[] tagged = roundTrip(new BinaryValueSerializer());
+		byte[] schema = roundTrip(new BinaryValueSerializer(allTypes(false)));
+		assertTrue(schema.length < tagged.length, "Schema-aware encoding is not smaller");
+	}
+
+	@Test
+	@DisplayName("Unknown entries are ignored")
+	void unknownEntries() throws IOException, FiberException {
+		ConfigTree source = ConfigTree.builder()
+				.withValue("old", ConfigTypes.makeList(ConfigTypes.STRING), Collections.singletonList("x"))
+				.withValue("kept", ConfigTypes.INTEGER, 10)
+				.build();
+		ConfigTree dest = ConfigTree.builder()
+				.withValue("kept", ConfigTypes.INTEGER, 20)
+				.build();
+		BinaryValueSerializer serializer = new BinaryValueSerializer();
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+		FiberSerialization.serialize(source, bos, serializer);
+		FiberSerialization.deserialize(dest, new ByteArrayInputStream(bos.toByteArray()), serializer);
+		assertEquals(BigDecimal.TEN, dest.lookupLeaf("kept", ConfigTypes.INTEGER.getSerializedType()).getValue());
+	}
+
+	@Test
+	@DisplayName("Elements can be read more than once")
+	void rereadElements() throws IOException, FiberException {
+		BinaryValueSerializer serializer = new BinaryValueSerializer();
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		FiberSerialization.serialize(allTypes(false), bos, serializer);
+		Map<String, BinaryValueSerializer.Element> target = serializer.readTarget(new ByteArrayInputStream(bos.toByteArray()));
+		BinaryValueSerializer.Element string = target.get("string");
+
+		assertEquals("héllo ☃", serializer.deserializeString(string, ConfigTypes.STRING.getSerializedType()));
+		assertEquals("héllo ☃", serializer.deserializeString(string, ConfigTypes.STRING.getSerializedType()));
+		assertEquals(serializer.subElements(target.get("child")).next().getKey(), serializer.subElements(target.get("child")).next().getKey());
+	}
+
+	@Test
+	@DisplayName("Mismatched input is rejected")
+	void mismatch() throws IOException {
+		ConfigTree tree = ConfigTree.builder()
+				.withValue("a", ConfigTypes.INTEGER, 1)
+				.build();
+		ConfigTree other = ConfigTree.builder()
+				.withValue("b", ConfigTypes.INTEGER, 1)
+				.build();
+		ByteArrayOutputStream tagged = new ByteArrayOutputStream();
+		ByteArrayOutputStream schema = new ByteArrayOutputStream();
+		FiberSerialization.serialize(tree, tagged, new BinaryValueSerializer());
+		FiberSerialization.serialize(tree, schema, new BinaryValueSerializer(tree));
+
+		assertThrows(ValueDeserializationException.class, () -> FiberSerialization.deserialize(other, new ByteArrayInputStream(schema.toByteArray()), new BinaryValueSerializer(other)));
+		assertThrows(ValueDeserializationException.class, () -> FiberSerialization.deserialize(tree, new ByteArrayInputStream(tagged.toByteArray()), new BinaryValueSerializer(tree)));
+		assertThrows(ValueDeserializationException.class, () -> FiberSerialization.deserialize(tree, new ByteArrayInputStream(schema.toByteArray()), new BinaryValueSerializer()));
+
+		// a tree other than the schema is stamped with its own fingerprint
+		ByteArrayOutputStream foreign = new ByteArrayOutputStream();
+		FiberSerialization.serialize(other, foreign, new BinaryValueSerializer(tree));
+		assertThrows(ValueDeserializationException.class, () -> FiberSerialization.deserialize(tree, new ByteArrayInputStream(foreign.toByteArray()), new BinaryValueSerializer(tree)));
+
+		byte[] truncated = Arrays.copyOf(tagged.toByteArray(), tagged.size() - 1);
+		assertThrows(ValueDeserializationException.class, () -> FiberSerialization.deserialize(tree, new ByteArrayInputStream(truncated), new BinaryValueSerializer()));
+	}
+
+	@Test
+	@DisplayName("Schema fingerprints cover leaf types")
+	void typeMismatch() throws IOException {
+		ConfigTree ints = ConfigTree.builder()
+				.withValue("a", ConfigTypes.makeList(ConfigTypes.INTEGER), Collections.singletonList(1))
+				.build();
+		ConfigTree strings = ConfigTree.builder()
+				.withValue("a", ConfigTypes.makeList(ConfigTypes.STRING), Collections.singletonList("1"))
+				.build();
+		Map<String, SerializableType<?>> fields = new LinkedHashMap<>();
+		fields.put("S", ConfigTypes.STRING.getSerializedType());
+		fields.put("I", ConfigTypes.INTEGER.getSerializedType());
+		Map<String, Object> record = new LinkedHashMap<>();
+		record.put("I", BigDecimal.ONE);
+		record.put("S", "one");
+		ConfigTree records = ConfigTree.builder()
+				.withValue("a", RECORD_TYPE, record)
+				.build();
+		ConfigTree reordered = ConfigTree.builder()
+				.withValue("a", new RecordConfigType<>(new RecordSerializableType(fields), Map.class, Function.identity(), Function.identity()), record)
+				.build();
+		ConfigTree enums = ConfigTree.builder()
+				.withValue("a", ConfigTypes.makeEnum(TestEnum.class), TestEnum.A)
+				.build();
+		ConfigTree otherEnums = ConfigTree.builder()
+				.withValue("a", ConfigTypes.makeEnum(Thread.State.class), Thread.State.NEW)
+				.build();
+
+		assertMismatch(ints, strings);
+		assertMismatch(records, reordered);
+		assertMismatch(enums, otherEnums);
+	}
+
+	private static void assertMismatch(ConfigTree written, ConfigTree read) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FiberSerialization.serialize(written, out, new BinaryValueSerializer(written));
+		assertThrows(ValueDeserializationException.class, () -> FiberSerialization.deserialize(read, new ByteArrayInputStream(out.toByteArray()), new BinaryValueSerializer(read)));
+	}
+}
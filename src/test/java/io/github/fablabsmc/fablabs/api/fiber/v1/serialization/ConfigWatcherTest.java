@@ -0,0 +1,75 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConfigWatcherTest {
+	private static ConfigBranch tree(String a, String b, String c, List<String> changes) {
+		return ConfigTree.builder()
+				.beginValue("a", ConfigTypes.STRING, a).withListener((o, n) -> changes.add("a=" + n)).finishValue()
+				.beginValue("b", ConfigTypes.STRING, b).withListener((o, n) -> changes.add("b=" + n)).finishValue()
+				.fork("separate")
+				.withSeparateSerialization()
+				.beginValue("c", ConfigTypes.STRING, c).withListener((o, n) -> changes.add("c=" + n)).finishValue()
+				.finishBranch()
+				.build();
+	}
+
+	private static void await(LongSupplier count, long expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+
+		while (count.getAsLong() < expected && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+
+		assertEquals(expected, count.getAsLong());
+	}
+
+	@Test
+	@DisplayName("Modified files are reloaded, updating differing leaves only")
+	void reload(@TempDir Path dir) throws IOException, FiberException, InterruptedException {
+		Path file = dir.resolve("config.fiber");
+		List<String> changes = Collections.synchronizedList(new ArrayList<>());
+		ConfigBranch live = tree("a", "b", "c", changes);
+		SplitFileSerialization.serialize(live, file, new BinaryValueSerializer());
+		changes.clear();
+		List<Exception> errors = Collections.synchronizedList(new ArrayList<>());
+
+		try (ConfigWatcher watcher = ConfigWatcher.watch(live, file, new BinaryValueSerializer(), 200, TimeUnit.MILLISECONDS, errors::add)) {
+			// both files are modified in a burst, but only one leaf of each differs
+			SplitFileSerialization.serialize(tree("a", "b2", "c2", new ArrayList<>()), file, new BinaryValueSerializer());
+
+			await(watcher::getReloadCount, 1);
+			assertEquals(Collections.emptyList(), errors);
+			assertEquals(2, watcher.getLastUpdatedLeaves());
+			assertEquals(Arrays.asList("b=b2", "c=c2"), changes);
+			assertEquals("b2", ((ConfigLeaf<?>) live.lookup("b")).getValue());
+			assertTrue(watcher.getLastLatency(TimeUnit.MILLISECONDS) >= 200);
+			assertTrue(watcher.getMaxLatency(TimeUnit.NANOSECONDS) >= watcher.getAverageLatency(TimeUnit.NANOSECONDS));
+
+			// invalid content is reported, and leaves the tree unchanged
+			FiberSerialization.serialize(ConfigTree.builder().withValue("a", ConfigTypes.INTEGER, 5).build(), file, new BinaryValueSerializer());
+			await(watcher::getFailureCount, 1);
+			assertEquals(1, errors.size());
+			assertEquals("a", ((ConfigLeaf<?>) live.lookup("a")).getValue());
+		}
+	}
+}
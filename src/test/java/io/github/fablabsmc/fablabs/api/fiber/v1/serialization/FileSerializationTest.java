@@ -0,0 +1,95 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.StringSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileSerializationTest {
+	private static ConfigBranch tree(String name, int count) {
+		return ConfigTree.builder()
+				.withValue("name", ConfigTypes.STRING, name)
+				.fork("child")
+				.withValue("count", ConfigTypes.INTEGER, count)
+				.withValue("tags", ConfigTypes.makeList(ConfigTypes.STRING), Arrays.asList(name, "tag"))
+				.finishBranch()
+				.build();
+	}
+
+	private static List<Path> list(Path dir) throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.collect(Collectors.toList());
+		}
+	}
+
+	@Test
+	@DisplayName("Trees round trip through files")
+	void roundTrip(@TempDir Path dir) throws IOException, FiberException {
+		Path file = dir.resolve("sub").resolve("config.fiber");
+		FiberSerialization.serialize(tree("first", 1), file, new BinaryValueSerializer());
+		FiberSerialization.serialize(tree("\u00fcn\u00efcode", 2), file, new BinaryValueSerializer());
+		assertEquals(Collections.singletonList(file), list(file.getParent()));
+
+		ConfigBranch read = tree("default", 0);
+		FiberSerialization.deserialize(read, file, new BinaryValueSerializer());
+		assertEquals("\u00fcn\u00efcode", ((ConfigLeaf<?>) read.lookup("name")).getValue());
+		assertEquals(BigDecimal.valueOf(2), ((ConfigLeaf<?>) read.lookupPath("child.count")).getValue());
+		assertEquals(Arrays.asList("\u00fcn\u00efcode", "tag"), ((ConfigLeaf<?>) read.lookupPath("child.tags")).getValue());
+	}
+
+	@Test
+	@DisplayName("Failed saves leave the previous file intact")
+	void failedSave(@TempDir Path dir) throws IOException, FiberException {
+		Path file = dir.resolve("config.fiber");
+		FiberSerialization.serialize(tree("saved", 1), file, new BinaryValueSerializer());
+		byte[] saved = Files.readAllBytes(file);
+
+		BinaryValueSerializer failing = new BinaryValueSerializer() {
+			@Override
+			public Element serializeString(String value, StringSerializableType type) {
+				throw new IllegalStateException("boom");
+			}
+		};
+
+		assertThrows(IllegalStateException.class, () -> FiberSerialization.serialize(tree("lost", 2), file, failing));
+		assertEquals(Collections.singletonList(file), list(dir));
+		assertArrayEquals(saved, Files.readAllBytes(file));
+	}
+
+	@Test
+	@DisplayName("Saves keep the permissions of the replaced file")
+	void permissions(@TempDir Path dir) throws IOException {
+		assumeTrue(Files.getFileAttributeView(dir, PosixFileAttributeView.class) != null);
+		Path file = dir.resolve("config.fiber");
+		FiberSerialization.serialize(tree("first", 1), file, new BinaryValueSerializer());
+		Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+		Files.setPosixFilePermissions(file, permissions);
+
+		FiberSerialization.serialize(tree("second", 2), file, new BinaryValueSerializer());
+		assertEquals(permissions, Files.getPosixFilePermissions(file));
+	}
+}
@@ -0,0 +1,102 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigLeafBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.DecimalSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.StringSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.PropertyMirror;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class IncrementalSerializationTest {
+	private static final class CountingSerializer extends BinaryValueSerializer {
+		int targets;
+		int values;
+
+		@Override
+		public Map<String, Element> newTarget() {
+			this.targets++;
+			return super.newTarget();
+		}
+
+		@Override
+		public Element serializeNumber(BigDecimal value, DecimalSerializableType type) {
+			this.values++;
+			return super.serializeNumber(value, type);
+		}
+
+		@Override
+		public Element serializeString(String value, StringSerializableType type) {
+			this.values++;
+			return super.serializeString(value, type);
+		}
+	}
+
+	private static byte[] serialize(ConfigTree tree, ValueSerializer<?, ?> ctx) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FiberSerialization.serialize(tree, out, ctx);
+		return out.toByteArray();
+	}
+
+	@Test
+	@DisplayName("Only modified subtrees are serialized again")
+	void incremental() throws IOException, FiberException {
+		PropertyMirror<Integer> y = PropertyMirror.create(ConfigTypes.INTEGER);
+		ConfigBranch tree = ConfigTree.builder()
+				.fork("a")
+				.withValue("x", ConfigTypes.STRING, "x")
+				.fork("b")
+				.beginValue("y", ConfigTypes.INTEGER, 1)
+				.finishValue(y::mirror)
+				.finishBranch()
+				.finishBranch()
+				.fork("c")
+				.withValue("z", ConfigTypes.STRING, "z")
+				.finishBranch()
+				.build();
+		CountingSerializer ctx = new CountingSerializer();
+
+		byte[] first = serialize(tree, ctx);
+		assertEquals(4, ctx.targets);
+		assertEquals(3, ctx.values);
+
+		assertArrayEquals(first, serialize(tree, ctx));
+		assertEquals(5, ctx.targets);
+		assertEquals(3, ctx.values);
+
+		// the root, a and a.b are serialized again, and only y is converted
+		y.setValue(2);
+		byte[] modified = serialize(tree, ctx);
+		assertEquals(8, ctx.targets);
+		assertEquals(4, ctx.values);
+
+		tree.lookupBranch("c").getItems().add(ConfigLeafBuilder.create(null, "w", ConfigTypes.STRING, "w").build());
+		serialize(tree, ctx);
+		assertEquals(10, ctx.targets);
+		assertEquals(5, ctx.values);
+
+		PropertyMirror<Integer> copy = PropertyMirror.create(ConfigTypes.INTEGER);
+		ConfigTree other = ConfigTree.builder()
+				.fork("a")
+				.fork("b")
+				.beginValue("y", ConfigTypes.INTEGER, 0)
+				.finishValue(copy::mirror)
+				.finishBranch()
+				.finishBranch()
+				.build();
+		FiberSerialization.deserialize(other, new ByteArrayInputStream(modified), new BinaryValueSerializer());
+		assertEquals(2, copy.getValue());
+	}
+}
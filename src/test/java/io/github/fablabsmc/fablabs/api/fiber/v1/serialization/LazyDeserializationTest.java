@@ -0,0 +1,187 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.RuntimeFiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigQuery;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigSnapshot;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import io.github.fablabsmc.fablabs.impl.fiber.tree.ConfigBranchImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LazyDeserializationTest {
+	private static byte[] serialize(ConfigTree tree) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FiberSerialization.serialize(tree, out, new BinaryValueSerializer());
+		return out.toByteArray();
+	}
+
+	@Test
+	@DisplayName("Branch values are converted on first lookup")
+	void deferred() throws IOException, FiberException {
+		byte[] data = serialize(ConfigTree.builder()
+				.withValue("a", ConfigTypes.INTEGER, 1)
+				.fork("b")
+				.withValue("c", ConfigTypes.INTEGER, 2)
+				.fork("d")
+				.withValue("e", ConfigTypes.INTEGER, 3)
+				.finishBranch()
+				.finishBranch()
+				.build());
+		List<String> changes = new ArrayList<>();
+		ConfigBranch tree = ConfigTree.builder()
+				.beginValue("a", ConfigTypes.INTEGER, 0).withListener((o, n) -> changes.add("a")).finishValue()
+				.fork("b")
+				.beginValue("c", ConfigTypes.INTEGER, 0).withListener((o, n) -> changes.add("c")).finishValue()
+				.fork("d")
+				.beginValue("e", ConfigTypes.INTEGER, 0).withListener((o, n) -> changes.add("e")).finishValue()
+				.finishBranch()
+				.finishBranch()
+				.build();
+		ConfigBranchImpl b = (ConfigBranchImpl) tree.lookupBranch("b");
+		ConfigBranchImpl d = (ConfigBranchImpl) b.lookupBranch("d");
+		changes.clear();
+
+		FiberSerialization.deserializeLazily(tree, new ByteArrayInputStream(data), new BinaryValueSerializer());
+		assertEquals(BigDecimal.ONE, tree.lookupLeaf("a", ConfigTypes.INTEGER.getSerializedType()).getValue());
+		assertEquals(1, changes.size());
+		assertTrue(b.isLoadPending());
+		assertFalse(d.isLoadPending());
+
+		assertEquals(BigDecimal.valueOf(2), b.lookupLeaf("c", ConfigTypes.INTEGER.getSerializedType()).getValue());
+		assertEquals(2, changes.size());
+		assertFalse(b.isLoadPending());
+		assertTrue(d.isLoadPending());
+
+		assertEquals(BigDecimal.valueOf(3), ((ConfigLeaf<?>) d.lookup("e")).getValue());
+		assertEquals(3, changes.size());
+	}
+
+	@Test
+	@DisplayName("Path lookups only load the branches on the path")
+	void pathLookup() throws IOException, FiberException {
+		ConfigBranch source = ConfigTree.builder()
+				.fork("b")
+				.withValue("c", ConfigTypes.INTEGER, 2)
+				.fork("d")
+				.withValue("e", ConfigTypes.INTEGER, 3)
+				.finishBranch()
+				.finishBranch()
+				.fork("f")
+				.withValue("g", ConfigTypes.INTEGER, 4)
+				.finishBranch()
+				.build();
+		byte[] data = serialize(source);
+		ConfigBranch tree = ConfigTree.builder()
+				.fork("b")
+				.withValue("c", ConfigTypes.INTEGER, 0)
+				.fork("d")
+				.withValue("e", ConfigTypes.INTEGER, 0)
+				.finishBranch()
+				.finishBranch()
+				.fork("f")
+				.withValue("g", ConfigTypes.INTEGER, 0)
+				.finishBranch()
+				.build();
+		ConfigBranchImpl b = (ConfigBranchImpl) tree.lookupBranch("b");
+		ConfigBranchImpl d = (ConfigBranchImpl) b.lookupBranch("d");
+		ConfigBranchImpl f = (ConfigBranchImpl) tree.lookupBranch("f");
+		// builds the path index before the loads are deferred
+		assertEquals(d, tree.lookupPath("b.d"));
+
+		FiberSerialization.deserializeLazily(tree, new ByteArrayInputStream(data), new BinaryValueSerializer());
+		assertEquals(BigDecimal.valueOf(2), ((ConfigLeaf<?>) tree.lookupPath("b.c")).getValue());
+		assertFalse(b.isLoadPending());
+		assertTrue(d.isLoadPending());
+		assertTrue(f.isLoadPending());
+
+		assertEquals(BigDecimal.valueOf(3), ((ConfigLeaf<?>) tree.lookupPath("b.d.e")).getValue());
+		assertFalse(d.isLoadPending());
+		assertTrue(f.isLoadPending());
+		assertEquals(f, tree.lookupPath("f"));
+		assertTrue(f.isLoadPending());
+	}
+
+	@Test
+	@DisplayName("Conversion errors are thrown on access")
+	void error() throws IOException, FiberException {
+		byte[] data = serialize(ConfigTree.builder()
+				.fork("b")
+				.withValue("c", ConfigTypes.STRING, "not a number")
+				.finishBranch()
+				.build());
+		ConfigBranch tree = ConfigTree.builder()
+				.fork("b")
+				.withValue("c", ConfigTypes.INTEGER, 0)
+				.finishBranch()
+				.build();
+
+		FiberSerialization.deserializeLazily(tree, new ByteArrayInputStream(data), new BinaryValueSerializer());
+		ConfigBranch b = tree.lookupBranch("b");
+		assertThrows(RuntimeFiberException.class, () -> b.lookup("c"));
+		assertEquals(BigDecimal.ZERO, ((ConfigLeaf<?>) b.lookup("c")).getValue());
+	}
+
+	@Test
+	@DisplayName("Cached state is refreshed by a lazy reload")
+	void cachesInvalidated() throws IOException, FiberException {
+		byte[] data = serialize(ConfigTree.builder()
+				.fork("b")
+				.withValue("c", ConfigTypes.INTEGER, 2)
+				.finishBranch()
+				.build());
+		BinaryValueSerializer serializer = new BinaryValueSerializer();
+		ConfigQuery<ConfigLeaf<BigDecimal>> query = ConfigQuery.leaf(ConfigTypes.INTEGER.getSerializedType(), "b", "c");
+
+		ConfigBranch saved = cachedTree(serializer, query);
+		FiberSerialization.deserializeLazily(saved, new ByteArrayInputStream(data), serializer);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FiberSerialization.serialize(saved, out, serializer);
+		ConfigBranch reread = cachedTree(serializer, query);
+		FiberSerialization.deserialize(reread, new ByteArrayInputStream(out.toByteArray()), serializer);
+		assertEquals(BigDecimal.valueOf(2), ((ConfigLeaf<?>) reread.lookupPath("b.c")).getValue());
+
+		ConfigBranch snapshotted = cachedTree(serializer, query);
+		FiberSerialization.deserializeLazily(snapshotted, new ByteArrayInputStream(data), serializer);
+		assertEquals(BigDecimal.valueOf(2), ConfigSnapshot.of(snapshotted).getValue("b.c"));
+
+		ConfigBranch queried = cachedTree(serializer, query);
+		FiberSerialization.deserializeLazily(queried, new ByteArrayInputStream(data), serializer);
+		assertEquals(BigDecimal.valueOf(2), query.run(queried).getValue());
+
+		ConfigBranch indexed = cachedTree(serializer, query);
+		FiberSerialization.deserializeLazily(indexed, new ByteArrayInputStream(data), serializer);
+		assertEquals(BigDecimal.valueOf(2), ((ConfigLeaf<?>) indexed.lookupPath("b.c")).getValue());
+	}
+
+	/**
+	 * Builds a tree and fills every cache that a lazy reload must invalidate.
+	 */
+	private static ConfigBranch cachedTree(BinaryValueSerializer serializer, ConfigQuery<ConfigLeaf<BigDecimal>> query) throws IOException, FiberException {
+		ConfigBranch tree = ConfigTree.builder()
+				.fork("b")
+				.withValue("c", ConfigTypes.INTEGER, 0)
+				.finishBranch()
+				.build();
+		FiberSerialization.serialize(tree, new ByteArrayOutputStream(), serializer);
+		assertEquals(BigDecimal.ZERO, ConfigSnapshot.of(tree).getValue("b.c"));
+		assertEquals(BigDecimal.ZERO, query.run(tree).getValue());
+		assertEquals(BigDecimal.ZERO, ((ConfigLeaf<?>) tree.lookupPath("b.c")).getValue());
+		return tree;
+	}
+}
@@ -0,0 +1,94 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigTreeBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.ValueDeserializationException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ParallelDeserializationTest {
+	private static ConfigBranch wide(int offset, List<String> order) {
+		ConfigTreeBuilder builder = ConfigTree.builder();
+
+		for (int b = 0; b < 8; b++) {
+			ConfigTreeBuilder branch = builder.fork("branch" + b);
+
+			for (int l = 0; l < 20; l++) {
+				String name = "branch" + b + ".leaf" + l;
+				branch.beginValue("leaf" + l, ConfigTypes.makeList(ConfigTypes.INTEGER), Arrays.asList(b + offset, l + offset))
+						.withListener((oldValue, newValue) -> order.add(name))
+						.finishValue();
+			}
+
+			branch.finishBranch();
+		}
+
+		ConfigBranch tree = builder.build();
+		order.clear();
+		return tree;
+	}
+
+	private static byte[] serialize(ConfigTree tree) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		FiberSerialization.serialize(tree, out, new BinaryValueSerializer());
+		return out.toByteArray();
+	}
+
+	@Test
+	@DisplayName("Values are applied in document order")
+	void documentOrder() throws IOException, FiberException {
+		ForkJoinPool pool = new ForkJoinPool(4);
+
+		try {
+			List<String> sequentialOrder = new ArrayList<>();
+			List<String> parallelOrder = new ArrayList<>();
+			byte[] data = serialize(wide(0, new ArrayList<>()));
+			ConfigBranch sequential = wide(100, sequentialOrder);
+			ConfigBranch parallel = wide(100, parallelOrder);
+
+			FiberSerialization.deserialize(sequential, new ByteArrayInputStream(data), new BinaryValueSerializer());
+			FiberSerialization.deserialize(parallel, new ByteArrayInputStream(data), new BinaryValueSerializer(), pool);
+
+			assertEquals(160, parallelOrder.size());
+			assertEquals(sequentialOrder, parallelOrder);
+			assertEquals(((ConfigLeaf<?>) sequential.lookupPath("branch7.leaf19")).getValue(), ((ConfigLeaf<?>) parallel.lookupPath("branch7.leaf19")).getValue());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	@DisplayName("Conversion errors stop at the first invalid value")
+	void firstError() throws IOException {
+		ConfigTree source = ConfigTree.builder()
+				.withValue("a", ConfigTypes.INTEGER, 1)
+				.withValue("b", ConfigTypes.STRING, "not a number")
+				.withValue("c", ConfigTypes.INTEGER, 3)
+				.build();
+		ConfigBranch dest = ConfigTree.builder()
+				.withValue("a", ConfigTypes.INTEGER, 0)
+				.withValue("b", ConfigTypes.INTEGER, 0)
+				.withValue("c", ConfigTypes.INTEGER, 0)
+				.build();
+
+		assertThrows(ValueDeserializationException.class, () -> FiberSerialization.deserialize(dest, new ByteArrayInputStream(serialize(source)), new BinaryValueSerializer(), ForkJoinPool.commonPool()));
+		assertEquals(BigDecimal.ONE, ((ConfigLeaf<?>) dest.lookup("a")).getValue());
+		assertEquals(BigDecimal.ZERO, ((ConfigLeaf<?>) dest.lookup("c")).getValue());
+	}
+}
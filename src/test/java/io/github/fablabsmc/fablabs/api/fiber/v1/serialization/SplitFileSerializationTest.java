@@ -0,0 +1,102 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.RuntimeFiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.PropertyMirror;
+import io.github.fablabsmc.fablabs.impl.fiber.tree.ConfigBranchImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SplitFileSerializationTest {
+	private static ConfigBranch tree(String prefix) {
+		return ConfigTree.builder()
+				.withValue("main", ConfigTypes.STRING, prefix + "main")
+				.fork("client")
+				.withValue("fov", ConfigTypes.STRING, prefix + "fov")
+				.fork("rendering")
+				.withSeparateSerialization()
+				.withValue("shadows", ConfigTypes.STRING, prefix + "shadows")
+				.fork("particles")
+				.withSeparateSerialization()
+				.withValue("count", ConfigTypes.STRING, prefix + "count")
+				.finishBranch()
+				.finishBranch()
+				.finishBranch()
+				.build();
+	}
+
+	@Test
+	@DisplayName("Separate branches are written to their own files")
+	void layout(@TempDir Path dir) throws IOException, FiberException {
+		Path file = dir.resolve("mod.fiber");
+		SplitFileSerialization.serialize(tree("saved "), file, new BinaryValueSerializer());
+
+		assertTrue(Files.exists(file));
+		assertTrue(Files.exists(dir.resolve("mod/client/rendering.fiber")));
+		assertTrue(Files.exists(dir.resolve("mod/client/rendering/particles.fiber")));
+
+		PropertyMirror<String> count = PropertyMirror.create(ConfigTypes.STRING);
+		ConfigBranch loaded = tree("default ");
+		SplitFileSerialization.deserialize(loaded, file, new BinaryValueSerializer());
+		assertEquals("saved main", loaded.lookupLeaf("main", ConfigTypes.STRING.getSerializedType()).getValue());
+		assertEquals("saved fov", ((ConfigLeaf<?>) loaded.lookupPath("client.fov")).getValue());
+
+		ConfigBranch rendering = loaded.lookupBranch("client").lookupBranch("rendering");
+		ConfigBranch particles = rendering.lookupBranch("particles");
+		particles.lookupAndBind("count", count);
+		assertEquals("saved count", count.getValue());
+	}
+
+	@Test
+	@DisplayName("Branch files do not clash with branch directories when the main file has no extension")
+	void noExtension(@TempDir Path dir) throws IOException, FiberException {
+		Path file = dir.resolve("mod");
+		SplitFileSerialization.serialize(tree("saved "), file, new BinaryValueSerializer());
+
+		assertTrue(Files.isRegularFile(file));
+		assertTrue(Files.isRegularFile(dir.resolve("mod.d/client/rendering.branch")));
+		assertTrue(Files.isRegularFile(dir.resolve("mod.d/client/rendering/particles.branch")));
+
+		ConfigBranch loaded = tree("default ");
+		SplitFileSerialization.deserialize(loaded, file, new BinaryValueSerializer());
+		assertEquals("saved shadows", ((ConfigLeaf<?>) loaded.lookupPath("client.rendering.shadows")).getValue());
+		assertEquals("saved count", ((ConfigLeaf<?>) loaded.lookupPath("client.rendering.particles.count")).getValue());
+	}
+
+	@Test
+	@DisplayName("Separate branches are loaded on first access")
+	void lazy(@TempDir Path dir) throws IOException, FiberException {
+		Path file = dir.resolve("mod.fiber");
+		SplitFileSerialization.serialize(tree("saved "), file, new BinaryValueSerializer());
+
+		ConfigBranch loaded = tree("default ");
+		ConfigBranchImpl rendering = (ConfigBranchImpl) loaded.lookupBranch("client").lookupBranch("rendering");
+		SplitFileSerialization.deserialize(loaded, file, new BinaryValueSerializer());
+		assertTrue(rendering.isLoadPending());
+
+		// unloaded branches are not written again
+		Files.delete(dir.resolve("mod/client/rendering.fiber"));
+		SplitFileSerialization.serialize(loaded, file, new BinaryValueSerializer());
+		assertFalse(Files.exists(dir.resolve("mod/client/rendering.fiber")));
+		assertTrue(rendering.isLoadPending());
+
+		// the branch file is gone, so accessing it now fails
+		assertThrows(RuntimeFiberException.class, rendering::getItems);
+		assertFalse(rendering.isLoadPending());
+		assertEquals("default shadows", rendering.lookupLeaf("shadows", ConfigTypes.STRING.getSerializedType()).getValue());
+	}
+}
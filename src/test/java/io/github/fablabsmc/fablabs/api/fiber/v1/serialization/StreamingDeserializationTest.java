@@ -0,0 +1,118 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.NodeOperationsTest;
+import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigTreeBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.ValueDeserializationException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.PropertyMirror;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StreamingDeserializationTest {
+	private static InputStream input(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	@DisplayName("Streaming round trip")
+	void roundTrip() throws IOException, FiberException {
+		ConfigType<List<Integer>, List<BigDecimal>, ?> listType = ConfigTypes.makeList(ConfigTypes.INTEGER);
+		ConfigType<Map<String, Integer>, Map<String, BigDecimal>, ?> mapType = ConfigTypes.makeMap(ConfigTypes.STRING, ConfigTypes.INTEGER);
+		ConfigTree nodeOne = ConfigTree.builder()
+				.beginValue("A", ConfigTypes.INTEGER, 10)
+				.withComment("An int")
+				.finishValue()
+				.withValue("B", listType, Arrays.asList(1, 2, 3))
+				.fork("child")
+				.withValue("C", mapType, Collections.singletonMap("K", 5))
+				.withValue("D", ConfigTypes.STRING, "hello \"world\"")
+				.finishBranch()
+				.build();
+
+		ConfigTreeBuilder builderTwo = ConfigTree.builder()
+				.withValue("A", ConfigTypes.INTEGER, 20)
+				.withValue("B", listType, Collections.emptyList());
+		ConfigTree childTwo = builderTwo.fork("child")
+				.withValue("C", mapType, Collections.emptyMap())
+				.withValue("D", ConfigTypes.STRING, "")
+				.build();
+		ConfigTree nodeTwo = builderTwo.build();
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		JanksonValueSerializer jk = new JanksonValueSerializer(false);
+		FiberSerialization.serialize(nodeOne, bos, jk);
+		FiberSerialization.deserializeStreaming(nodeTwo, new ByteArrayInputStream(bos.toByteArray()), jk);
+
+		NodeOperationsTest.testNodeFor(nodeTwo, "A", ConfigTypes.INTEGER.getSerializedType(), BigDecimal.TEN);
+		NodeOperationsTest.testNodeFor(nodeTwo, "B", listType.getSerializedType(), Arrays.asList(BigDecimal.valueOf(1), BigDecimal.valueOf(2), BigDecimal.valueOf(3)));
+		NodeOperationsTest.testNodeFor(childTwo, "C", mapType.getSerializedType(), Collections.singletonMap("K", BigDecimal.valueOf(5)));
+		NodeOperationsTest.testNodeFor(childTwo, "D", ConfigTypes.STRING.getSerializedType(), "hello \"world\"");
+	}
+
+	@Test
+	@DisplayName("Skip unknown and relaxed syntax")
+	void skipUnknown() throws IOException, FiberException {
+		PropertyMirror<Integer> a = PropertyMirror.create(ConfigTypes.INTEGER);
+		PropertyMirror<String> b = PropertyMirror.create(ConfigTypes.STRING);
+		PropertyMirror<Double> c = PropertyMirror.create(ConfigTypes.DOUBLE);
+		ConfigTree tree = ConfigTree.builder()
+				.beginValue("a", ConfigTypes.INTEGER, 0)
+				.finishValue(a::mirror)
+				.fork("child")
+				.beginValue("b", ConfigTypes.STRING, "")
+				.finishValue(b::mirror)
+				.finishBranch()
+				.beginValue("c", ConfigTypes.DOUBLE, 0.0)
+				.finishValue(c::mirror)
+				.build();
+
+		String json = "{\n"
+				+ "\t// a line comment\n"
+				+ "\tunknown: { nested: [ 1, { x: \"}\" }, ']' ], /* } */ other: 'q' },\n"
+				+ "\ta: 42,\n"
+				+ "\tskipped: [ [ ], \"[\" ]\n"
+				+ "\t'child': { b: 'it\\'s', extra: true, },\n"
+				+ "\tc: 0.25,\n"
+				+ "}";
+		FiberSerialization.deserializeStreaming(tree, input(json), new JanksonValueSerializer(false));
+
+		assertEquals(42, a.getValue());
+		assertEquals("it's", b.getValue());
+		assertEquals(0.25, c.getValue());
+	}
+
+	@Test
+	@DisplayName("Malformed input")
+	void malformed() {
+		ConfigTree tree = ConfigTree.builder()
+				.withValue("a", ConfigTypes.INTEGER, 0)
+				.fork("child")
+				.withValue("b", ConfigTypes.INTEGER, 0)
+				.finishBranch()
+				.build();
+		JanksonValueSerializer jk = new JanksonValueSerializer(true);
+
+		assertThrows(ValueDeserializationException.class, () -> FiberSerialization.deserializeStreaming(tree, input("[ ]"), jk));
+		assertThrows(ValueDeserializationException.class, () -> FiberSerialization.deserializeStreaming(tree, input("{ a: 1"), jk));
+		assertThrows(ValueDeserializationException.class, () -> FiberSerialization.deserializeStreaming(tree, input("{ a 1 }"), jk));
+		assertThrows(ValueDeserializationException.class, () -> FiberSerialization.deserializeStreaming(tree, input("{ a: \"1 }"), jk));
+		assertThrows(ValueDeserializationException.class, () -> FiberSerialization.deserializeStreaming(tree, input("{ child: 1 }"), jk));
+	}
+}
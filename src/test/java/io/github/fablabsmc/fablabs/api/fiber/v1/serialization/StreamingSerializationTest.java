@@ -0,0 +1,99 @@
+package io.github.fablabsmc.fablabs.api.fiber.v1.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.NodeOperationsTest;
+import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigTreeBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StreamingSerializationTest {
+	private static ConfigTree sampleTree() {
+		ConfigType<List<Integer>, List<BigDecimal>, ?> listType = ConfigTypes.makeList(ConfigTypes.INTEGER);
+		return ConfigTree.builder()
+				.beginValue("A", ConfigTypes.INTEGER, 10)
+				.withComment("An int")
+				.finishValue()
+				.fork("child")
+				.withComment("A branch")
+				.beginValue("B", listType, Arrays.asList(1, 2))
+				.withComment("A list\nspanning lines")
+				.finishValue()
+				.fork("empty")
+				.finishBranch()
+				.withValue("C", ConfigTypes.makeMap(ConfigTypes.STRING, ConfigTypes.STRING), Collections.singletonMap("K", "V"))
+				.finishBranch()
+				.fork("separate").withSeparateSerialization()
+				.withValue("D", ConfigTypes.BOOLEAN, true)
+				.finishBranch()
+				.withValue("E", ConfigTypes.STRING, "tab\tquote\"")
+				.build();
+	}
+
+	private static void assertSameOutput(boolean minify) throws IOException {
+		ConfigTree tree = sampleTree();
+		JanksonValueSerializer jk = new JanksonValueSerializer(minify);
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+		FiberSerialization.serialize(tree, expected, jk);
+		FiberSerialization.serializeStreaming(tree, actual, jk);
+		assertEquals(expected.toString("UTF-8"), actual.toString("UTF-8"));
+	}
+
+	@Test
+	@DisplayName("Same output as DOM serialization")
+	void sameOutput() throws IOException {
+		assertSameOutput(false);
+		assertSameOutput(true);
+	}
+
+	@Test
+	@DisplayName("Empty tree")
+	void emptyTree() throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		FiberSerialization.serializeStreaming(ConfigTree.builder().build(), bos, new JanksonValueSerializer(false));
+		assertEquals("{ }", bos.toString("UTF-8"));
+	}
+
+	@Test
+	@DisplayName("Streaming round trip")
+	void roundTrip() throws IOException, FiberException {
+		ConfigTree nodeOne = ConfigTree.builder()
+				.beginValue("A", ConfigTypes.INTEGER, 10)
+				.withComment("An int")
+				.finishValue()
+				.fork("child")
+				.withValue("B", ConfigTypes.STRING, "hello")
+				.finishBranch()
+				.build();
+
+		ConfigTreeBuilder builderTwo = ConfigTree.builder()
+				.withValue("A", ConfigTypes.INTEGER, 20);
+		ConfigTree childTwo = builderTwo.fork("child")
+				.withValue("B", ConfigTypes.STRING, "world")
+				.build();
+		ConfigTree nodeTwo = builderTwo.build();
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		JanksonValueSerializer jk = new JanksonValueSerializer(false);
+		FiberSerialization.serializeStreaming(nodeOne, bos, jk);
+		FiberSerialization.deserializeStreaming(nodeTwo, new ByteArrayInputStream(bos.toByteArray()), jk);
+
+		NodeOperationsTest.testNodeFor(nodeTwo, "A", ConfigTypes.INTEGER.getSerializedType(), BigDecimal.TEN);
+		NodeOperationsTest.testNodeFor(childTwo, "B", ConfigTypes.STRING.getSerializedType(), "hello");
+		assertEquals("{\n\t// An int\n\t\"A\": 10,\n\t\"child\": {\n\t\t\"B\": \"hello\"\n\t}\n}", bos.toString("UTF-8"));
+	}
+}
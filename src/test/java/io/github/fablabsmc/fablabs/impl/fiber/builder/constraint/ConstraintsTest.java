@@ -1,5 +1,6 @@
 package io.github.fablabsmc.fablabs.impl.fiber.builder.constraint;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -10,12 +11,15 @@ import java.util.List;
 
 import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigLeafBuilder;
 import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigTreeBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.DecimalSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.TypeCheckResult;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ListConfigType;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.NumberConfigType;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.PropertyMirror;
+import io.github.fablabsmc.fablabs.impl.fiber.constraint.DecimalConstraintChecker;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -36,6 +40,35 @@ class ConstraintsTest {
 		assertTrue(leaf.accepts(BigDecimal.valueOf(25)), "Input can be above 20");
 	}
 
+	@DisplayName("Specialized numerical checks match generic ones")
+	@Test
+	public void testSpecializedNumericalConstraints() {
+		List<DecimalSerializableType> types = Arrays.asList(
+				ConfigTypes.INTEGER.getSerializedType(),
+				ConfigTypes.NATURAL.getSerializedType(),
+				ConfigTypes.INTEGER.withValidRange(-10, 10, 3).getSerializedType(),
+				ConfigTypes.LONG.withMinimum(Long.MAX_VALUE - 1).getSerializedType(),
+				ConfigTypes.DOUBLE.withValidRange(-0.5, 0.5, 0.25).getSerializedType(),
+				ConfigTypes.UNBOUNDED_INTEGER.getSerializedType()
+		);
+		List<BigDecimal> values = Arrays.asList(
+				BigDecimal.ZERO, BigDecimal.valueOf(-11), BigDecimal.valueOf(7), BigDecimal.valueOf(8),
+				new BigDecimal("0.5"), new BigDecimal("-0.75"), new BigDecimal("1E+2"), new BigDecimal("3.000"),
+				BigDecimal.valueOf(Long.MAX_VALUE), BigDecimal.valueOf(Long.MIN_VALUE).subtract(BigDecimal.ONE)
+		);
+
+		for (DecimalSerializableType type : types) {
+			DecimalConstraintChecker specialized = DecimalConstraintChecker.forBounds(type.getMinimum(), type.getMaximum(), type.getIncrement());
+
+			for (BigDecimal value : values) {
+				TypeCheckResult<BigDecimal> expected = DecimalConstraintChecker.instance().test(type, value);
+				TypeCheckResult<BigDecimal> actual = specialized.test(type, value);
+				assertEquals(expected.hasPassed(), actual.hasPassed(), type + " " + value);
+				assertEquals(expected.getCorrectedValue(), actual.getCorrectedValue(), type + " " + value);
+			}
+		}
+	}
+
 	@DisplayName("Test array aggregate constraints")
 	@Test
 	public void testArrayConstraints() {
@@ -0,0 +1,130 @@
+package io.github.fablabsmc.fablabs.impl.fiber.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.NodeOperations;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.PropertyMirror;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AsyncListenerTest {
+	@Test
+	@DisplayName("Listeners run in order on the executor")
+	void ordered() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		CountDownLatch blocked = new CountDownLatch(1);
+		List<Integer> values = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		PropertyMirror<Integer> mirror = PropertyMirror.create(ConfigTypes.INTEGER);
+
+		try {
+			ConfigBranch tree = ConfigTree.builder()
+					.withListenerExecutor(executor)
+					.fork("child")
+					.beginValue("value", ConfigTypes.INTEGER, 0)
+					.withListener((oldValue, newValue) -> {
+						try {
+							blocked.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+
+						synchronized (values) {
+							values.add(newValue);
+							threads.add(Thread.currentThread());
+						}
+					})
+					.finishValue(mirror::mirror)
+					.finishBranch()
+					.build();
+
+			for (int i = 1; i <= 100; i++) {
+				mirror.setValue(i);
+			}
+
+			// the value is set right away, only listeners are deferred
+			assertEquals(100, mirror.getValue());
+			assertTrue(values.size() < 101);
+			blocked.countDown();
+			NodeOperations.awaitListeners(tree).get(10, TimeUnit.SECONDS);
+
+			synchronized (values) {
+				assertEquals(101, values.size());
+
+				for (int i = 0; i <= 100; i++) {
+					assertEquals(i, values.get(i));
+				}
+
+				assertTrue(threads.stream().noneMatch(Thread.currentThread()::equals));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Rejected notifications run on the notifying thread")
+	void rejected() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		executor.shutdown();
+		List<Thread> threads = new ArrayList<>();
+		PropertyMirror<String> mirror = PropertyMirror.create(ConfigTypes.STRING);
+		ConfigTree.builder()
+				.beginValue("value", ConfigTypes.STRING, "")
+				.withListenerExecutor(executor)
+				.withListener((oldValue, newValue) -> threads.add(Thread.currentThread()))
+				.finishValue(mirror::mirror)
+				.build();
+
+		mirror.setValue("x");
+		assertEquals(2, threads.size());
+		assertEquals(Thread.currentThread(), threads.get(1));
+	}
+
+	@Test
+	@DisplayName("Failing executors and listeners do not stop later notifications")
+	void failures() {
+		List<String> values = new ArrayList<>();
+		PropertyMirror<String> mirror = PropertyMirror.create(ConfigTypes.STRING);
+		Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+		List<Throwable> uncaught = new ArrayList<>();
+		Thread.currentThread().setUncaughtExceptionHandler((thread, e) -> uncaught.add(e));
+
+		try {
+			ConfigTree.builder()
+					.beginValue("value", ConfigTypes.STRING, "")
+					.withListenerExecutor(task -> {
+						throw new IllegalStateException();
+					})
+					.withListener((oldValue, newValue) -> {
+						values.add(newValue);
+
+						if ("x".equals(newValue)) {
+							throw new AssertionError();
+						}
+					})
+					.finishValue(mirror::mirror)
+					.build();
+
+			mirror.setValue("x");
+			mirror.setValue("y");
+		} finally {
+			Thread.currentThread().setUncaughtExceptionHandler(handler);
+		}
+
+		assertEquals(3, values.size());
+		assertEquals("y", values.get(2));
+		assertEquals(1, uncaught.size());
+	}
+}
@@ -0,0 +1,75 @@
+package io.github.fablabsmc.fablabs.impl.fiber.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ChangeBatch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ChangeBatchTest {
+	@SuppressWarnings("unchecked")
+	private static ConfigLeaf<String> leaf(ConfigTree tree, String name) {
+		return (ConfigLeaf<String>) tree.lookup(name);
+	}
+
+	private static ConfigBranch build(List<String> events) {
+		ConfigBranch tree = ConfigTree.builder()
+				.withValue("a", ConfigTypes.STRING, "a0")
+				.withValue("b", ConfigTypes.STRING, "b0")
+				.build();
+		leaf(tree, "a").addChangeListener((oldValue, newValue) -> events.add(oldValue + "->" + newValue));
+		leaf(tree, "b").addChangeListener((oldValue, newValue) -> events.add(oldValue + "->" + newValue));
+		return tree;
+	}
+
+	@Test
+	@DisplayName("Changes are coalesced per leaf")
+	void coalesced() {
+		List<String> events = new ArrayList<>();
+		ConfigBranch tree = build(events);
+
+		try (ChangeBatch batch = ChangeBatch.begin()) {
+			leaf(tree, "a").setValue("a1");
+			leaf(tree, "b").setValue("b1");
+
+			try (ChangeBatch nested = ChangeBatch.begin()) {
+				leaf(tree, "a").setValue("a2");
+			}
+
+			assertEquals(Collections.emptyList(), events);
+		}
+
+		assertEquals(Arrays.asList("a0->a2", "b0->b1"), events);
+		leaf(tree, "a").setValue("a3");
+		assertEquals("a2->a3", events.get(2));
+	}
+
+	@Test
+	@DisplayName("Other leaves are notified even if a listener fails")
+	void listenerOrder() {
+		List<String> events = new ArrayList<>();
+		ConfigBranch tree = build(events);
+		ConfigLeaf<String> a = leaf(tree, "a");
+		a.addChangeListener((oldValue, newValue) -> {
+			throw new IllegalStateException("failing listener");
+		});
+		a.addChangeListener((oldValue, newValue) -> events.add("last"));
+
+		ChangeBatch batch = ChangeBatch.begin();
+		a.setValue("a1");
+		leaf(tree, "b").setValue("b1");
+		assertThrows(IllegalStateException.class, batch::close);
+		assertEquals(Arrays.asList("a0->a1", "b0->b1"), events);
+		assertThrows(IllegalStateException.class, batch::close);
+	}
+}
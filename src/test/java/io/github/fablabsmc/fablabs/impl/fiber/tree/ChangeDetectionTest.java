@@ -0,0 +1,81 @@
+package io.github.fablabsmc.fablabs.impl.fiber.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.ListSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.MapSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ChangeBatch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ChangeDetectionTest {
+	@SuppressWarnings("unchecked")
+	private static ConfigLeaf<BigDecimal> build(boolean changeDetection, List<BigDecimal> changes) {
+		ConfigBranch tree = ConfigTree.builder()
+				.withChangeDetection(changeDetection)
+				.fork("child")
+				.beginValue("value", ConfigTypes.DOUBLE, 1.0)
+				.withListener((oldValue, newValue) -> changes.add(BigDecimal.valueOf(newValue)))
+				.finishValue()
+				.finishBranch()
+				.build();
+		changes.clear();
+		return (ConfigLeaf<BigDecimal>) tree.lookupPath("child.value");
+	}
+
+	@Test
+	@DisplayName("Equivalent values do not notify listeners")
+	void equivalentValues() {
+		List<BigDecimal> changes = new ArrayList<>();
+		ConfigLeaf<BigDecimal> leaf = build(true, changes);
+
+		assertTrue(leaf.setValue(new BigDecimal("1.000")));
+		assertEquals(Collections.emptyList(), changes);
+		assertTrue(leaf.setValue(new BigDecimal("2.5")));
+		assertEquals(1, changes.size());
+
+		try (ChangeBatch batch = ChangeBatch.begin()) {
+			leaf.setValue(BigDecimal.TEN);
+			leaf.setValue(new BigDecimal("2.50"));
+		}
+
+		assertEquals(1, changes.size());
+	}
+
+	@Test
+	@DisplayName("Change detection can be disabled")
+	void disabled() {
+		List<BigDecimal> changes = new ArrayList<>();
+		ConfigLeaf<BigDecimal> leaf = build(false, changes);
+
+		leaf.setValue(BigDecimal.ONE);
+		leaf.setValue(BigDecimal.ONE);
+		assertEquals(2, changes.size());
+	}
+
+	@Test
+	@DisplayName("Collections compare their elements by type")
+	void collections() {
+		ListSerializableType<BigDecimal> list = new ListSerializableType<>(ConfigTypes.INTEGER.getSerializedType());
+		assertTrue(list.isEquivalent(Arrays.asList(BigDecimal.ONE, BigDecimal.TEN), Arrays.asList(new BigDecimal("1.0"), new BigDecimal("10.00"))));
+		assertFalse(list.isEquivalent(Collections.singletonList(BigDecimal.ONE), Arrays.asList(BigDecimal.ONE, BigDecimal.ONE)));
+
+		MapSerializableType<BigDecimal> map = new MapSerializableType<>(ConfigTypes.INTEGER.getSerializedType());
+		Map<String, BigDecimal> a = Collections.singletonMap("a", BigDecimal.ONE);
+		assertTrue(map.isEquivalent(a, Collections.singletonMap("a", new BigDecimal("1.0"))));
+		assertFalse(map.isEquivalent(a, Collections.singletonMap("b", BigDecimal.ONE)));
+	}
+}
@@ -0,0 +1,196 @@
+package io.github.fablabsmc.fablabs.impl.fiber.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigLeafBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.NumberConfigLeaf;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentTreeTest {
+	private static ConfigBranch build(boolean concurrent) {
+		return ConfigTree.builder()
+				.withConcurrentAccess(concurrent)
+				.withValue("counter", ConfigTypes.LONG, 0L)
+				.fork("child")
+				.beginValue("flag", ConfigTypes.BOOLEAN, false)
+				.finishValue()
+				.finishBranch()
+				.build();
+	}
+
+	@Test
+	@DisplayName("Concurrent access is inherited by built nodes")
+	void inherited() {
+		ConfigBranch tree = build(true);
+		assertTrue(((IndexedNodeCollection) tree.getItems()).isConcurrent());
+		assertTrue(((IndexedNodeCollection) tree.lookupBranch("child").getItems()).isConcurrent());
+		assertTrue(((ConfigLeafImpl<?>) tree.lookup("counter")).isConcurrent());
+		assertTrue(((ConfigLeafImpl<?>) tree.lookupPath("child.flag")).isConcurrent());
+
+		ConfigBranch regular = build(false);
+		assertFalse(((IndexedNodeCollection) regular.getItems()).isConcurrent());
+		assertFalse(((ConfigLeafImpl<?>) regular.lookupPath("child.flag")).isConcurrent());
+	}
+
+	@Test
+	@DisplayName("Iterators of concurrent branches see a snapshot")
+	void snapshotIteration() {
+		ConfigBranch tree = build(true);
+		Iterator<ConfigNode> it = tree.getItems().iterator();
+		tree.getItems().add(ConfigLeafBuilder.create(null, "late", ConfigTypes.STRING, "").build());
+		assertEquals("counter", it.next().getName());
+		it.remove();
+		assertNull(tree.lookup("counter"));
+		assertEquals("child", it.next().getName());
+		assertFalse(it.hasNext());
+		assertEquals(2, tree.getItems().size());
+	}
+
+	@Test
+	@DisplayName("Readers see writes from other threads")
+	void concurrentReads() throws Exception {
+		ConfigBranch tree = build(true);
+		NumberConfigLeaf counter = (NumberConfigLeaf) tree.lookup("counter");
+		ConfigBranch child = tree.lookupBranch("child");
+		AtomicBoolean done = new AtomicBoolean();
+		ExecutorService readers = Executors.newFixedThreadPool(2);
+
+		try {
+			Future<Long> values = readers.submit(() -> {
+				long last = 0;
+
+				while (!done.get()) {
+					long current = counter.getLong();
+					assertTrue(current >= last, "Value went backwards");
+					last = current;
+				}
+
+				return counter.getLong();
+			});
+			Future<?> children = readers.submit(() -> {
+				while (!done.get()) {
+					for (ConfigNode node : child.getItems()) {
+						assertTrue(node.getName().startsWith("flag") || node.getName().startsWith("extra"));
+					}
+				}
+			});
+
+			for (int i = 1; i <= 2000; i++) {
+				counter.setLong(i);
+				ConfigLeaf<?> extra = ConfigLeafBuilder.create(null, "extra" + i, ConfigTypes.INTEGER, i).build();
+				child.getItems().add(extra);
+				assertEquals(extra, tree.lookupPath("child.extra" + i));
+				child.getItems().remove(extra);
+			}
+
+			done.set(true);
+			assertEquals(2000L, values.get(10, TimeUnit.SECONDS));
+			children.get(10, TimeUnit.SECONDS);
+			assertEquals(BigDecimal.valueOf(2000), counter.getValue());
+		} finally {
+			readers.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Modifications of sibling branches are all counted by their ancestors")
+	void siblingModifications() throws Exception {
+		ConfigBranch tree = ConfigTree.builder()
+				.withConcurrentAccess(true)
+				.fork("a").finishBranch()
+				.fork("b").finishBranch()
+				.fork("c").finishBranch()
+				.build();
+		IndexedNodeCollection items = (IndexedNodeCollection) tree.getItems();
+		int before = items.getTreeModCount();
+		String[] names = {"a", "b", "c"};
+		ExecutorService writers = Executors.newFixedThreadPool(names.length);
+
+		try {
+			Future<?>[] futures = new Future<?>[names.length];
+
+			for (int i = 0; i < names.length; i++) {
+				ConfigBranch branch = tree.lookupBranch(names[i]);
+				futures[i] = writers.submit(() -> {
+					for (int j = 0; j < 2000; j++) {
+						ConfigLeaf<?> leaf = ConfigLeafBuilder.create(null, "leaf", ConfigTypes.INTEGER, j).build();
+						branch.getItems().add(leaf);
+						branch.getItems().remove(leaf);
+					}
+				});
+			}
+
+			for (Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			writers.shutdownNow();
+		}
+
+		assertEquals(before + names.length * 4000, items.getTreeModCount());
+	}
+
+	@Test
+	@DisplayName("Listeners setting each other's leaves do not deadlock")
+	void crossListeners() throws Exception {
+		CountDownLatch listening = new CountDownLatch(2);
+		List<ConfigLeafImpl<String>> leaves = new ArrayList<>();
+
+		for (int i = 0; i < 2; i++) {
+			int other = 1 - i;
+			leaves.add(new ConfigLeafImpl<>("leaf" + i, ConfigTypes.STRING.getSerializedType(), null, "", (oldValue, newValue) -> {
+				if (!"set".equals(newValue)) return;
+
+				// both threads are in a listener of the leaf they set before setting the other one
+				listening.countDown();
+
+				try {
+					listening.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+
+				leaves.get(other).setValue("notified");
+			}, true));
+		}
+
+		ExecutorService writers = Executors.newFixedThreadPool(2, task -> {
+			Thread thread = new Thread(task);
+			// deadlocked threads must not keep the test runner alive
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		try {
+			Future<?> first = writers.submit(() -> leaves.get(0).setValue("set"));
+			Future<?> second = writers.submit(() -> leaves.get(1).setValue("set"));
+			first.get(10, TimeUnit.SECONDS);
+			second.get(10, TimeUnit.SECONDS);
+		} finally {
+			writers.shutdownNow();
+		}
+
+		assertEquals("notified", leaves.get(0).getValue());
+		assertEquals("notified", leaves.get(1).getValue());
+	}
+}
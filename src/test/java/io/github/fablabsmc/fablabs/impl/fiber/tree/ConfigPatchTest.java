@@ -0,0 +1,152 @@
+package io.github.fablabsmc.fablabs.impl.fiber.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.BinaryValueSerializer;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.FiberSerialization;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigPatch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ConfigPatchTest {
+	private static ConfigBranch original() {
+		return ConfigTree.builder()
+				.withValue("same", ConfigTypes.INTEGER, 1)
+				.withValue("changed", ConfigTypes.STRING, "old")
+				.withValue("removed", ConfigTypes.BOOLEAN, true)
+				.withValue("retyped", ConfigTypes.INTEGER, 2)
+				.fork("branch")
+				.withValue("decimal", ConfigTypes.DOUBLE, 1.0)
+				.finishBranch()
+				.build();
+	}
+
+	private static ConfigBranch modified() {
+		return ConfigTree.builder()
+				.withValue("same", ConfigTypes.INTEGER, 1)
+				.withValue("changed", ConfigTypes.STRING, "new")
+				.withValue("retyped", ConfigTypes.STRING, "2")
+				.fork("branch")
+				.withValue("decimal", ConfigTypes.DOUBLE, 1.5)
+				.fork("added")
+				.withValue("leaf", ConfigTypes.STRING, "x")
+				.finishBranch()
+				.finishBranch()
+				.build();
+	}
+
+	private static Object value(ConfigTree tree, String path) {
+		return ((ConfigLeaf<?>) tree.lookupPath(path)).getValue();
+	}
+
+	@Test
+	@DisplayName("Diffing trees reports added, removed and changed nodes")
+	void diff() {
+		ConfigPatch patch = ConfigPatch.diff(original(), modified());
+
+		assertEquals(Arrays.asList("removed", "retyped"), Arrays.asList(patch.getRemovedPaths().toArray()));
+		assertEquals(Arrays.asList("retyped", "branch.added"), Arrays.asList(patch.getAddedPaths().toArray()));
+		Map<String, Object> changed = patch.getChangedValues();
+		assertEquals(Arrays.asList("changed", "branch.decimal"), Arrays.asList(changed.keySet().toArray()));
+		assertEquals("new", changed.get("changed"));
+		assertEquals(6, patch.size());
+
+		assertTrue(ConfigPatch.diff(original(), original()).isEmpty());
+	}
+
+	@Test
+	@DisplayName("Applying a patch makes the trees match")
+	void apply() throws FiberException {
+		ConfigBranch tree = original();
+		ConfigBranch modified = modified();
+		ConfigPatch patch = ConfigPatch.diff(tree, modified);
+		patch.apply(tree);
+
+		assertTrue(ConfigPatch.diff(tree, modified).isEmpty());
+		assertNull(tree.lookup("removed"));
+		assertEquals("2", value(tree, "retyped"));
+		assertEquals("x", value(tree, "branch.added.leaf"));
+
+		// the patch holds its own copy of added nodes
+		((ConfigLeaf<String>) tree.lookupPath("branch.added.leaf")).setValue("y");
+		ConfigBranch other = original();
+		patch.apply(other);
+		assertEquals("x", value(other, "branch.added.leaf"));
+	}
+
+	@Test
+	@DisplayName("Added nodes keep their listeners and threading behaviour")
+	@SuppressWarnings("unchecked")
+	void copiedNodes() throws FiberException {
+		List<String> events = new ArrayList<>();
+		ConfigBranch modified = ConfigTree.builder()
+				.fork("added")
+				.withConcurrentAccess(true)
+				.beginValue("leaf", ConfigTypes.STRING, "x")
+				.withListener((oldValue, newValue) -> events.add(oldValue + "->" + newValue))
+				.finishValue()
+				.finishBranch()
+				.build();
+		ConfigBranch tree = ConfigTree.builder().build();
+		events.clear();
+		ConfigPatch.diff(tree, modified).apply(tree);
+
+		assertTrue(((ConfigBranchImpl) tree.lookup("added")).isConcurrent());
+		assertFalse(((ConfigBranchImpl) tree).isConcurrent());
+		ConfigLeaf<String> leaf = (ConfigLeaf<String>) tree.lookupPath("added.leaf");
+		assertTrue(((ConfigLeafImpl<String>) leaf).isConcurrent());
+		assertEquals(Collections.emptyList(), events);
+		leaf.setValue("y");
+		assertEquals(Collections.singletonList("x->y"), events);
+	}
+
+	@Test
+	@DisplayName("Patches that do not apply leave the tree unchanged")
+	void mismatch() {
+		ConfigPatch patch = ConfigPatch.diff(original(), modified());
+		ConfigBranch unrelated = ConfigTree.builder()
+				.withValue("changed", ConfigTypes.STRING, "old")
+				.build();
+
+		assertThrows(FiberException.class, () -> patch.apply(unrelated));
+		assertEquals("old", value(unrelated, "changed"));
+	}
+
+	@Test
+	@DisplayName("Value changes round trip through a serializer")
+	void serialized() throws IOException, FiberException {
+		BinaryValueSerializer ctx = new BinaryValueSerializer();
+		ConfigPatch patch = ConfigPatch.diff(original(), modified());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ctx.writeTarget(patch.serialize(ctx), out);
+
+		ConfigBranch tree = original();
+		FiberSerialization.deserialize(tree, new ByteArrayInputStream(out.toByteArray()), ctx);
+		assertEquals("new", value(tree, "changed"));
+		assertEquals(BigDecimal.valueOf(1.5), value(tree, "branch.decimal"));
+
+		// only the changed values are in the target
+		ConfigPatch reversed = ConfigPatch.diff(modified(), ctx.readTarget(new ByteArrayInputStream(out.toByteArray())), ctx);
+		assertEquals(Collections.emptyMap(), reversed.getChangedValues());
+		assertEquals(2, ConfigPatch.diff(original(), ctx.readTarget(new ByteArrayInputStream(out.toByteArray())), ctx).size());
+	}
+}
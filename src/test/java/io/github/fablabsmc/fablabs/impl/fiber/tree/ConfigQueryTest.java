@@ -2,14 +2,19 @@ package io.github.fablabsmc.fablabs.impl.fiber.tree;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.math.BigDecimal;
 import java.util.concurrent.atomic.AtomicReference;
 
+import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigLeafBuilder;
 import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberQueryException;
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigNode;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigQuery;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
 import org.junit.jupiter.api.Test;
@@ -46,4 +51,79 @@ class ConfigQueryTest {
 		assertThrows(FiberQueryException.WrongType.class, () -> query5.run(tree));
 		assertFalse(query5.search(tree).isPresent());
 	}
+
+	@Test
+	void cachedResolution() throws FiberQueryException {
+		ConfigTree tree = ConfigTree.builder()
+				.fork("child")
+				.withValue("A", ConfigTypes.INTEGER, 10)
+				.finishBranch()
+				.build();
+		ConfigTree other = ConfigTree.builder()
+				.fork("child")
+				.withValue("A", ConfigTypes.INTEGER, 20)
+				.finishBranch()
+				.build();
+		ConfigQuery<ConfigLeaf<BigDecimal>> query = ConfigQuery.leaf(ConfigTypes.INTEGER.getSerializedType(), "child", "A");
+		ConfigLeaf<?> first = query.run(tree);
+		assertEquals(first, query.run(tree));
+		assertEquals(other.lookupBranch("child").lookup("A"), query.run(other));
+		assertEquals(first, query.run(tree));
+
+		ConfigBranch child = tree.lookupBranch("child");
+		child.getItems().removeByName("A");
+		assertFalse(query.search(tree).isPresent());
+		assertThrows(FiberQueryException.MissingChild.class, () -> query.run(tree));
+
+		ConfigLeaf<?> replacement = ConfigLeafBuilder.create(null, "A", ConfigTypes.INTEGER, 30).build();
+		child.getItems().add(replacement);
+		assertEquals(replacement, query.run(tree));
+
+		tree.getItems().remove(child);
+		assertFalse(query.search(tree).isPresent());
+	}
+
+	@Test
+	void pendingLoad() throws FiberQueryException {
+		ConfigTree tree = ConfigTree.builder()
+				.fork("child")
+				.withValue("A", ConfigTypes.INTEGER, 10)
+				.finishBranch()
+				.build();
+		ConfigQuery<ConfigLeaf<BigDecimal>> query = ConfigQuery.leaf(ConfigTypes.INTEGER.getSerializedType(), "child", "A");
+		ConfigLeaf<BigDecimal> leaf = query.run(tree);
+
+		ConfigBranchImpl child = (ConfigBranchImpl) tree.lookupBranch("child");
+		child.deferLoad(() -> leaf.setValue(BigDecimal.ONE));
+		assertEquals(BigDecimal.ONE, query.run(tree).getValue());
+		assertFalse(child.isLoadPending());
+	}
+
+	@Test
+	void changedWhileResolving() throws FiberQueryException {
+		ConfigLeaf<BigDecimal> replacement = ConfigLeafBuilder.create(null, "A", ConfigTypes.INTEGER, 2).build();
+		ConfigBranchImpl tree = new ConfigBranchImpl() {
+			private boolean replaced;
+
+			@Override
+			public ConfigNode lookup(String name) {
+				ConfigNode node = super.lookup(name);
+
+				// another thread replacing the node right after it was found
+				if (!this.replaced) {
+					this.replaced = true;
+					this.getItems().add(replacement, true);
+				}
+
+				return node;
+			}
+		};
+		ConfigLeaf<BigDecimal> original = ConfigLeafBuilder.create(null, "A", ConfigTypes.INTEGER, 1).build();
+		tree.getItems().add(original);
+		ConfigQuery<ConfigLeaf<BigDecimal>> query = ConfigQuery.leaf(ConfigTypes.INTEGER.getSerializedType(), "A");
+
+		assertSame(original, query.run(tree));
+		assertSame(replacement, query.run(tree));
+		assertSame(replacement, query.run(tree));
+	}
 }
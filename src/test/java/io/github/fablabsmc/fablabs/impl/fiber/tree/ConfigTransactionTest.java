@@ -0,0 +1,174 @@
+package io.github.fablabsmc.fablabs.impl.fiber.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigLeafBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.exception.FiberException;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.FiberSerialization;
+import io.github.fablabsmc.fablabs.api.fiber.v1.serialization.JanksonValueSerializer;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigSnapshot;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTransaction;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.PropertyMirror;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ConfigTransactionTest {
+	private final PropertyMirror<Integer> a = PropertyMirror.create(ConfigTypes.INTEGER);
+	private final PropertyMirror<String> b = PropertyMirror.create(ConfigTypes.STRING);
+
+	private ConfigBranch build(List<String> events) {
+		ConfigBranch tree = ConfigTree.builder()
+				.beginValue("a", ConfigTypes.INTEGER.withValidRange(0, 10, 1), 0)
+				.finishValue(this.a::mirror)
+				.fork("child")
+				.beginValue("b", ConfigTypes.STRING.withPattern("[a-z]*"), "")
+				.finishValue(this.b::mirror)
+				.finishBranch()
+				.build();
+		ConfigTransactionTest.<BigDecimal>leaf(tree, "a").addChangeListener((oldValue, newValue) -> events.add("a=" + newValue + ", b=" + this.b.getValue()));
+		ConfigTransactionTest.<String>leaf(tree, "child.b").addChangeListener((oldValue, newValue) -> events.add("b=" + newValue + ", a=" + this.a.getValue()));
+		return tree;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> ConfigLeaf<T> leaf(ConfigTree tree, String path) {
+		return (ConfigLeaf<T>) tree.lookupPath(path);
+	}
+
+	@Test
+	@DisplayName("Listeners are notified after every value is applied")
+	void commit() throws FiberException {
+		List<String> events = new ArrayList<>();
+		ConfigBranch tree = this.build(events);
+		ConfigSnapshot snapshot = ConfigTransaction.begin(tree)
+				.stage(leaf(tree, "child.b"), "x")
+				.stage(leaf(tree, "a"), BigDecimal.valueOf(3))
+				.commit();
+
+		assertEquals(Arrays.asList("b=x, a=3", "a=3, b=x"), events);
+		assertEquals(BigDecimal.valueOf(3), snapshot.getValue("a"));
+		assertEquals("x", snapshot.getValue(leaf(tree, "child.b")));
+		assertEquals(Arrays.asList("a", "child.b"), new ArrayList<>(snapshot.asMap().keySet()));
+	}
+
+	@Test
+	@DisplayName("Invalid values reject the whole transaction")
+	void rejected() {
+		List<String> events = new ArrayList<>();
+		ConfigBranch tree = this.build(events);
+		ConfigTransaction transaction = ConfigTransaction.begin(tree)
+				.stage(leaf(tree, "a"), BigDecimal.valueOf(42))
+				.stage(leaf(tree, "child.b"), "X!");
+
+		assertThrows(FiberException.class, transaction::commit);
+		assertThrows(IllegalStateException.class, () -> transaction.stage(leaf(tree, "a"), BigDecimal.ONE));
+		assertEquals(0, this.a.getValue());
+		assertEquals("", this.b.getValue());
+		assertEquals(0, events.size());
+	}
+
+	@Test
+	@DisplayName("Leaves of other trees cannot be staged")
+	void foreignLeaf() {
+		ConfigBranch tree = this.build(new ArrayList<>());
+		ConfigBranch other = ConfigTree.builder()
+				.withValue("a", ConfigTypes.INTEGER, 0)
+				.build();
+		ConfigTransaction transaction = ConfigTransaction.begin(tree.lookupBranch("child"));
+
+		assertThrows(IllegalArgumentException.class, () -> transaction.stage(leaf(other, "a"), BigDecimal.ONE));
+		assertThrows(IllegalArgumentException.class, () -> transaction.stage(leaf(tree, "a"), BigDecimal.ONE));
+		transaction.stage(leaf(tree, "child.b"), "x");
+	}
+
+	@Test
+	@DisplayName("Snapshots are cached until the tree changes")
+	void snapshotCache() throws FiberException {
+		ConfigBranch tree = this.build(new ArrayList<>());
+		ConfigSnapshot first = ConfigSnapshot.of(tree);
+		assertSame(first, ConfigSnapshot.of(tree));
+
+		this.a.setValue(5);
+		ConfigSnapshot second = ConfigSnapshot.of(tree);
+		assertNotSame(first, second);
+		assertEquals(BigDecimal.ZERO, first.getValue("a"));
+		assertEquals(BigDecimal.valueOf(5), second.getValue("a"));
+
+		ConfigSnapshot committed = ConfigTransaction.begin(tree).stage(leaf(tree, "child.b"), "y").commit();
+		assertSame(committed, ConfigSnapshot.of(tree));
+
+		tree.lookupBranch("child").getItems().add(ConfigLeafBuilder.create(null, "c", ConfigTypes.BOOLEAN, true).build());
+		ConfigSnapshot third = ConfigSnapshot.of(tree);
+		assertNotSame(committed, third);
+		assertEquals(true, third.getValue("child.c"));
+	}
+
+	@Test
+	@DisplayName("Detached leaves no longer invalidate cached snapshots")
+	void detachedSnapshotCache() {
+		ConfigBranch tree = this.build(new ArrayList<>());
+		ConfigBranch child = tree.lookupBranch("child");
+		ConfigSnapshot.of(child);
+		ConfigLeaf<String> b = leaf(tree, "child.b");
+		child.getItems().remove(b);
+
+		ConfigSnapshot snapshot = ConfigSnapshot.of(tree);
+		b.setValue("detached");
+		assertSame(snapshot, ConfigSnapshot.of(tree));
+		assertEquals(Collections.emptyMap(), ConfigSnapshot.of(child).asMap());
+	}
+
+	@Test
+	@DisplayName("Deserialize into a transaction")
+	void deserialize() throws IOException, FiberException {
+		ConfigBranch tree = this.build(new ArrayList<>());
+		ConfigTransaction transaction = ConfigTransaction.begin(tree);
+		String json = "{ a: 7, child: { b: \"z\" } }";
+		FiberSerialization.deserializeStreaming(transaction, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), new JanksonValueSerializer(false));
+
+		assertEquals(0, this.a.getValue());
+		transaction.commit();
+		assertEquals(7, this.a.getValue());
+		assertEquals("z", this.b.getValue());
+	}
+
+	@Test
+	@DisplayName("Commits do not contend with code synchronizing on the tree")
+	void treeMonitor() throws InterruptedException, ExecutionException, TimeoutException {
+		ConfigBranch tree = this.build(new ArrayList<>());
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try {
+			synchronized (tree) {
+				Future<ConfigSnapshot> commit = executor.submit(() -> ConfigTransaction.begin(tree)
+						.stage(leaf(tree, "a"), BigDecimal.ONE)
+						.commit());
+				assertEquals(BigDecimal.ONE, commit.get(10, TimeUnit.SECONDS).getValue("a"));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
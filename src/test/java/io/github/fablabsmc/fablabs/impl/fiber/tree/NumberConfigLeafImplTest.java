@@ -0,0 +1,108 @@
+package io.github.fablabsmc.fablabs.impl.fiber.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.DecimalSerializableType;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.NumberConfigLeaf;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class NumberConfigLeafImplTest {
+	@Test
+	@DisplayName("Builders create numeric leaves")
+	public void testBuilt() {
+		ConfigTree tree = ConfigTree.builder()
+				.withValue("int", ConfigTypes.INTEGER, 1)
+				.withValue("double", ConfigTypes.DOUBLE, 1.0)
+				.withValue("string", ConfigTypes.STRING, "1")
+				.build();
+
+		assertTrue(tree.lookup("int") instanceof NumberConfigLeaf);
+		assertTrue(tree.lookup("double") instanceof NumberConfigLeaf);
+		assertFalse(tree.lookup("string") instanceof NumberConfigLeaf);
+	}
+
+	@Test
+	@DisplayName("Primitive views follow the value")
+	public void testPrimitiveViews() {
+		NumberConfigLeafImpl leaf = new NumberConfigLeafImpl("leaf", ConfigTypes.UNBOUNDED_DECIMAL.getSerializedType(), null, BigDecimal.ONE, (a, b) -> { });
+		assertEquals(1, leaf.getInt());
+		assertEquals(1L, leaf.getLong());
+		assertEquals(1.0, leaf.getDouble());
+
+		assertTrue(leaf.setValue(new BigDecimal("-2.75")));
+		assertEquals(-2, leaf.getInt());
+		assertEquals(-2L, leaf.getLong());
+		assertEquals(-2.75, leaf.getDouble());
+
+		assertTrue(leaf.setValue(BigDecimal.valueOf(Long.MAX_VALUE)));
+		assertEquals(-1, leaf.getInt());
+		assertEquals(Long.MAX_VALUE, leaf.getLong());
+
+		assertTrue(leaf.setDouble(0.1));
+		assertEquals(new BigDecimal("0.1"), leaf.getValue());
+		assertEquals(0.1, leaf.getDouble());
+		assertThrows(NumberFormatException.class, () -> leaf.setDouble(Double.NaN));
+	}
+
+	@Test
+	@DisplayName("Primitive setters apply constraints")
+	public void testConstraints() {
+		List<BigDecimal> changes = new ArrayList<>();
+		DecimalSerializableType type = new DecimalSerializableType(BigDecimal.valueOf(-10), BigDecimal.valueOf(10), BigDecimal.valueOf(2));
+		NumberConfigLeafImpl leaf = new NumberConfigLeafImpl("leaf", type, null, BigDecimal.ZERO, (a, b) -> changes.add(b));
+
+		assertTrue(leaf.setInt(4));
+		assertEquals(4, leaf.getInt());
+		assertEquals(BigDecimal.valueOf(4), leaf.getValue());
+
+		assertTrue(leaf.setLong(50));
+		assertEquals(10, leaf.getInt());
+
+		assertTrue(leaf.setInt(-50));
+		assertEquals(-10, leaf.getInt());
+
+		assertTrue(leaf.setInt(3));
+		assertEquals(4, leaf.getInt());
+
+		assertTrue(leaf.setDouble(6.0));
+		assertEquals(6.0, leaf.getDouble());
+
+		assertEquals(6, changes.size());
+		assertEquals(BigDecimal.valueOf(-10), changes.get(3));
+	}
+
+	@Test
+	@DisplayName("Primitive views are up to date when listeners run")
+	public void testListenerViews() {
+		List<Double> seen = new ArrayList<>();
+		NumberConfigLeafImpl[] holder = new NumberConfigLeafImpl[1];
+		NumberConfigLeafImpl leaf = new NumberConfigLeafImpl("leaf", ConfigTypes.UNBOUNDED_DECIMAL.getSerializedType(), null, BigDecimal.ZERO, (a, b) -> {
+			// the listener is also notified of the default value, from the constructor
+			if (holder[0] == null) return;
+
+			seen.add(holder[0].getDouble());
+
+			if (b.compareTo(BigDecimal.ONE) == 0) {
+				holder[0].setDouble(2.5);
+			}
+		});
+		holder[0] = leaf;
+
+		assertTrue(leaf.setDouble(1.0));
+		assertEquals(2.5, leaf.getDouble());
+		assertEquals(BigDecimal.valueOf(2.5), leaf.getValue());
+		assertEquals(2, seen.size());
+		assertEquals(1.0, seen.get(0));
+		assertEquals(2.5, seen.get(1));
+	}
+}
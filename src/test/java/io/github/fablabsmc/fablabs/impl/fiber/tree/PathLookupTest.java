@@ -0,0 +1,72 @@
+package io.github.fablabsmc.fablabs.impl.fiber.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigLeafBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.builder.ConfigTreeBuilder;
+import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigBranch;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PathLookupTest {
+	private static ConfigTreeBuilder builder() {
+		return ConfigTree.builder()
+				.withValue("top", ConfigTypes.INTEGER, 1)
+				.fork("a")
+				.fork("b")
+				.withValue("c", ConfigTypes.STRING, "c")
+				.finishBranch()
+				.finishBranch();
+	}
+
+	@Test
+	@DisplayName("Paths resolve to descendants")
+	void lookup() {
+		ConfigBranch tree = builder().build();
+		ConfigBranch a = tree.lookupBranch("a");
+
+		assertEquals(tree.lookup("top"), tree.lookupPath("top"));
+		assertEquals(a, tree.lookupPath("a"));
+		assertEquals(a.lookupBranch("b").lookup("c"), tree.lookupPath("a.b.c"));
+		assertEquals(a.lookupBranch("b").lookup("c"), a.lookupPath("b.c"));
+		assertNull(tree.lookupPath("a.b.d"));
+		assertNull(tree.lookupPath("top.c"));
+		assertNull(tree.lookupPath("b.c"));
+		assertNull(tree.lookupPath(""));
+	}
+
+	@Test
+	@DisplayName("Structural changes update paths")
+	void invalidation() {
+		ConfigBranch tree = builder().build();
+		ConfigBranch b = (ConfigBranch) tree.lookupPath("a.b");
+		assertEquals(b.lookup("c"), tree.lookupPath("a.b.c"));
+
+		ConfigLeaf<?> d = ConfigLeafBuilder.create(null, "d", ConfigTypes.INTEGER, 4).build();
+		b.getItems().add(d);
+		assertEquals(d, tree.lookupPath("a.b.d"));
+
+		b.getItems().removeByName("c");
+		assertNull(tree.lookupPath("a.b.c"));
+
+		// moving a subtree keeps its own paths, and changes the ones from the root
+		b.detach();
+		assertNull(tree.lookupPath("a.b.d"));
+		assertEquals(d, b.lookupPath("d"));
+		tree.getItems().add(b);
+		assertEquals(d, tree.lookupPath("b.d"));
+	}
+
+	@Test
+	@DisplayName("Builders resolve paths")
+	void builderLookup() {
+		ConfigTreeBuilder builder = builder();
+		assertEquals(builder.lookup("top"), builder.lookupPath("top"));
+		assertEquals(builder.lookupBranch("a").lookupBranch("b").lookup("c"), builder.lookupPath("a.b.c"));
+		assertNull(builder.lookupPath("a.c"));
+	}
+}
@@ -4,7 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.github.fablabsmc.fablabs.api.fiber.v1.schema.type.derived.ConfigTypes;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ChangeBatch;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigAttribute;
+import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigLeaf;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.ConfigTree;
 import io.github.fablabsmc.fablabs.api.fiber.v1.tree.PropertyMirror;
 import org.junit.jupiter.api.DisplayName;
@@ -52,4 +54,25 @@ class PropertyMirrorImplTest {
 		assertTrue(mirror.setValue(false));
 		assertFalse(mirror.getValue());
 	}
+
+	@Test
+	@DisplayName("Passively invalidated values are correct in a batch")
+	@SuppressWarnings("unchecked")
+	public void testPassiveInvalidationInBatch() {
+		PropertyMirror<Boolean> mirror = PropertyMirror.create(ConfigTypes.BOOLEAN);
+		ConfigTree tree = ConfigTree.builder()
+				.beginValue("mirrored", ConfigTypes.BOOLEAN, false)
+				.finishValue(mirror::mirror)
+				.build();
+		ConfigLeaf<Boolean> leaf = (ConfigLeaf<Boolean>) tree.lookup("mirrored");
+
+		assertFalse(mirror.getValue());
+
+		try (ChangeBatch batch = ChangeBatch.begin()) {
+			leaf.setValue(true);
+			assertTrue(mirror.getValue());
+		}
+
+		assertTrue(mirror.getValue());
+	}
 }